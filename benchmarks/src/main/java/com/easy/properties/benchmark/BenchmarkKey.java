@@ -0,0 +1,27 @@
+package com.easy.properties.benchmark;
+
+/**
+ * Keys of the configuration read by the load and lookup benchmarks, some of them declaring the type of their value
+ *
+ * @author himanshu_shekhar
+ */
+public enum BenchmarkKey {
+    HOME(String.class),
+    BIN_DIR(String.class),
+    DESCRIPTION(String.class),
+    TIMEOUT(int.class),
+    PORT(String.class),
+    RATIO(double.class),
+    ENABLED(boolean.class),
+    USER_IDS(String.class);
+
+    private final Class<?> type;
+
+    private BenchmarkKey(Class<?> type) {
+        this.type = type;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+}
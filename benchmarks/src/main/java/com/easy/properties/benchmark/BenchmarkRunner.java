@@ -0,0 +1,74 @@
+package com.easy.properties.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the usual JMH command line options, always adding the GC profiler so that allocation rate of every
+ * benchmark is reported along with its time <br>
+ * Unless the number of threads is given through {@code -t}, all the benchmarks run in a single thread first, and then {@link ReadBenchmark}
+ * runs again with each of the thread counts in system property {@code threads} (e.g. {@code -Dthreads=2,4,8,16}), so that contention
+ * among the readers shows up as the reads slowing down with more threads. By default, the thread counts are the powers of two up to the
+ * number of available processors, and the number of available processors itself
+ *
+ * @author himanshu_shekhar
+ */
+public final class BenchmarkRunner {
+    // Any benchmark other than the ones in ReadBenchmark, which are the only ones run with multiple threads
+    private static final String NOT_READ_BENCHMARK = "^(?!.*\\." + ReadBenchmark.class.getSimpleName() + "\\.)";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListWithParams()
+                || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        if (commandLineOptions.getThreads().hasValue()) {
+            new Runner(options(commandLineOptions).build()).run();
+            return;
+        }
+        new Runner(options(commandLineOptions).threads(1).build()).run();
+        for (int threads : getThreadCounts()) {
+            if (threads == 1) {
+                continue;
+            }
+            try {
+                new Runner(options(commandLineOptions).threads(threads).exclude(NOT_READ_BENCHMARK).build()).run();
+            } catch (NoBenchmarksException e) {
+                // ReadBenchmark is not among the benchmarks selected on command line
+                return;
+            }
+        }
+    }
+
+    private static ChainedOptionsBuilder options(CommandLineOptions commandLineOptions) {
+        return new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class);
+    }
+
+    private static List<Integer> getThreadCounts() {
+        List<Integer> threadCounts = new ArrayList<Integer>();
+        String threads = System.getProperty("threads");
+        if (threads != null) {
+            for (String count : threads.split(",")) {
+                threadCounts.add(Integer.parseInt(count.trim()));
+            }
+            return threadCounts;
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int count = 1; count < processors; count *= 2) {
+            threadCounts.add(count);
+        }
+        threadCounts.add(processors);
+        return threadCounts;
+    }
+}
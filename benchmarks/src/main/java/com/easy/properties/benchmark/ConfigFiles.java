@@ -0,0 +1,43 @@
+package com.easy.properties.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Generates the configuration property files for the benchmarks in temporary directory
+ *
+ * @author himanshu_shekhar
+ */
+final class ConfigFiles {
+
+    private ConfigFiles() {
+    }
+
+    static File write(String prefix, CharSequence content) throws IOException {
+        File file = File.createTempFile(prefix, ".properties");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.toString().getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /*
+    Values for all the benchmark keys, with one of them referring to another
+    */
+    static StringBuilder benchmarkKeys() {
+        return new StringBuilder()
+                .append("HOME = /home/benchmark\n")
+                .append("BIN_DIR = ${HOME}/bin\n")
+                .append("DESCRIPTION = Configuration for benchmarks\n")
+                .append("TIMEOUT = 3000\n")
+                .append("PORT = 8080\n")
+                .append("RATIO = 0.75\n")
+                .append("ENABLED = true\n")
+                .append("USER_IDS = 1921, 8887, 7746, 1002, 5531, 9008, 4410, 2323\n");
+    }
+}
@@ -0,0 +1,39 @@
+package com.easy.properties.benchmark;
+
+import com.easy.properties.ConfigKey;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures construction of {@link ConfigKey} from an enum constant, with and without the optional fields declared in the enum
+ *
+ * @author himanshu_shekhar
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConfigKeyBenchmark {
+
+    @Benchmark
+    public ConfigKey withoutOptionalFields() {
+        return new ConfigKey(PlainKey.TIMEOUT);
+    }
+
+    @Benchmark
+    public ConfigKey withOptionalFields() {
+        return new ConfigKey(DetailedKey.TIMEOUT);
+    }
+
+    @Benchmark
+    public ConfigKey withType() {
+        return new ConfigKey(BenchmarkKey.TIMEOUT);
+    }
+}
@@ -0,0 +1,35 @@
+package com.easy.properties.benchmark;
+
+/**
+ * Keys having all the optional fields
+ *
+ * @author himanshu_shekhar
+ */
+public enum DetailedKey {
+    HOME("app.home", true, "/home/app"),
+    BIN_DIR("app.bin", false, "${app.home}/bin"),
+    DESCRIPTION("app.description", false, ""),
+    TIMEOUT("app.timeout", false, "30");
+
+    private final String keyName;
+    private final boolean mandatory;
+    private final String defaultValue;
+
+    private DetailedKey(String keyName, boolean mandatory, String defaultValue) {
+        this.keyName = keyName;
+        this.mandatory = mandatory;
+        this.defaultValue = defaultValue;
+    }
+
+    public String getKeyName() {
+        return keyName;
+    }
+
+    public boolean isMandatory() {
+        return mandatory;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+}
@@ -0,0 +1,71 @@
+package com.easy.properties.benchmark;
+
+import com.easy.properties.Properties;
+import com.easy.properties.PropertiesLoader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading of configuration property files of different sizes, parsed in single thread or in parallel <br>
+ * Apart from the values of all the keys, the file has a multi-lined value repeated till the file has the required number of lines, along
+ * with comments
+ *
+ * @author himanshu_shekhar
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int LINES_PER_ENTRY = 8;
+
+    @Param({"1000", "100000", "1000000"})
+    private int lineCount;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private File configFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder content = ConfigFiles.benchmarkKeys();
+        for (int line = 0; line < lineCount; line += LINES_PER_ENTRY) {
+            content.append("# Description revised at line ").append(line).append('\n');
+            content.append("DESCRIPTION = Description at line ").append(line).append('\n');
+            for (int i = 2; i < LINES_PER_ENTRY; i++) {
+                content.append("    continued with line ").append(line + i).append(" of the description\n");
+            }
+        }
+        configFile = ConfigFiles.write("load", content);
+    }
+
+    @TearDown
+    public void tearDown() {
+        configFile.delete();
+    }
+
+    @Benchmark
+    public Properties load() {
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), UTF_8, BenchmarkKey.class);
+        loader.setParallelParsing(parallel);
+        return loader.load();
+    }
+}
@@ -0,0 +1,13 @@
+package com.easy.properties.benchmark;
+
+/**
+ * Keys without any of the optional fields, so that all of them are looked up through reflection and found missing
+ *
+ * @author himanshu_shekhar
+ */
+public enum PlainKey {
+    HOME,
+    BIN_DIR,
+    DESCRIPTION,
+    TIMEOUT
+}
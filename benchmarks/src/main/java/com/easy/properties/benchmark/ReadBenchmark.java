@@ -0,0 +1,78 @@
+package com.easy.properties.benchmark;
+
+import com.easy.properties.Properties;
+import com.easy.properties.PropertiesLoader;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading of the values from a loaded configuration, shared by all the benchmark threads. {@link BenchmarkRunner} runs it with
+ * increasing number of threads, to show how the reads scale with contention among the readers <br>
+ * {@code TIMEOUT} declares {@code int} type, so {@link #getIntOfDeclaredType()} reads the value parsed while loading, whereas
+ * {@code PORT} does not, so {@link #getIntOfUndeclaredType()} parses the value on every read
+ *
+ * @author himanshu_shekhar
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadBenchmark {
+    private Properties properties;
+
+    @Setup
+    public void setUp() throws IOException {
+        File configFile = ConfigFiles.write("read", ConfigFiles.benchmarkKeys());
+        properties = new PropertiesLoader(configFile.getPath(), BenchmarkKey.class).load();
+        configFile.delete();
+    }
+
+    @Benchmark
+    public String get() {
+        return properties.get(BenchmarkKey.BIN_DIR);
+    }
+
+    @Benchmark
+    public int getIntOfDeclaredType() {
+        return properties.getInt(BenchmarkKey.TIMEOUT);
+    }
+
+    @Benchmark
+    public int getIntOfUndeclaredType() {
+        return properties.getInt(BenchmarkKey.PORT);
+    }
+
+    @Benchmark
+    public double getDouble() {
+        return properties.getDouble(BenchmarkKey.RATIO);
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return properties.getBoolean(BenchmarkKey.ENABLED);
+    }
+
+    @Benchmark
+    public List<Integer> getList() {
+        return properties.getList(BenchmarkKey.USER_IDS, Integer.class);
+    }
+
+    @Benchmark
+    public int[] getIntArray() {
+        return properties.getIntArray(BenchmarkKey.USER_IDS);
+    }
+}
@@ -0,0 +1,65 @@
+package com.easy.properties.benchmark;
+
+import com.easy.properties.Properties;
+import com.easy.properties.PropertiesLoader;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures variable substitution of all the values, for references of different depth and fan-out <br>
+ * The first {@code depth} keys form a chain, each referring to the one before it. Each of the next {@code fanOut} keys refers to the last
+ * key of the chain, so that it has that many dependents
+ *
+ * @author himanshu_shekhar
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubstitutionBenchmark {
+
+    @Param({"1", "8", "32"})
+    private int depth;
+
+    @Param({"1", "8", "64"})
+    private int fanOut;
+
+    private Properties properties;
+    private ReferenceKey lastKey;
+
+    @Setup
+    public void setUp() throws IOException {
+        ReferenceKey[] keys = ReferenceKey.values();
+        StringBuilder content = new StringBuilder().append(keys[0]).append(" = /root\n");
+        for (int i = 1; i < depth; i++) {
+            content.append(keys[i]).append(" = ${").append(keys[i - 1]).append("}/level").append(i).append('\n');
+        }
+        for (int i = depth; i < depth + fanOut; i++) {
+            content.append(keys[i]).append(" = ${").append(keys[depth - 1]).append("}/fan").append(i).append('\n');
+        }
+        File configFile = ConfigFiles.write("substitution", content);
+        properties = new PropertiesLoader(configFile.getPath(), ReferenceKey.class).load();
+        configFile.delete();
+        lastKey = keys[depth + fanOut - 1];
+    }
+
+    @Benchmark
+    public String makeSubstitutions() {
+        properties.makeSubstitutions();
+        return properties.get(lastKey);
+    }
+}
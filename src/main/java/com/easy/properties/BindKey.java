@@ -0,0 +1,26 @@
+package com.easy.properties;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies the enum constant whose value is returned by a method of the interface bound through {@link Properties#bind(Class)} <br>
+ * Without this annotation, the constant is named after the method, with {@code get} or {@code is} prefix removed and camel case
+ * converted to upper case separated by underscore. For example, both {@code maxSize()} and {@code getMaxSize()} return value of
+ * {@code MAX_SIZE}
+ *
+ * @author himanshu_shekhar
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BindKey {
+
+    /**
+     * @return Name of the enum constant
+     */
+    String value();
+}
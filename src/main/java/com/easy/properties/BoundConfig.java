@@ -0,0 +1,45 @@
+package com.easy.properties;
+
+/**
+ * This thread-safe class holds the implementation of an interface bound to the configuration through {@link Properties#bind(Class)} <br>
+ * The implementation is immutable, having the values converted to return type of its methods while binding. When the configuration is
+ * reloaded, a new implementation is created with the reloaded values and {@link #get()} returns that one afterwards, so the instance
+ * obtained earlier keeps on returning the values it was created with
+ *
+ * @param <T> The interface bound to the configuration
+ * @author himanshu_shekhar
+ */
+public final class BoundConfig<T> {
+    private final ConfigBinder<T> binder;
+    private volatile T instance;
+
+    BoundConfig(ConfigBinder<T> binder, T instance) {
+        this.binder = binder;
+        this.instance = instance;
+    }
+
+    /**
+     * @return Implementation of the interface with values of the configuration loaded last
+     */
+    public T get() {
+        return instance;
+    }
+
+    /**
+     * @return The interface bound to the configuration
+     */
+    public Class<T> getType() {
+        return binder.getType();
+    }
+
+    /*
+    Create the implementation with values of given configuration, without replacing the current one
+    */
+    T create(Properties source) {
+        return binder.bind(source);
+    }
+
+    void update(T instance) {
+        this.instance = instance;
+    }
+}
@@ -0,0 +1,337 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidBindingException;
+import com.easy.properties.exception.InvalidConfigException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class creates implementations of an interface, whose methods return values of the configuration keys <br>
+ * Every abstract method of the interface is mapped to an enum constant (see {@link BindKey}) once, and its return type is checked
+ * against the type declared for the key (see {@link ConfigKey}). The values are read and converted every time an implementation is
+ * created, so a value which cannot be converted is reported while binding and not when the method is invoked <br>
+ * Supported return types are {@code String}, primitive types and their wrappers, {@code List} of any of these (elements separated by
+ * comma), and arrays of {@code int, long and double} (elements separated by comma)
+ *
+ * @param <T> The interface bound to the configuration
+ * @author himanshu_shekhar
+ */
+final class ConfigBinder<T> {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigBinder.class);
+
+    // Suffix of the class ConfigBindingProcessor generates for an interface annotated with ConfigBinding
+    private static final String BINDING_SUFFIX = "_ConfigBinding";
+
+    private final Class<T> type;
+    // Bound methods sorted by name, which is the order in which generated class takes their values
+    private final Method[] methods;
+    private final Enum[] keys;
+    // Primitive type (or String) for a method returning single value, null for a list or an array
+    private final Class<?>[] scalarTypes;
+    // Type of the elements for a method returning list, null otherwise
+    private final Class<?>[] elementTypes;
+    // Constructor of the generated class taking values of the methods, null if proxy is to be used instead
+    private final MethodHandle constructor;
+
+    ConfigBinder(Class<T> type, ConfigSnapshot snapshot) {
+        logger.debug("Binding {} to the configuration", type.getName());
+        if (!type.isInterface() || type.isAnnotation()) {
+            throw new InvalidBindingException(type.getName() + " is not an interface, only interfaces can be bound to configuration");
+        }
+        if (type.getTypeParameters().length > 0) {
+            throw new InvalidBindingException("Interface " + type.getName() + " cannot have type parameters to be bound to configuration");
+        }
+        this.type = type;
+
+        SortedMap<String, Method> boundMethods = new TreeMap<String, Method>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isAbstract(method.getModifiers())) {
+                boundMethods.put(method.getName(), method);
+            }
+        }
+        methods = boundMethods.values().toArray(new Method[boundMethods.size()]);
+        keys = new Enum[methods.length];
+        scalarTypes = new Class<?>[methods.length];
+        elementTypes = new Class<?>[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            initializeMethod(i, snapshot);
+        }
+
+        constructor = getGeneratedConstructor();
+        if (constructor == null) {
+            for (Method method : type.getMethods()) {
+                if (method.isDefault()) {
+                    throw new InvalidBindingException("Default method " + method.getName() + " of " + type.getName() + " can be invoked only if "
+                            + "the interface is annotated with @" + ConfigBinding.class.getSimpleName() + " and its implementation is generated");
+                }
+            }
+        }
+    }
+
+    private void initializeMethod(int index, ConfigSnapshot snapshot) {
+        Method method = methods[index];
+        if (method.getParameterTypes().length > 0 || method.getTypeParameters().length > 0) {
+            throw new InvalidBindingException("Method " + method.getName() + " of " + type.getName() + " cannot have parameters to be bound to configuration");
+        }
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == List.class) {
+            elementTypes[index] = getElementType(method);
+        } else if (returnType != int[].class && returnType != long[].class && returnType != double[].class) {
+            scalarTypes[index] = getScalarType(returnType);
+            if (scalarTypes[index] == null) {
+                throw new InvalidBindingException("Return type " + returnType.getName() + " of method " + method.getName() + " in " + type.getName()
+                        + " is not supported for binding to configuration");
+            }
+        }
+
+        String keyName = getKeyName(method);
+        for (Object constant : snapshot.getKeyEnumClass().getEnumConstants()) {
+            if (((Enum) constant).name().equals(keyName)) {
+                keys[index] = (Enum) constant;
+            }
+        }
+        if (keys[index] == null) {
+            throw new InvalidBindingException("Method " + method.getName() + " of " + type.getName() + " refers to " + keyName
+                    + ", which is not a constant of " + snapshot.getKeyEnumClass().getName());
+        }
+
+        Class<?> declaredType = getScalarType(snapshot.getConfigKey(keys[index].ordinal()).getType());
+        if (scalarTypes[index] != null && !isAssignable(declaredType, scalarTypes[index])) {
+            throw new InvalidBindingException("Method " + method.getName() + " of " + type.getName() + " returns " + returnType.getName()
+                    + ", but type of " + keyName + " is declared to be " + declaredType.getName());
+        }
+    }
+
+    /*
+    The list must be of specific type of elements, e.g. List<Integer>, since elements of raw List or List<?> cannot be converted
+    */
+    private Class<?> getElementType(Method method) {
+        Type returnType = method.getGenericReturnType();
+        if (returnType instanceof ParameterizedType) {
+            Type elementType = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+            if (elementType instanceof Class && !((Class<?>) elementType).isPrimitive() && getScalarType((Class<?>) elementType) != null) {
+                return (Class<?>) elementType;
+            }
+        }
+        throw new InvalidBindingException("Method " + method.getName() + " of " + type.getName() + " must return List of String, "
+                + "or of wrapper of a primitive type to be bound to configuration");
+    }
+
+    /*
+    Enum constant is named by BindKey annotation if present, else after the method name. For example, both maxSize() and getMaxSize()
+    refer to MAX_SIZE
+    */
+    private static String getKeyName(Method method) {
+        BindKey bindKey = method.getAnnotation(BindKey.class);
+        if (bindKey != null) {
+            return bindKey.value();
+        }
+        String name = method.getName();
+        if (name.length() > 3 && name.startsWith("get") && Character.isUpperCase(name.charAt(3))) {
+            name = name.substring(3);
+        } else if (name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2))) {
+            name = name.substring(2);
+        }
+        StringBuilder keyName = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (i > 0 && Character.isUpperCase(c) && !Character.isUpperCase(name.charAt(i - 1))) {
+                keyName.append('_');
+            }
+            keyName.append(Character.toUpperCase(c));
+        }
+        return keyName.toString();
+    }
+
+    /*
+    Map the type to its primitive counterpart. String is returned as it is, and null for any other type
+    */
+    private static Class<?> getScalarType(Class<?> type) {
+        if (type == String.class) {
+            return String.class;
+        } else if (type == Byte.class || type == byte.class) {
+            return byte.class;
+        } else if (type == Short.class || type == short.class) {
+            return short.class;
+        } else if (type == Integer.class || type == int.class) {
+            return int.class;
+        } else if (type == Character.class || type == char.class) {
+            return char.class;
+        } else if (type == Long.class || type == long.class) {
+            return long.class;
+        } else if (type == Float.class || type == float.class) {
+            return float.class;
+        } else if (type == Double.class || type == double.class) {
+            return double.class;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return boolean.class;
+        }
+        return null;
+    }
+
+    /*
+    Value of declared type can be returned as String, as the same type or as wider type of number
+    */
+    private static boolean isAssignable(Class<?> declaredType, Class<?> returnType) {
+        if (declaredType == String.class || returnType == String.class || declaredType == returnType) {
+            return true;
+        } else if (returnType == long.class) {
+            return declaredType == int.class || declaredType == short.class || declaredType == byte.class;
+        } else if (returnType == int.class) {
+            return declaredType == short.class || declaredType == byte.class;
+        } else if (returnType == short.class) {
+            return declaredType == byte.class;
+        } else if (returnType == double.class) {
+            return declaredType == float.class;
+        }
+        return false;
+    }
+
+    /*
+    Constructor of the class generated by ConfigBindingProcessor. Null if the interface is not annotated, or the class is not generated
+    (e.g. annotation processing was disabled) or was generated for a different version of the interface
+    */
+    private MethodHandle getGeneratedConstructor() {
+        if (!type.isAnnotationPresent(ConfigBinding.class)) {
+            return null;
+        }
+        String bindingName = PropertiesLoader.getGeneratedClassName(type, BINDING_SUFFIX);
+        try {
+            Class<?> bindingClass = Class.forName(bindingName, true, type.getClassLoader());
+            boolean matches = type.isAssignableFrom(bindingClass);
+            for (int i = 0; matches && i < methods.length; i++) {
+                matches = bindingClass.getDeclaredField(methods[i].getName()).getType() == methods[i].getReturnType();
+            }
+            if (matches) {
+                return MethodHandles.publicLookup().findConstructor(bindingClass, MethodType.methodType(void.class, Object[].class))
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            }
+            logger.warn("{} does not match the methods of {}, using proxy instead", bindingName, type.getName());
+        } catch (NoSuchFieldException e) {
+            logger.warn("{} does not match the methods of {}, using proxy instead", bindingName, type.getName());
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Cannot use " + bindingName + " generated for " + type.getName() + ", using proxy instead", e);
+        }
+        return null;
+    }
+
+    Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @param source Configuration to read the values from
+     * @return New implementation of the interface, returning values of the specified configuration
+     * @throws InvalidConfigException If any of the values cannot be converted to return type of corresponding method
+     */
+    T bind(Properties source) {
+        Object[] values = new Object[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            try {
+                values[i] = read(source, i);
+            } catch (InvalidConfigException e) {
+                throw new InvalidConfigException("Cannot bind " + keys[i] + " to method " + methods[i].getName() + " of " + type.getName(), e);
+            }
+        }
+
+        if (constructor != null) {
+            try {
+                return type.cast((Object) constructor.invokeExact(values));
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvalidBindingException("Cannot create implementation of " + type.getName(), e);
+            }
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new BoundValues(type, methods, values)));
+    }
+
+    private Object read(Properties source, int index) {
+        Enum key = keys[index];
+        Class<?> returnType = methods[index].getReturnType();
+        Class<?> scalarType = scalarTypes[index];
+        if (returnType == List.class) {
+            return source.getList(key, elementTypes[index]);
+        } else if (returnType == int[].class) {
+            return source.getIntArray(key);
+        } else if (returnType == long[].class) {
+            return source.getLongArray(key);
+        } else if (returnType == double[].class) {
+            return source.getDoubleArray(key);
+        } else if (scalarType == String.class) {
+            return source.get(key);
+        } else if (scalarType == byte.class) {
+            return source.getByte(key);
+        } else if (scalarType == short.class) {
+            return source.getShort(key);
+        } else if (scalarType == int.class) {
+            return source.getInt(key);
+        } else if (scalarType == long.class) {
+            return source.getLong(key);
+        } else if (scalarType == float.class) {
+            return source.getFloat(key);
+        } else if (scalarType == double.class) {
+            return source.getDouble(key);
+        } else if (scalarType == char.class) {
+            return source.getChar(key);
+        }
+        // Anything other than true or false would silently be false otherwise
+        String value = source.get(key);
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw new InvalidConfigException("Is not boolean, check configuration (" + value + ")");
+        }
+        return source.getBoolean(key);
+    }
+
+    /*
+    Handler of the proxy used if implementation of the interface is not generated. It returns the values read while binding, and a copy
+    of them for arrays so that the caller cannot modify them
+    */
+    private static final class BoundValues implements InvocationHandler {
+        private final Class<?> type;
+        private final Map<String, Object> values = new HashMap<String, Object>();
+
+        BoundValues(Class<?> type, Method[] methods, Object[] values) {
+            this.type = type;
+            for (int i = 0; i < methods.length; i++) {
+                this.values.put(methods[i].getName(), values[i]);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getDeclaringClass() == Object.class) {
+                if ("equals".equals(method.getName())) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(method.getName())) {
+                    return System.identityHashCode(proxy);
+                }
+                return type.getSimpleName() + values;
+            }
+            Object value = values.get(method.getName());
+            if (value instanceof int[]) {
+                return ((int[]) value).clone();
+            } else if (value instanceof long[]) {
+                return ((long[]) value).clone();
+            } else if (value instanceof double[]) {
+                return ((double[]) value).clone();
+            }
+            return value;
+        }
+    }
+}
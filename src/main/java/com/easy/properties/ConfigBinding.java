@@ -0,0 +1,25 @@
+package com.easy.properties;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface to be bound to the configuration through {@link Properties#bind(Class)}, so that its implementation is generated
+ * at compile time <br>
+ * For interface {@code com.example.MyConfig}, the annotation processor {@code com.easy.properties.processor.ConfigBindingProcessor}
+ * generates {@code com.example.MyConfig_ConfigBinding} which keeps the converted values in final fields, so that reading a value is
+ * just reading a field. A method which cannot be bound (e.g. having parameters or unsupported return type) is reported as a compilation
+ * error <br>
+ * If the generated class is not found while binding, a {@link java.lang.reflect.Proxy} returning the same values is used instead, as
+ * for an interface without this annotation
+ *
+ * @author himanshu_shekhar
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConfigBinding {
+}
@@ -0,0 +1,77 @@
+package com.easy.properties;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This immutable class represents the changes in configuration values, with value of each changed key before and after the change <br>
+ * Values are the ones {@link Properties#get(Enum)} returns, except that fall back to system properties and environment variables for
+ * empty values is not considered
+ *
+ * @author himanshu_shekhar
+ */
+public final class ConfigChangeEvent {
+    private final Map<Enum, String> oldValues;
+    private final Map<Enum, String> newValues;
+
+    ConfigChangeEvent(Map<Enum, String> oldValues, Map<Enum, String> newValues) {
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+    }
+
+    /*
+    Combine this event with the one which happened after it. A key changed back to its earlier value is not a change anymore
+    */
+    ConfigChangeEvent merge(ConfigChangeEvent next) {
+        Map<Enum, String> mergedOldValues = new LinkedHashMap<Enum, String>(oldValues);
+        Map<Enum, String> mergedNewValues = new LinkedHashMap<Enum, String>(newValues);
+        for (Map.Entry<Enum, String> entry : next.oldValues.entrySet()) {
+            if (!mergedOldValues.containsKey(entry.getKey())) {
+                mergedOldValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+        mergedNewValues.putAll(next.newValues);
+        for (Enum key : next.newValues.keySet()) {
+            String oldValue = mergedOldValues.get(key);
+            if (oldValue == null ? mergedNewValues.get(key) == null : oldValue.equals(mergedNewValues.get(key))) {
+                mergedOldValues.remove(key);
+                mergedNewValues.remove(key);
+            }
+        }
+        return new ConfigChangeEvent(mergedOldValues, mergedNewValues);
+    }
+
+    boolean isEmpty() {
+        return newValues.isEmpty();
+    }
+
+    /**
+     * @return Keys whose value has changed
+     */
+    public Set<Enum> getChangedKeys() {
+        return Collections.unmodifiableSet(newValues.keySet());
+    }
+
+    /**
+     * @param key Enum key whose value has changed
+     * @return Value of the key before the change, null if the key has not changed
+     */
+    public String getOldValue(Enum key) {
+        return oldValues.get(key);
+    }
+
+    /**
+     * @param key Enum key whose value has changed
+     * @return Value of the key after the change, null if the key has not changed
+     */
+    public String getNewValue(Enum key) {
+        return newValues.get(key);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigChangeEvent{" + "oldValues=" + oldValues + ", newValues=" + newValues + '}';
+    }
+}
@@ -0,0 +1,19 @@
+package com.easy.properties;
+
+/**
+ * Listener to be notified when values of configuration keys change, i.e. when the configuration property file is reloaded with changed
+ * values <br>
+ * Register it through {@link Properties#addChangeListener(ConfigChangeListener)} or one of its overloads
+ *
+ * @author himanshu_shekhar
+ */
+public interface ConfigChangeListener {
+
+    /**
+     * Invoked once per reload, with all the changed keys (among the ones the listener is registered for) in a single event. If
+     * configuration is reloaded again before the listener could be notified, the changes are combined into a single event
+     * 
+     * @param event The changes in configuration values
+     */
+    void onChange(ConfigChangeEvent event);
+}
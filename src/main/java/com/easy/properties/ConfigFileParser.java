@@ -0,0 +1,396 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidConfigException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class parses the content of a configuration property file into key and value pairs <br>
+ * The content is scanned byte by byte for line ends, the key-value separator and comments, and a {@code String} is created only for the
+ * final key and value of each entry. Lines of a multi-lined value are joined only once all of them are found <br>
+ * The scanning relies on line ends, whitespace, {@code #} and {@code =} being encoded as single ASCII bytes which are never part of any
+ * other character, which holds for UTF-8, ISO-8859-* and most of the other charsets. Content in any other charset (e.g. UTF-16) is
+ * converted to UTF-8 before scanning <br>
+ * A large content can be parsed in parallel, by splitting it into chunks at line boundaries and parsing the chunks on a fork/join pool.
+ * Since a chunk can start in the middle of a multi-lined value, the lines at start of a chunk (before its first {@code KEY = VALUE} line)
+ * are joined to the last entry of the chunk before it, and the entries are handed over in the same order as in the content <br>
+ * Instances of this class are not thread-safe
+ *
+ * @author himanshu_shekhar
+ */
+final class ConfigFileParser {
+    // Files of this size or larger are memory mapped instead of being read into heap
+    static final long MAPPING_THRESHOLD = 1024 * 1024;
+    // Content smaller than this is not split for parsing in parallel, since the split would cost more than it saves
+    static final int MIN_CHUNK_SIZE = 64 * 1024;
+    // Chunks per worker thread of the pool, so that the load stays balanced even if some chunks take longer than others
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final byte KEY_VALUE_SEPARATOR = '=';
+    private static final byte COMMENT_START = '#';
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+    private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final String SCANNED_CHARACTERS = "\t\n\f\r #=";
+
+    /**
+     * Receiver of the entries parsed from the configuration property file
+     */
+    interface EntryHandler {
+
+        void onEntry(String key, String value);
+    }
+
+    private final ByteBuffer content;
+    private final Charset charset;
+    private final int start;
+
+    private byte[] scratch = new byte[0];
+
+    ConfigFileParser(ByteBuffer content, Charset charset) {
+        if (isAsciiCompatible(charset)) {
+            this.content = content;
+            this.charset = charset;
+        } else {
+            this.content = UTF_8.encode(charset.decode(content));
+            this.charset = UTF_8;
+        }
+        int position = this.content.position();
+        this.start = this.charset.equals(UTF_8) && startsWith(position, this.content.limit(), UTF_8_BOM) ? position + UTF_8_BOM.length : position;
+    }
+
+    /*
+    Parser sharing the content of given one, for parsing a part of the content in another thread. Only absolute reads are made on the
+    content, so the parsers can share it safely
+    */
+    private ConfigFileParser(ConfigFileParser parser) {
+        this.content = parser.content;
+        this.charset = parser.charset;
+        this.start = parser.start;
+    }
+
+    /*
+    Content of the file, memory mapped if the file is large
+    */
+    static ByteBuffer read(File configFile) throws IOException {
+        FileChannel channel = FileChannel.open(configFile.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new InvalidConfigException("Config file is too large (" + configFile.getAbsolutePath() + ")");
+            }
+            if (size >= MAPPING_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading till the buffer is full or end of file is reached
+            }
+            ((Buffer) buffer).flip();
+            return buffer;
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        return charset.canEncode() && Arrays.equals(SCANNED_CHARACTERS.getBytes(US_ASCII), SCANNED_CHARACTERS.getBytes(charset));
+    }
+
+    /*
+    Parse the whole content in current thread, handing over the entries as they are found
+    */
+    void parse(EntryHandler handler) {
+        Chunk chunk = new Chunk();
+        parse(start, content.limit(), chunk, handler);
+        handOver(chunk, handler);
+    }
+
+    /*
+    Parse the content in chunks on given pool, unless the content is too small to benefit from it. The entries are handed over in current
+    thread once all the chunks are parsed
+    */
+    void parse(EntryHandler handler, ForkJoinPool pool) {
+        int length = content.limit() - start;
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, length / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        if (length <= chunkSize) {
+            parse(handler);
+        } else {
+            parse(handler, pool, chunkSize);
+        }
+    }
+
+    void parse(EntryHandler handler, ForkJoinPool pool, int chunkSize) {
+        Chunk chunk = pool.invoke(new ChunkTask(this, start, content.limit(), chunkSize));
+        for (int i = 0; i < chunk.keys.size(); i++) {
+            handler.onEntry(chunk.keys.get(i), chunk.values.get(i));
+        }
+        handOver(chunk, handler);
+    }
+
+    /*
+    Hand over the last entry, which was left pending since more lines could have been there for its value. Lines before the first entry
+    are not part of any entry, so they are ignored
+    */
+    private void handOver(Chunk chunk, EntryHandler handler) {
+        if (chunk.pendingKey != null) {
+            handler.onEntry(chunk.pendingKey, decode(chunk.pendingValueLines));
+        }
+    }
+
+    /*
+    Logic summary, for every line (with surrounding whitespace ignored) between the given offsets:
+    1. Ignore if line is empty or is a comment line (i.e. starts with "#")
+    2. If line does not contain "=", it must be part of multi-lined VALUE for previous KEY, so record this line into VALUE gathered for previous KEY
+    (or as a leading line of the chunk if there is no previous KEY in the chunk)
+    3. If "=" is present, the text before first "=" is the KEY and the text after it is the VALUE. The entry gathered for previous KEY is
+    complete now, so hand it over
+    The entry gathered for last KEY is left pending in the chunk, since the lines after the chunk can also be part of its VALUE
+    */
+    private void parse(int position, int limit, Chunk chunk, EntryHandler handler) {
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && !isLineEnd(content.get(lineEnd))) {
+                lineEnd++;
+            }
+            int lineStart = skipWhitespace(position, lineEnd);
+            int end = trimWhitespace(lineStart, lineEnd);
+            position = lineEnd + 1;
+            if (lineStart == end || content.get(lineStart) == COMMENT_START) {
+                continue;
+            }
+
+            int separator = indexOf(KEY_VALUE_SEPARATOR, lineStart, end);
+            if (separator < 0) {
+                // This must be part of the multi-line value
+                (chunk.pendingKey == null ? chunk.leadingLines : chunk.pendingValueLines).add(lineStart, end);
+                continue;
+            }
+            int keyEnd = trimWhitespace(lineStart, separator);
+            if (keyEnd == lineStart) {
+                throw new InvalidConfigException("Contains invalid line (" + decode(lineStart, end) + ")");
+            }
+            if (chunk.pendingKey != null) {
+                handler.onEntry(chunk.pendingKey, decode(chunk.pendingValueLines));
+            }
+            chunk.pendingKey = decode(lineStart, keyEnd);
+            chunk.pendingValueLines.clear();
+            chunk.pendingValueLines.add(skipWhitespace(separator + 1, end), end);
+        }
+    }
+
+    /*
+    Offset just after the first line end at or after given offset, the limit if there is no line end
+    */
+    private int nextLineStart(int position, int limit) {
+        while (position < limit && !isLineEnd(content.get(position))) {
+            position++;
+        }
+        return Math.min(position + 1, limit);
+    }
+
+    private boolean startsWith(int position, int limit, byte[] prefix) {
+        if (limit - position < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (content.get(position + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /*
+    Same as the whitespace String.trim() ignores, i.e. all the control characters and space
+    */
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private int skipWhitespace(int start, int end) {
+        while (start < end && isWhitespace(content.get(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimWhitespace(int start, int end) {
+        while (end > start && isWhitespace(content.get(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private int indexOf(byte b, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (content.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+    The lines of a value, joined by new line character
+    */
+    private String decode(LineRanges lines) {
+        if (lines.count == 1) {
+            return decode(lines.offsets[0], lines.offsets[1]);
+        }
+        int length = lines.count - 1;
+        for (int i = 0; i < lines.count; i++) {
+            length += lines.offsets[i * 2 + 1] - lines.offsets[i * 2];
+        }
+        byte[] bytes = scratch(length);
+        int offset = 0;
+        for (int i = 0; i < lines.count; i++) {
+            if (i > 0) {
+                bytes[offset++] = '\n';
+            }
+            offset = copy(lines.offsets[i * 2], lines.offsets[i * 2 + 1], bytes, offset);
+        }
+        return new String(bytes, 0, length, charset);
+    }
+
+    private String decode(int start, int end) {
+        if (content.hasArray()) {
+            return new String(content.array(), content.arrayOffset() + start, end - start, charset);
+        }
+        byte[] bytes = scratch(end - start);
+        copy(start, end, bytes, 0);
+        return new String(bytes, 0, end - start, charset);
+    }
+
+    private int copy(int start, int end, byte[] target, int offset) {
+        ByteBuffer source = content.duplicate();
+        ((Buffer) source).position(start);
+        source.get(target, offset, end - start);
+        return offset + end - start;
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    /*
+    Start and end offsets of lines in the content, one pair per line
+    */
+    private static final class LineRanges {
+        private int[] offsets = new int[2];
+        private int count;
+
+        void add(int start, int end) {
+            if (offsets.length < (count + 1) * 2) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count * 2] = start;
+            offsets[count * 2 + 1] = end;
+            count++;
+        }
+
+        void addAll(LineRanges lines) {
+            for (int i = 0; i < lines.count; i++) {
+                add(lines.offsets[i * 2], lines.offsets[i * 2 + 1]);
+            }
+        }
+
+        void clear() {
+            count = 0;
+        }
+    }
+
+    /*
+    Result of parsing a part of the content. The pending key is null if the part has no KEY = VALUE line, in which case all its lines are
+    leading lines
+    */
+    private static final class Chunk implements EntryHandler {
+        // Lines before the first KEY = VALUE line, which continue the value of an entry from before this part
+        private final LineRanges leadingLines = new LineRanges();
+        // Entries completed in this part
+        private final List<String> keys = new ArrayList<String>();
+        private final List<String> values = new ArrayList<String>();
+        // Last entry of this part, whose value can continue in the part after it
+        private String pendingKey;
+        private final LineRanges pendingValueLines = new LineRanges();
+
+        @Override
+        public void onEntry(String key, String value) {
+            keys.add(key);
+            values.add(value);
+        }
+
+        /*
+        Take over the entries of the part just after this one. Its leading lines complete the pending entry of this part
+        */
+        void append(Chunk next, ConfigFileParser parser) {
+            if (pendingKey == null) {
+                leadingLines.addAll(next.leadingLines);
+            } else {
+                pendingValueLines.addAll(next.leadingLines);
+            }
+            if (next.pendingKey == null) {
+                return;
+            }
+            if (pendingKey != null) {
+                onEntry(pendingKey, parser.decode(pendingValueLines));
+            }
+            keys.addAll(next.keys);
+            values.addAll(next.values);
+            pendingKey = next.pendingKey;
+            pendingValueLines.clear();
+            pendingValueLines.addAll(next.pendingValueLines);
+        }
+    }
+
+    /*
+    Parse the part of content between given offsets, splitting it in two halves at a line boundary until it is small enough
+    */
+    private static final class ChunkTask extends RecursiveTask<Chunk> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ConfigFileParser parser;
+        private final int start;
+        private final int end;
+        private final int chunkSize;
+
+        ChunkTask(ConfigFileParser parser, int start, int end, int chunkSize) {
+            this.parser = new ConfigFileParser(parser);
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Chunk compute() {
+            int middle = end - start > chunkSize ? parser.nextLineStart(start + (end - start) / 2, end) : end;
+            if (middle >= end) {
+                Chunk chunk = new Chunk();
+                parser.parse(start, end, chunk, chunk);
+                return chunk;
+            }
+            ChunkTask second = new ChunkTask(parser, middle, end, chunkSize);
+            second.fork();
+            Chunk chunk = new ChunkTask(parser, start, middle, chunkSize).compute();
+            chunk.append(second.join(), parser);
+            return chunk;
+        }
+    }
+}
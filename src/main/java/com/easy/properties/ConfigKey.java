@@ -1,6 +1,5 @@
 package com.easy.properties;
 
-import com.easy.properties.exception.EnumMissingOptionalFieldException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,6 +10,7 @@ import org.slf4j.LoggerFactory;
  *    <li>{@code String keyName}</li>
  *    <li>{@code boolean mandatory}</li>
  *    <li>{@code String defaultValue}</li>
+ *    <li>{@code Class<?> type}</li>
  * </ul>
  * <i><b>Note: </b>A getter method following Java naming conventions should also be available for the customization to work</i>
  * <br>
@@ -19,8 +19,13 @@ import org.slf4j.LoggerFactory;
  *    <li>{@code String getKeyName()}</li>
  *    <li>{@code boolean isMandatory()}</li>
  *    <li>{@code String getDefaultValue()}</li>
+ *    <li>{@code Class<?> getType()}</li>
  * </ul>
  * If {@code keyName} field is not defined, name of the Enum constant is considered as the key name <br>
+ * If {@code type} field is defined, value of the key is converted to that type once while loading the configuration, so an incorrect
+ * value is reported at load time and typed getters of {@link Properties} need not parse the value on every call <br>
+ * The fields are looked up through reflection, unless the enum is annotated with {@link ConfigKeys} in which case the getters are invoked
+ * by a class generated at compile time <br>
  * Two instances with same key-name are considered to be equal <br>
  * 
  * @author himanshu_shekhar
@@ -31,10 +36,12 @@ public class ConfigKey {
     private static final String FIELD_KEYNAME = "keyName";
     private static final String FIELD_MANDATORY = "mandatory";
     private static final String FIELD_DEFAULT_VALUE = "defaultValue";
+    private static final String FIELD_TYPE = "type";
     
     private final String keyName;
     private final boolean mandatory;
     private final String defaultValue;
+    private final Class<?> type;
     
     /**
      * Depending upon the fields defined in specified Enum, {@code keyName, mandatory and defaultValue} will be updated
@@ -45,10 +52,11 @@ public class ConfigKey {
         this.keyName = getKeyName(enumConstant);
         this.mandatory = isMandatory(enumConstant);
         this.defaultValue = getDefaultValue(enumConstant);
+        this.type = getType(enumConstant);
     }
     
     /**
-     * Values other than {@code keyName} ({@code mandatory and defaultValue}) will be set to their default values
+     * Values other than {@code keyName} ({@code mandatory, defaultValue and type}) will be set to their default values
      * @param keyName The key name corresponding to enum constant
      */
     public ConfigKey(String keyName){
@@ -56,6 +64,22 @@ public class ConfigKey {
         this.keyName = keyName;
         this.mandatory = false;
         this.defaultValue = "";
+        this.type = String.class;
+    }
+    
+    /**
+     * Used by the classes generated for enums annotated with {@link ConfigKeys}, which obtain the values directly from the getters
+     * instead of reflection
+     * @param keyName The key name corresponding to enum constant
+     * @param mandatory If the key must be present in the configuration property file
+     * @param defaultValue Value to be used if configuration property file does not contain value for the key
+     * @param type Data type to which value of the key is converted while loading, {@code String} if null
+     */
+    public ConfigKey(String keyName, boolean mandatory, String defaultValue, Class<?> type){
+        this.keyName = keyName;
+        this.mandatory = mandatory;
+        this.defaultValue = defaultValue;
+        this.type = type == null ? String.class : type;
     }
     
     /*
@@ -63,10 +87,10 @@ public class ConfigKey {
     */
     private static String getKeyName(Object enumConstant){
         String keyName;
-        try{
-            keyName = (String) getFieldValue(enumConstant, FIELD_KEYNAME);
-        }catch(EnumMissingOptionalFieldException e){
-            logger.debug("Cannot find keyName field for " + enumConstant.getClass().getName(), e);
+        EnumFieldInfo fieldInfo = new EnumFieldInfo(enumConstant, FIELD_KEYNAME);
+        if(fieldInfo.isAvailable()){
+            keyName = (String) fieldInfo.getFieldValue();
+        }else{
             keyName = ((Enum) enumConstant).name();
         }
         
@@ -76,14 +100,13 @@ public class ConfigKey {
     }
     
     /*
-    If mandatory is defined in Enum then use it, else use false
+    If mandatory is defined in Enum then use it, else use false. A null value of Boolean field is considered false as well
     */
     private static boolean isMandatory(Object enumConstant){
         boolean mandatory = false;
-        try{
-            mandatory = Boolean.parseBoolean(getFieldValue(enumConstant, FIELD_MANDATORY).toString());
-        }catch(EnumMissingOptionalFieldException e){
-            logger.debug("Cannot find mandatory field for " + enumConstant.getClass().getName(), e);
+        EnumFieldInfo fieldInfo = new EnumFieldInfo(enumConstant, FIELD_MANDATORY);
+        if(fieldInfo.isAvailable()){
+            mandatory = Boolean.TRUE.equals(fieldInfo.getFieldValue());
         }
         
         logger.trace("Determined mandatory for {} to be {}", enumConstant, mandatory);
@@ -96,10 +119,9 @@ public class ConfigKey {
     */
     private static String getDefaultValue(Object enumConstant){
         String defaultValue = "";
-        try{
-            defaultValue = (String) getFieldValue(enumConstant, FIELD_DEFAULT_VALUE);
-        }catch(EnumMissingOptionalFieldException e){
-            logger.debug("Cannot find default value field for " + enumConstant.getClass().getName(), e);
+        EnumFieldInfo fieldInfo = new EnumFieldInfo(enumConstant, FIELD_DEFAULT_VALUE);
+        if(fieldInfo.isAvailable()){
+            defaultValue = (String) fieldInfo.getFieldValue();
         }
         
         logger.trace("Determined default value for {} to be {}", enumConstant, defaultValue);
@@ -108,11 +130,21 @@ public class ConfigKey {
     }
     
     /*
-    The fieldName must be either of keyName, mandatory or defaultValue (as only these fields are supported as of now), otherwise
-    EnumMissingOptionalFieldException will be thrown
+    If type is defined in Enum then use it, else use String (i.e. value is not converted)
     */
-    private static Object getFieldValue(Object enumConstant, String fieldName){
-        return new EnumFieldInfo(enumConstant, fieldName).getFieldValue();
+    private static Class<?> getType(Object enumConstant){
+        Class<?> type = String.class;
+        EnumFieldInfo fieldInfo = new EnumFieldInfo(enumConstant, FIELD_TYPE);
+        if(fieldInfo.isAvailable()){
+            Class<?> definedType = (Class<?>) fieldInfo.getFieldValue();
+            if(definedType != null){
+                type = definedType;
+            }
+        }
+        
+        logger.trace("Determined type for {} to be {}", enumConstant, type);
+        
+        return type;
     }
 
     /**
@@ -136,6 +168,13 @@ public class ConfigKey {
         return defaultValue;
     }
 
+    /**
+     * @return Data type to which value of corresponding key is converted while loading the configuration, {@code String} if not specified
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
     @Override
     public int hashCode() {
         int hash = 3;
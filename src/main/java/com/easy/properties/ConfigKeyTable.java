@@ -0,0 +1,15 @@
+package com.easy.properties;
+
+/**
+ * Metadata of all the configuration keys defined in an enum <br>
+ * It is implemented by the classes generated for the enums annotated with {@link ConfigKeys}, and is not meant to be implemented otherwise
+ *
+ * @author himanshu_shekhar
+ */
+public interface ConfigKeyTable {
+
+    /**
+     * @return The configuration keys, indexed by ordinal of the corresponding enum constant
+     */
+    ConfigKey[] getConfigKeys();
+}
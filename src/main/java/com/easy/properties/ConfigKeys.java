@@ -0,0 +1,24 @@
+package com.easy.properties;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an enum defining the configuration keys, so that metadata of the keys (see {@link ConfigKey}) is generated at compile time
+ * instead of being looked up through reflection while loading <br>
+ * For enum {@code com.example.MyProps}, the annotation processor {@code com.easy.properties.processor.ConfigKeysProcessor} generates
+ * {@code com.example.MyProps_ConfigKeyTable} which invokes the getters of the optional fields directly. A field without getter (e.g. a
+ * typo in the getter name) or with getter of different type is reported as a compilation error, instead of being treated as absent <br>
+ * The processor is found by the compiler on its own if this library is in the class path while compiling. If the generated class is not
+ * found while loading, the metadata is looked up through reflection as for an enum without this annotation
+ *
+ * @author himanshu_shekhar
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConfigKeys {
+}
@@ -0,0 +1,64 @@
+package com.easy.properties;
+
+/**
+ * Receives the measurements of loading the configuration and of reading its values, when set through
+ * {@link PropertiesLoader#setMetrics(ConfigMetrics)} <br>
+ * {@link PropertiesMetrics} keeps them in counters and exposes them through JMX, and any other implementation can forward them to the
+ * metrics library the application uses. The methods are invoked on the threads loading the configuration and reading the values, so
+ * they must be thread-safe and must not block. {@link #keyRead(Enum)} in particular is invoked for every value read
+ *
+ * @author himanshu_shekhar
+ */
+public interface ConfigMetrics {
+
+    /**
+     * The phases of loading the configuration from its sources, in the order they take place
+     */
+    enum LoadPhase {
+        // Finding the keys declared by the enum, through reflection or the class generated at compile time
+        KEY_INITIALIZATION,
+        // Reading and parsing all the sources
+        SOURCE_READ,
+        // Checking that none of the mandatory keys is missing
+        VALIDATION,
+        // Resolving the variables in the values and converting the values to the types declared for the keys
+        SUBSTITUTION
+    }
+
+    /**
+     * Where the value of a key not read from any of the sources, or a variable substituted in the value of a key, is taken from
+     */
+    enum Fallback {
+        DEFAULT_VALUE,
+        SYSTEM_PROPERTY,
+        ENVIRONMENT_VARIABLE
+    }
+
+    /**
+     * Invoked when a phase of loading (or reloading) the configuration from its sources completes. Nothing is measured when the
+     * configuration is restored from the snapshot cache
+     *
+     * @param phase The completed phase
+     * @param elapsedNanos Time taken by the phase, in nanoseconds
+     */
+    void phaseCompleted(LoadPhase phase, long elapsedNanos);
+
+    /**
+     * Invoked for every key whose value is not read from any of the sources, each time the configuration is loaded. Also invoked for
+     * every variable in a value which is substituted from the system properties or environment variables, i.e. which does not refer to
+     * any key, or refers to a key without value. In lazy substitution mode (see {@link PropertiesLoader#setLazySubstitution(boolean)})
+     * the values not expanded while loading are not reported
+     *
+     * @param key The key whose value (or variable in the value) is taken from elsewhere
+     * @param fallback Where the value is taken from
+     */
+    void fallbackUsed(Enum key, Fallback fallback);
+
+    /**
+     * Invoked whenever the value of a key is read through any of the getters of {@link Properties}. Reading the bound interfaces (see
+     * {@link Properties#bind(Class)}) is not reported, since their values are converted once per load
+     *
+     * @param key The key whose value is read
+     */
+    void keyRead(Enum key);
+}
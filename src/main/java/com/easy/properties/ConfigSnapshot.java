@@ -0,0 +1,451 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidConfigException;
+import com.easy.properties.exception.InvalidEnumException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This immutable class holds the resolved configuration values, indexed by ordinal of the corresponding enum constant <br>
+ * All the key metadata (key name, default value etc.) is resolved once while loading, so that reading a value does not need any
+ * reflection, object allocation or hashing. An empty value is looked up in system properties and environment variables while loading as
+ * well, so that reading it does not need the lookup <br>
+ * Values of keys declaring a {@code type} are also parsed once while loading, and kept in storage specialized for primitives:
+ * <ul>
+ *    <li>{@code byte, short, int and char} values in an {@code int} array</li>
+ *    <li>{@code long} values in a {@code long} array</li>
+ *    <li>{@code float and double} values in a {@code double} array</li>
+ *    <li>{@code boolean} values in a {@code BitSet}</li>
+ * </ul>
+ * Values of the other keys are converted (see {@link ValueConverter}) when first read, and the converted values are remembered for each
+ * type (and delimiter, for lists and arrays) they are read as, so that reading them again does not need converting. The values
+ * remembered are dropped along with the snapshot, i.e. when the configuration is reloaded
+ * <br>
+ * Alternatively, the values can be expanded from their templates when first read (see {@link LazyValues}), so that the keys never read
+ * do not take the time and memory for expanded values. The values of keys declaring a {@code type} are expanded while loading still,
+ * as they are parsed while loading
+ *
+ * @author himanshu_shekhar
+ */
+final class ConfigSnapshot {
+    // Source of the versions, which increase with every snapshot created in this JVM
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final long version = VERSIONS.incrementAndGet();
+    private final Class<?> keyEnumClass;
+    private final ConfigKey[] configKeys;
+    private final String[] rawValues;
+    private final ValueTemplate[] templates;
+    private final DependencyGraph dependencyGraph;
+    // Either the values expanded while loading, or the ones expanded when first read (the other one being null)
+    private final String[] values;
+    private final LazyValues lazyValues;
+    // Values as returned to the reader, i.e. with system property or environment variable for the empty values. Null if values are
+    // expanded when first read
+    private final String[] readValues;
+    // Name of the configuration source each value was read from, null for a value not read from any source
+    private final String[] sourceNames;
+
+    // Primitive type of the parsed value for each key, null if the value was not parsed (no type declared, or value is empty)
+    private final Class<?>[] parsedTypes;
+    private final int[] intValues;
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final BitSet booleanValues;
+
+    // Values converted from value of a key to different types (or lists with different delimiters) are remembered up to this count
+    private static final int MAX_CONVERSIONS_PER_KEY = 8;
+
+    // Values converted from value of each key. These are shared among the reader threads without any synchronization, which is safe
+    // since the cached objects are immutable. A reader seeing a stale entry (or none) just converts again
+    private final ConversionCacheEntry[] conversions;
+
+    /*
+    The raw values are the ones before variable substitution, with the template compiled from each of them
+    */
+    ConfigSnapshot(Class<?> keyEnumClass, ConfigKey[] configKeys, String[] rawValues, String[] sourceNames, ValueTemplate[] templates,
+            String[] values, DependencyGraph dependencyGraph) {
+        this(keyEnumClass, configKeys, rawValues, sourceNames, templates, values, null, dependencyGraph, null);
+    }
+
+    /*
+    Snapshot with values expanded when first read, except for the keys declaring a type, whose values are expanded and parsed while
+    loading so that a value which cannot be parsed fails the loading
+    */
+    ConfigSnapshot(Class<?> keyEnumClass, ConfigKey[] configKeys, String[] rawValues, String[] sourceNames, ValueTemplate[] templates,
+            LazyValues lazyValues, DependencyGraph dependencyGraph) {
+        this(keyEnumClass, configKeys, rawValues, sourceNames, templates, null, lazyValues, dependencyGraph, null);
+    }
+
+    /*
+    Snapshot restored from the snapshot cache, with the values already resolved and parsed. Only the templates are compiled again, which
+    needs no lookup. A null value is one which was not expanded yet when the snapshot was encoded (see SnapshotCodec), in which case the
+    values are expanded when first read as they would have been in the encoded snapshot
+    */
+    ConfigSnapshot(Class<?> keyEnumClass, ConfigKey[] configKeys, String[] rawValues, String[] sourceNames, String[] values,
+            DependencyGraph dependencyGraph, Class<?>[] parsedTypes, int[] intValues, long[] longValues, double[] doubleValues,
+            BitSet booleanValues) {
+        this.keyEnumClass = keyEnumClass;
+        this.configKeys = configKeys;
+        this.rawValues = rawValues;
+        this.sourceNames = sourceNames;
+        this.templates = new ValueTemplate[rawValues.length];
+        for (int i = 0; i < rawValues.length; i++) {
+            templates[i] = ValueTemplate.compile(rawValues[i]);
+        }
+        this.dependencyGraph = dependencyGraph;
+        if (Arrays.asList(values).contains(null)) {
+            this.values = null;
+            this.lazyValues = new LazyValues(new SubstitutionEngine(keyEnumClass, configKeys, true), configKeys, templates, dependencyGraph,
+                    values);
+            this.readValues = null;
+        } else {
+            this.values = values;
+            this.lazyValues = null;
+            this.readValues = getReadValues(configKeys, values);
+        }
+        this.conversions = new ConversionCacheEntry[values.length];
+
+        this.parsedTypes = parsedTypes;
+        this.intValues = intValues;
+        this.longValues = longValues;
+        this.doubleValues = doubleValues;
+        this.booleanValues = booleanValues;
+    }
+
+    /*
+    Snapshot of changed configuration, where only the values of resolved keys differ from the previous snapshot. The typed values of all
+    the other keys are taken from the previous snapshot as they are, unless the system property or environment variable they were looked
+    up in has changed
+    */
+    ConfigSnapshot(ConfigSnapshot previous, String[] rawValues, String[] sourceNames, ValueTemplate[] templates, String[] values,
+            DependencyGraph dependencyGraph) {
+        this(previous.keyEnumClass, previous.configKeys, rawValues, sourceNames, templates, values, null, dependencyGraph, previous);
+    }
+
+    /*
+    Snapshot of changed configuration with values expanded when first read, the ones not changed since the previous snapshot being known
+    to the lazy values already
+    */
+    ConfigSnapshot(ConfigSnapshot previous, String[] rawValues, String[] sourceNames, ValueTemplate[] templates, LazyValues lazyValues,
+            DependencyGraph dependencyGraph) {
+        this(previous.keyEnumClass, previous.configKeys, rawValues, sourceNames, templates, null, lazyValues, dependencyGraph, previous);
+    }
+
+    private ConfigSnapshot(Class<?> keyEnumClass, ConfigKey[] configKeys, String[] rawValues, String[] sourceNames,
+            ValueTemplate[] templates, String[] values, LazyValues lazyValues, DependencyGraph dependencyGraph, ConfigSnapshot previous) {
+        this.keyEnumClass = keyEnumClass;
+        this.configKeys = configKeys;
+        this.rawValues = rawValues;
+        this.sourceNames = sourceNames;
+        this.templates = templates;
+        this.values = values;
+        this.lazyValues = lazyValues;
+        this.dependencyGraph = dependencyGraph;
+        this.readValues = values == null ? null : getReadValues(configKeys, values);
+        this.conversions = new ConversionCacheEntry[configKeys.length];
+
+        if (previous == null) {
+            this.parsedTypes = new Class<?>[configKeys.length];
+            this.intValues = new int[configKeys.length];
+            this.longValues = new long[configKeys.length];
+            this.doubleValues = new double[configKeys.length];
+            this.booleanValues = new BitSet(configKeys.length);
+            for (int i = 0; i < configKeys.length; i++) {
+                parseTypedValue(i);
+            }
+        } else {
+            this.parsedTypes = previous.parsedTypes.clone();
+            this.intValues = previous.intValues.clone();
+            this.longValues = previous.longValues.clone();
+            this.doubleValues = previous.doubleValues.clone();
+            this.booleanValues = (BitSet) previous.booleanValues.clone();
+            for (int i = 0; i < configKeys.length; i++) {
+                if (configKeys[i].getType() == String.class) {
+                    // Nothing to parse, so the value is not expanded just for comparing it
+                    continue;
+                }
+                String readValue = getReadValue(i);
+                String previousValue = previous.getReadValue(i);
+                if (readValue == null ? previousValue != null : !readValue.equals(previousValue)) {
+                    parsedTypes[i] = null;
+                    parseTypedValue(i);
+                }
+            }
+        }
+    }
+
+    /*
+    Same as what Properties#get returned before the values were resolved while loading, i.e. the value if not empty, else the system
+    property and then the environment variable with same name as the key
+    */
+    private static String[] getReadValues(ConfigKey[] configKeys, String[] values) {
+        String[] readValues = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            readValues[i] = getReadValue(configKeys[i], values[i]);
+        }
+        return readValues;
+    }
+
+    static String getReadValue(ConfigKey configKey, String value) {
+        String val = value;
+        if (val == null || val.isEmpty()) {
+            val = System.getProperty(configKey.getKeyName());
+        }
+        if (val == null || val.isEmpty()) {
+            val = System.getenv(configKey.getKeyName());
+        }
+        return val;
+    }
+
+    /*
+    Convert the value to the type declared for the key. An empty value is left as it is, since the key may be optional
+    */
+    private void parseTypedValue(int index) {
+        Class<?> type = getPrimitiveType(configKeys[index].getType());
+        if (type == null) {
+            return;
+        }
+        String value = getReadValue(index);
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (type == byte.class) {
+                intValues[index] = Byte.parseByte(value);
+            } else if (type == short.class) {
+                intValues[index] = Short.parseShort(value);
+            } else if (type == int.class) {
+                intValues[index] = Integer.parseInt(value);
+            } else if (type == char.class) {
+                if (value.length() != 1) {
+                    throw new IllegalArgumentException(value + " is not a character");
+                }
+                intValues[index] = value.charAt(0);
+            } else if (type == long.class) {
+                longValues[index] = Long.parseLong(value);
+            } else if (type == float.class) {
+                doubleValues[index] = Float.parseFloat(value);
+            } else if (type == double.class) {
+                doubleValues[index] = Double.parseDouble(value);
+            } else {
+                booleanValues.set(index, ValueConverters.parseBoolean(value));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConfigException("Value of " + configKeys[index].getKeyName() + " is not " + type.getName() + ", check configuration (" + value + ")", e);
+        }
+        parsedTypes[index] = type;
+    }
+
+    /*
+    Map the declared type to its primitive counterpart. String needs no conversion, so null is returned for it
+    */
+    private Class<?> getPrimitiveType(Class<?> type) {
+        if (type == String.class) {
+            return null;
+        } else if (type == Byte.class || type == byte.class) {
+            return byte.class;
+        } else if (type == Short.class || type == short.class) {
+            return short.class;
+        } else if (type == Integer.class || type == int.class) {
+            return int.class;
+        } else if (type == Character.class || type == char.class) {
+            return char.class;
+        } else if (type == Long.class || type == long.class) {
+            return long.class;
+        } else if (type == Float.class || type == float.class) {
+            return float.class;
+        } else if (type == Double.class || type == double.class) {
+            return double.class;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return boolean.class;
+        }
+        throw new InvalidEnumException("Type " + type.getName() + " declared for " + keyEnumClass.getName() + " is not supported");
+    }
+
+    /*
+    The key must be a constant of the enum this snapshot was loaded for, otherwise its ordinal would point to some other key
+    */
+    int indexOf(Enum key) {
+        int index = key.ordinal();
+        if (key.getDeclaringClass() != keyEnumClass || index >= configKeys.length) {
+            throw new InvalidEnumException("Key " + key.getDeclaringClass().getName() + "." + key.name() + " does not belong to " + keyEnumClass.getName());
+        }
+        return index;
+    }
+
+    Class<?> getKeyEnumClass() {
+        return keyEnumClass;
+    }
+
+    ConfigKey[] getConfigKeys() {
+        return configKeys;
+    }
+
+    DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+
+    ConfigKey getConfigKey(int index) {
+        return configKeys[index];
+    }
+
+    String getValue(int index) {
+        return values != null ? values[index] : lazyValues.getValue(index);
+    }
+
+    /*
+    The value if it is expanded already, else null
+    */
+    String getExpandedValue(int index) {
+        return values != null ? values[index] : lazyValues.getExpandedValue(index);
+    }
+
+    /*
+    If the values are expanded when first read, in which case these are null
+    */
+    boolean isLazy() {
+        return lazyValues != null;
+    }
+
+    LazyValues getLazyValues() {
+        return lazyValues;
+    }
+
+    /*
+    Value to be returned to the reader, null if the value is empty and is not found in system properties and environment variables either
+    */
+    String getReadValue(int index) {
+        return readValues != null ? readValues[index] : lazyValues.getReadValue(index);
+    }
+
+    String[] getSourceNames() {
+        return sourceNames;
+    }
+
+    String getSourceName(int index) {
+        return sourceNames[index];
+    }
+
+    String getRawValue(int index) {
+        return rawValues[index];
+    }
+
+    ValueTemplate[] getTemplates() {
+        return templates;
+    }
+
+    /*
+    Unique among all the snapshots in this JVM, and greater than the version of any snapshot created before this one
+    */
+    long getVersion() {
+        return version;
+    }
+
+    /*
+    Value parsed while loading boxed as the declared type of the key, or the value as returned to the reader if not parsed
+    */
+    Object getTypedValue(int index) {
+        Class<?> type = parsedTypes[index];
+        if (type == null) {
+            return getReadValue(index);
+        } else if (type == byte.class) {
+            return (byte) intValues[index];
+        } else if (type == short.class) {
+            return (short) intValues[index];
+        } else if (type == int.class) {
+            return intValues[index];
+        } else if (type == char.class) {
+            return (char) intValues[index];
+        } else if (type == long.class) {
+            return longValues[index];
+        } else if (type == float.class) {
+            return (float) doubleValues[index];
+        } else if (type == double.class) {
+            return doubleValues[index];
+        }
+        return booleanValues.get(index);
+    }
+
+    /*
+    Primitive type of the value parsed while loading, or null if the value was not parsed
+    */
+    Class<?> getParsedType(int index) {
+        return parsedTypes[index];
+    }
+
+    int getIntValue(int index) {
+        return intValues[index];
+    }
+
+    long getLongValue(int index) {
+        return longValues[index];
+    }
+
+    double getDoubleValue(int index) {
+        return doubleValues[index];
+    }
+
+    boolean getBooleanValue(int index) {
+        return booleanValues.get(index);
+    }
+
+    /*
+    Value converted earlier from value of the key with given converter, for given type and delimiter (null for a single value). Type of a
+    list is the class of its elements, and type of an array is the array class itself (e.g. int[].class). The converter is null for the
+    arrays, which are parsed without any converter
+    */
+    Object getConverted(int index, Class<?> type, String delimiter, ValueConverter<?> converter) {
+        for (ConversionCacheEntry entry = conversions[index]; entry != null; entry = entry.next) {
+            if (entry.type == type && entry.converter == converter
+                    && (delimiter == null ? entry.delimiter == null : delimiter.equals(entry.delimiter))) {
+                return entry.value;
+            }
+        }
+        return null;
+    }
+
+    /*
+    Remember the converted value, along with the ones remembered earlier for the key. The entries are kept newest first, so if there are
+    too many of them already, only the oldest one is dropped
+    */
+    void setConverted(int index, Class<?> type, String delimiter, ValueConverter<?> converter, Object value) {
+        ConversionCacheEntry head = conversions[index];
+        int count = 0;
+        for (ConversionCacheEntry entry = head; entry != null; entry = entry.next) {
+            count++;
+        }
+        if (count >= MAX_CONVERSIONS_PER_KEY) {
+            head = withoutOldest(head);
+        }
+        conversions[index] = new ConversionCacheEntry(type, delimiter, converter, value, head);
+    }
+
+    /*
+    Copy of the entries without the last one, since the entries cannot be modified while readers may be following them
+    */
+    private static ConversionCacheEntry withoutOldest(ConversionCacheEntry entry) {
+        if (entry.next == null) {
+            return null;
+        }
+        return new ConversionCacheEntry(entry.type, entry.delimiter, entry.converter, entry.value, withoutOldest(entry.next));
+    }
+
+    private static final class ConversionCacheEntry {
+        private final Class<?> type;
+        private final String delimiter;
+        private final ValueConverter<?> converter;
+        private final Object value;
+        private final ConversionCacheEntry next;
+
+        ConversionCacheEntry(Class<?> type, String delimiter, ValueConverter<?> converter, Object value, ConversionCacheEntry next) {
+            this.type = type;
+            this.delimiter = delimiter;
+            this.converter = converter;
+            this.value = value;
+            this.next = next;
+        }
+    }
+}
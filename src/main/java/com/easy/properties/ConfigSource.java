@@ -0,0 +1,33 @@
+package com.easy.properties;
+
+import java.util.Map;
+
+/**
+ * A source of configuration values, e.g. a configuration property file or the environment variables (see {@link ConfigSources} for the
+ * available ones) <br>
+ * The configuration can be loaded from multiple sources (see {@link PropertiesLoader#PropertiesLoader(Class, ConfigSource...)}), in
+ * which case the sources are read concurrently while loading and their values are combined into a single configuration. The lookup of
+ * a value afterwards does not involve any source <br>
+ * Implementations must be thread-safe, since a source is read every time the configuration is loaded or reloaded
+ *
+ * @author himanshu_shekhar
+ */
+public interface ConfigSource {
+
+    /**
+     * @return Name of the source, reported as the source of the values read from it (see {@link Properties#getSourceName(Enum)})
+     */
+    String getName();
+
+    /**
+     * @return If a key which is not defined in the enum is an error, as for a configuration property file. Otherwise such keys are
+     * ignored, as for the environment variables which have many entries unrelated to the configuration
+     */
+    boolean isStrict();
+
+    /**
+     * @return Values read from the source, by key name
+     * @throws com.easy.properties.exception.InvalidConfigException If the source cannot be read
+     */
+    Map<String, String> read();
+}
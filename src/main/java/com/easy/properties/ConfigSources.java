@@ -0,0 +1,429 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidConfigException;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class provides the {@link ConfigSource}s the configuration can be loaded from <br>
+ * The files (and classpath resources) are in the format of configuration property file (see {@link PropertiesLoader}), and must not
+ * have any key which is not defined in the enum. A directory of such files can be loaded as well, e.g. a {@code conf.d} directory having
+ * a fragment of the configuration in each file. The system properties and environment variables are read as they are at the time of
+ * loading, and the entries not defined in the enum are ignored
+ *
+ * @author himanshu_shekhar
+ */
+public final class ConfigSources {
+
+    private ConfigSources() {
+    }
+
+    /**
+     * The file is read in the default charset of the platform
+     *
+     * @param configFilePath The configuration property file
+     * @return Source reading the specified file, named after absolute path of the file
+     */
+    public static ConfigSource file(String configFilePath) {
+        return file(configFilePath, Charset.defaultCharset());
+    }
+
+    /**
+     * @param configFilePath The configuration property file
+     * @param charset The charset the file is encoded in
+     * @return Source reading the specified file, named after absolute path of the file
+     */
+    public static ConfigSource file(String configFilePath, Charset charset) {
+        return new FileSource(new File(configFilePath), charset);
+    }
+
+    /**
+     * The files are read in the default charset of the platform
+     *
+     * @param directoryPath The directory having the configuration property files
+     * @param glob Pattern the names of the files must match, e.g. {@code *.properties}
+     * @return Source reading the matching files in the specified directory
+     * @see #directory(String, String, Charset)
+     */
+    public static ConfigSource directory(String directoryPath, String glob) {
+        return directory(directoryPath, glob, Charset.defaultCharset());
+    }
+
+    /**
+     * The matching files (fragments) in the directory are read while loading, so a fragment added or removed later is taken into
+     * account on next reload. Only the files directly in the directory are read, not the ones in its subdirectories <br>
+     * The fragments are applied in the order of their names, so that a fragment overrides the values of the fragments whose names sort
+     * before it. For example, with fragments named {@code 00-base.properties, 10-region.properties, 20-cluster.properties and
+     * 30-host.properties}, the value of a key is taken from the host fragment if it has the key, else from the cluster fragment and so on.
+     * When loaded through {@link PropertiesLoader}, the fragments are read concurrently, each value is reported to be read from the
+     * fragment it is taken from (see {@link Properties#getSourceName(Enum)}) and a change to any of the fragments is reloaded if the
+     * configuration is being watched
+     *
+     * @param directoryPath The directory having the configuration property files
+     * @param glob Pattern the names of the files must match, e.g. {@code *.properties}
+     * @param charset The charset the files are encoded in
+     * @return Source reading the matching files in the specified directory, named after absolute path of the directory followed by the
+     * pattern
+     */
+    public static ConfigSource directory(String directoryPath, String glob, Charset charset) {
+        return new DirectorySource(new File(directoryPath), glob, charset);
+    }
+
+    /**
+     * The resource is read in the default charset of the platform
+     *
+     * @param resourceName Name of the configuration property file in the class path, as used for {@link ClassLoader#getResource(String)}
+     * @return Source reading the specified resource through context class loader of the loading thread, named {@code classpath:}
+     * followed by name of the resource
+     */
+    public static ConfigSource classpath(String resourceName) {
+        return classpath(resourceName, Charset.defaultCharset());
+    }
+
+    /**
+     * @param resourceName Name of the configuration property file in the class path, as used for {@link ClassLoader#getResource(String)}
+     * @param charset The charset the resource is encoded in
+     * @return Source reading the specified resource through context class loader of the loading thread, named {@code classpath:}
+     * followed by name of the resource
+     */
+    public static ConfigSource classpath(String resourceName, Charset charset) {
+        return new ClasspathSource(resourceName, charset);
+    }
+
+    /**
+     * @return Source reading the system properties, named {@code system properties}
+     */
+    public static ConfigSource systemProperties() {
+        return new SystemPropertiesSource();
+    }
+
+    /**
+     * @return Source reading the environment variables, named {@code environment variables}
+     */
+    public static ConfigSource environment() {
+        return new EnvironmentSource();
+    }
+
+    /**
+     * Values provided by the application itself, e.g. defaults computed at runtime or overrides given on the command line. The map is
+     * read every time the configuration is loaded, so changes to the map take effect on next reload
+     *
+     * @param name Name of the source
+     * @param values Values by key name, which must be thread-safe if it is modified after this source is created
+     * @return Source reading the specified map, not allowing keys which are not defined in the enum
+     */
+    public static ConfigSource map(String name, Map<String, String> values) {
+        if (name == null || values == null) {
+            throw new IllegalArgumentException("Name and values of config source cannot be null");
+        }
+        return new MapSource(name, values);
+    }
+
+    /*
+    Configuration property file, which is parsed in chunks on the fork/join pool if one is given
+    */
+    static final class FileSource implements ConfigSource {
+        private final File configFile;
+        private final Charset charset;
+
+        FileSource(File configFile, Charset charset) {
+            this.configFile = configFile;
+            this.charset = charset;
+        }
+
+        File getFile() {
+            return configFile;
+        }
+
+        @Override
+        public String getName() {
+            return configFile.getAbsolutePath();
+        }
+
+        @Override
+        public boolean isStrict() {
+            return true;
+        }
+
+        @Override
+        public Map<String, String> read() {
+            return read(null);
+        }
+
+        Map<String, String> read(ForkJoinPool parsingPool) {
+            return parse(readContent(), parsingPool);
+        }
+
+        /*
+        Values parsed from content of the file read earlier through readContent
+        */
+        Map<String, String> parse(ByteBuffer content, ForkJoinPool parsingPool) {
+            return ConfigSources.parse(content, charset, parsingPool);
+        }
+
+        /*
+        Content of the file as it is, i.e. without parsing
+        */
+        ByteBuffer readContent() {
+            try {
+                return ConfigFileParser.read(configFile);
+            } catch (NoSuchFileException e) {
+                throw new InvalidConfigException("Config file not found (" + configFile.getAbsolutePath() + ")", e);
+            } catch (IOException e) {
+                throw new InvalidConfigException("Cannot read from config file " + configFile.getAbsolutePath(), e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    /*
+    Directory of configuration property files, each of which is read as a separate source by the loader
+    */
+    static final class DirectorySource implements ConfigSource {
+        private final File directory;
+        private final String glob;
+        private final Charset charset;
+        private final PathMatcher matcher;
+
+        DirectorySource(File directory, String glob, Charset charset) {
+            this.directory = directory;
+            this.glob = glob;
+            this.charset = charset;
+            this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        }
+
+        File getDirectory() {
+            return directory;
+        }
+
+        /*
+        If a file having given name (without directory) is a fragment of the configuration
+        */
+        boolean matches(Path fileName) {
+            return matcher.matches(fileName);
+        }
+
+        /*
+        The matching files currently in the directory, in the order they are to be applied
+        */
+        List<FileSource> listFragments() {
+            List<File> files = new ArrayList<File>();
+            try {
+                DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath(), glob);
+                try {
+                    for (Path path : stream) {
+                        if (Files.isRegularFile(path)) {
+                            files.add(path.toFile());
+                        }
+                    }
+                } finally {
+                    stream.close();
+                }
+            } catch (NoSuchFileException e) {
+                throw new InvalidConfigException("Config directory not found (" + directory.getAbsolutePath() + ")", e);
+            } catch (IOException e) {
+                throw new InvalidConfigException("Cannot list config files in " + directory.getAbsolutePath(), e);
+            }
+            Collections.sort(files);
+            List<FileSource> fragments = new ArrayList<FileSource>(files.size());
+            for (File file : files) {
+                fragments.add(new FileSource(file, charset));
+            }
+            return fragments;
+        }
+
+        @Override
+        public String getName() {
+            return directory.getAbsolutePath() + File.separator + glob;
+        }
+
+        @Override
+        public boolean isStrict() {
+            return true;
+        }
+
+        @Override
+        public Map<String, String> read() {
+            Map<String, String> values = new LinkedHashMap<String, String>();
+            for (FileSource fragment : listFragments()) {
+                values.putAll(fragment.read());
+            }
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    private static final class ClasspathSource implements ConfigSource {
+        private final String resourceName;
+        private final Charset charset;
+
+        ClasspathSource(String resourceName, Charset charset) {
+            this.resourceName = resourceName;
+            this.charset = charset;
+        }
+
+        @Override
+        public String getName() {
+            return "classpath:" + resourceName;
+        }
+
+        @Override
+        public boolean isStrict() {
+            return true;
+        }
+
+        @Override
+        public Map<String, String> read() {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader == null) {
+                classLoader = ConfigSources.class.getClassLoader();
+            }
+            InputStream in = classLoader.getResourceAsStream(resourceName);
+            if (in == null) {
+                throw new InvalidConfigException("Config resource not found in class path (" + resourceName + ")");
+            }
+            try {
+                try {
+                    ByteArrayOutputStream content = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    int count;
+                    while ((count = in.read(buffer)) >= 0) {
+                        content.write(buffer, 0, count);
+                    }
+                    return parse(ByteBuffer.wrap(content.toByteArray()), charset, null);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException e) {
+                throw new InvalidConfigException("Cannot read from config resource " + resourceName, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    private static final class SystemPropertiesSource implements ConfigSource {
+
+        @Override
+        public String getName() {
+            return "system properties";
+        }
+
+        @Override
+        public boolean isStrict() {
+            return false;
+        }
+
+        @Override
+        public Map<String, String> read() {
+            Map<String, String> values = new LinkedHashMap<String, String>();
+            java.util.Properties properties = System.getProperties();
+            for (String name : properties.stringPropertyNames()) {
+                values.put(name, properties.getProperty(name));
+            }
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    private static final class EnvironmentSource implements ConfigSource {
+
+        @Override
+        public String getName() {
+            return "environment variables";
+        }
+
+        @Override
+        public boolean isStrict() {
+            return false;
+        }
+
+        @Override
+        public Map<String, String> read() {
+            return new LinkedHashMap<String, String>(System.getenv());
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    private static final class MapSource implements ConfigSource {
+        private final String name;
+        private final Map<String, String> values;
+
+        MapSource(String name, Map<String, String> values) {
+            this.name = name;
+            this.values = values;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isStrict() {
+            return true;
+        }
+
+        @Override
+        public Map<String, String> read() {
+            return new LinkedHashMap<String, String>(values);
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    private static Map<String, String> parse(ByteBuffer content, Charset charset, ForkJoinPool parsingPool) {
+        final Map<String, String> values = new LinkedHashMap<String, String>();
+        ConfigFileParser parser = new ConfigFileParser(content, charset);
+        ConfigFileParser.EntryHandler handler = new ConfigFileParser.EntryHandler() {
+            @Override
+            public void onEntry(String key, String value) {
+                values.put(key, value);
+            }
+        };
+        if (parsingPool == null) {
+            parser.parse(handler);
+        } else {
+            parser.parse(handler, parsingPool);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,50 @@
+package com.easy.properties;
+
+import java.util.EnumMap;
+
+/**
+ * This class holds the values of several keys read at once through {@link Properties#getAll(java.util.EnumSet)}, all of them from the
+ * same version of the configuration <br>
+ * The version can be compared with {@link Properties#getVersion()} later, to find whether the configuration has been reloaded with
+ * changed values since these values were read
+ *
+ * @param <K> The enum defining the keys
+ * @author himanshu_shekhar
+ */
+public final class ConfigValues<K extends Enum<K>> {
+    private final EnumMap<K, Object> values;
+    private final long version;
+
+    ConfigValues(EnumMap<K, Object> values, long version) {
+        this.values = values;
+        this.version = version;
+    }
+
+    /**
+     * @return Value of each key read, as the {@code type} declared for the key (e.g. {@code Integer} for {@code int}) if any, else as
+     * {@link Properties#get(Enum)} returns it. The map belongs to the caller
+     */
+    public EnumMap<K, Object> getValues() {
+        return values;
+    }
+
+    /**
+     * @param key Enum key among the ones read
+     * @return Value of the key, as in {@link #getValues()}. Null if the key was not read, or has no value
+     */
+    public Object get(K key) {
+        return values.get(key);
+    }
+
+    /**
+     * @return Version of the configuration the values were read from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigValues{" + "values=" + values + ", version=" + version + '}';
+    }
+}
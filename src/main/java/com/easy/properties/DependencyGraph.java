@@ -0,0 +1,293 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidConfigException;
+import com.easy.properties.exception.InvalidEnumException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This immutable class represents how the configuration keys refer to each other through variables in their values <br>
+ * If value of {@code BIN} is {@code ${HOME}/bin}, then {@code HOME} is a dependency of {@code BIN} and {@code BIN} is a dependent of
+ * {@code HOME} <br>
+ * The graph is traversed without recursion, so that a long chain of keys referring to each other does not need a deep call stack. All the
+ * cycles in the graph are found in single traversal, and the keys are ordered such that every key comes after all its dependencies <br>
+ * When some of the values change, the graph is updated only for the changed keys, and only the changed keys along with the keys depending on
+ * them need to be resolved again
+ *
+ * @author himanshu_shekhar
+ */
+public final class DependencyGraph {
+    private static final Logger logger = LoggerFactory.getLogger(DependencyGraph.class);
+    private static final int[] NO_KEYS = new int[0];
+
+    private final Class<?> keyEnumClass;
+    private final ConfigKey[] configKeys;
+    private final int[][] dependencies;
+    private final int[][] dependents;
+
+    /*
+    The dependencies must be indexed by ordinal of the enum constants (same as configKeys), with no duplicates for a key
+    */
+    DependencyGraph(Class<?> keyEnumClass, ConfigKey[] configKeys, int[][] dependencies) {
+        this(keyEnumClass, configKeys, dependencies, invert(dependencies));
+    }
+
+    private DependencyGraph(Class<?> keyEnumClass, ConfigKey[] configKeys, int[][] dependencies, int[][] dependents) {
+        this.keyEnumClass = keyEnumClass;
+        this.configKeys = configKeys;
+        this.dependencies = dependencies;
+        this.dependents = dependents;
+    }
+
+    private static int[][] invert(int[][] edges) {
+        int[] counts = new int[edges.length];
+        for (int[] targets : edges) {
+            for (int target : targets) {
+                counts[target]++;
+            }
+        }
+        int[][] inverted = new int[edges.length][];
+        for (int i = 0; i < edges.length; i++) {
+            inverted[i] = counts[i] == 0 ? NO_KEYS : new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int source = 0; source < edges.length; source++) {
+            for (int target : edges[source]) {
+                inverted[target][counts[target]++] = source;
+            }
+        }
+        return inverted;
+    }
+
+    /*
+    Graph with dependencies of the changed keys replaced by given ones. Dependencies and dependents of the keys not affected by the change
+    are shared with this graph, so the work done is proportional to the number of changed references
+    */
+    DependencyGraph update(int[] changedKeys, int[][] changedDependencies) {
+        int[][] newDependencies = dependencies.clone();
+        int[][] newDependents = dependents.clone();
+        for (int i = 0; i < changedKeys.length; i++) {
+            int key = changedKeys[i];
+            for (int dependency : dependencies[key]) {
+                newDependents[dependency] = remove(newDependents[dependency], key);
+            }
+            newDependencies[key] = changedDependencies[i];
+        }
+        for (int key : changedKeys) {
+            for (int dependency : newDependencies[key]) {
+                newDependents[dependency] = add(newDependents[dependency], key);
+            }
+        }
+        return new DependencyGraph(keyEnumClass, configKeys, newDependencies, newDependents);
+    }
+
+    private static int[] remove(int[] keys, int key) {
+        int[] result = new int[keys.length - 1];
+        int count = 0;
+        for (int k : keys) {
+            if (k != key) {
+                result[count++] = k;
+            }
+        }
+        return result.length == 0 ? NO_KEYS : result;
+    }
+
+    private static int[] add(int[] keys, int key) {
+        int[] result = new int[keys.length + 1];
+        System.arraycopy(keys, 0, result, 0, keys.length);
+        result[keys.length] = key;
+        return result;
+    }
+
+    /*
+    All the keys, ordered such that dependencies of a key come before it
+    */
+    int[] getResolutionOrder() {
+        int[] roots = new int[dependencies.length];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = i;
+        }
+        return order(roots, null);
+    }
+
+    /*
+    The changed keys and all the keys depending on them directly or transitively, ordered such that dependencies of a key come before it.
+    Only these keys need to be resolved again after the change, since values of all the other keys remain same
+    */
+    int[] getResolutionOrder(int[] changedKeys) {
+        boolean[] affected = new boolean[dependencies.length];
+        int[] affectedKeys = new int[dependencies.length];
+        int count = 0;
+        for (int key : changedKeys) {
+            if (!affected[key]) {
+                affected[key] = true;
+                affectedKeys[count++] = key;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            for (int dependent : dependents[affectedKeys[i]]) {
+                if (!affected[dependent]) {
+                    affected[dependent] = true;
+                    affectedKeys[count++] = dependent;
+                }
+            }
+        }
+        int[] roots = new int[count];
+        System.arraycopy(affectedKeys, 0, roots, 0, count);
+        return order(roots, affected);
+    }
+
+    /*
+    Tarjan's algorithm with explicit stacks instead of recursion, starting from given roots and not going beyond the keys in scope (all
+    the keys if scope is null). A strongly connected component is completed only after all the components reachable from it, so the
+    components are found with dependencies before dependents, which is the order to resolve keys in. A component having more than one key,
+    or a key referring to itself, is a cycle. All the cycles are reported together
+    */
+    private int[] order(int[] roots, boolean[] scope) {
+        int count = dependencies.length;
+        int[] visitIndex = new int[count];
+        int[] lowLink = new int[count];
+        int[] nextEdge = new int[count];
+        boolean[] onStack = new boolean[count];
+        int[] componentStack = new int[roots.length];
+        int[] callStack = new int[roots.length];
+        int[] resolutionOrder = new int[roots.length];
+        List<int[]> cycles = new ArrayList<int[]>();
+        int componentTop = 0;
+        int orderCount = 0;
+        int visitCounter = 1;
+
+        for (int root : roots) {
+            if (visitIndex[root] != 0) {
+                continue;
+            }
+            int callTop = 0;
+            callStack[callTop++] = root;
+            visitIndex[root] = lowLink[root] = visitCounter++;
+            componentStack[componentTop++] = root;
+            onStack[root] = true;
+
+            while (callTop > 0) {
+                int key = callStack[callTop - 1];
+                if (nextEdge[key] < dependencies[key].length) {
+                    int dependency = dependencies[key][nextEdge[key]++];
+                    if (scope != null && !scope[dependency]) {
+                        continue;
+                    }
+                    if (visitIndex[dependency] == 0) {
+                        callStack[callTop++] = dependency;
+                        visitIndex[dependency] = lowLink[dependency] = visitCounter++;
+                        componentStack[componentTop++] = dependency;
+                        onStack[dependency] = true;
+                    } else if (onStack[dependency]) {
+                        lowLink[key] = Math.min(lowLink[key], visitIndex[dependency]);
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (callTop > 0) {
+                    int caller = callStack[callTop - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[key]);
+                }
+                if (lowLink[key] == visitIndex[key]) {
+                    int componentStart = orderCount;
+                    int member;
+                    do {
+                        member = componentStack[--componentTop];
+                        onStack[member] = false;
+                        resolutionOrder[orderCount++] = member;
+                    } while (member != key);
+                    if (orderCount - componentStart > 1 || refersToItself(key)) {
+                        int[] cycle = new int[orderCount - componentStart];
+                        System.arraycopy(resolutionOrder, componentStart, cycle, 0, cycle.length);
+                        cycles.add(cycle);
+                    }
+                }
+            }
+        }
+
+        if (!cycles.isEmpty()) {
+            String description = describe(cycles);
+            logger.error("Detected cyclic dependency among: {}", description);
+            throw new InvalidConfigException("Detected cyclic dependency among: " + description);
+        }
+        return resolutionOrder;
+    }
+
+    private boolean refersToItself(int key) {
+        for (int dependency : dependencies[key]) {
+            if (dependency == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+    Describe every cycle as list of key names, e.g. [X, Y], [A]
+    */
+    private String describe(List<int[]> cycles) {
+        StringBuilder sb = new StringBuilder();
+        for (int[] cycle : cycles) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append('[');
+            for (int i = 0; i < cycle.length; i++) {
+                sb.append(i == 0 ? "" : ", ").append(configKeys[cycle[i]].getKeyName());
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    int[] getDependencies(int index) {
+        return dependencies[index];
+    }
+
+    int[] getDependents(int index) {
+        return dependents[index];
+    }
+
+    /**
+     * @param <E> Type of the enum defining the configuration keys
+     * @param key Enum key whose value is to be checked for variables
+     * @return Keys referred to by variables in value of the specified key
+     * @throws InvalidEnumException If specified key is not a constant of the enum this configuration was loaded for
+     */
+    public <E extends Enum<E>> Set<E> getDependencies(E key) {
+        return toKeys(key.getDeclaringClass(), dependencies[indexOf(key)]);
+    }
+
+    /**
+     * @param <E> Type of the enum defining the configuration keys
+     * @param key Enum key which is to be checked for references from values of other keys
+     * @return Keys whose value refers to the specified key through a variable
+     * @throws InvalidEnumException If specified key is not a constant of the enum this configuration was loaded for
+     */
+    public <E extends Enum<E>> Set<E> getDependents(E key) {
+        return toKeys(key.getDeclaringClass(), dependents[indexOf(key)]);
+    }
+
+    private int indexOf(Enum key) {
+        if (key.getDeclaringClass() != keyEnumClass || key.ordinal() >= configKeys.length) {
+            throw new InvalidEnumException("Key " + key.getDeclaringClass().getName() + "." + key.name() + " does not belong to " + keyEnumClass.getName());
+        }
+        return key.ordinal();
+    }
+
+    private static <E extends Enum<E>> Set<E> toKeys(Class<E> enumClass, int[] indexes) {
+        E[] constants = enumClass.getEnumConstants();
+        Set<E> keys = EnumSet.noneOf(enumClass);
+        for (int index : indexes) {
+            keys.add(constants[index]);
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+}
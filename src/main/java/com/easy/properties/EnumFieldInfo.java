@@ -1,54 +1,112 @@
 package com.easy.properties;
 
 import com.easy.properties.exception.EnumMissingOptionalFieldException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This is a thread-safe class used to retrieve the value of a specified field in the Enum <br>
  * It obtains the value of field using getter method having name according to java-naming conventions <br>
- * 
+ * The field and its getter are looked up only once per Enum class and field name. The getter found is kept as a {@link MethodHandle},
+ * and a field (or getter) which is not available is remembered as such, so that constructing an instance for every constant of an Enum
+ * having many constants does not repeat the lookup <br>
+ *
  * @author himanshu_shekhar
  */
 public class EnumFieldInfo {
 
     private static final Logger logger = LoggerFactory.getLogger(EnumFieldInfo.class);
 
+    // Getter of the field for an Enum constant with getter not available, returned from cache instead of null
+    private static final FieldGetter MISSING_GETTER = new FieldGetter(null);
+
+    // Getters of the fields looked up so far for each Enum class, by field name
+    private static final ClassValue<ConcurrentMap<String, FieldGetter>> GETTERS = new ClassValue<ConcurrentMap<String, FieldGetter>>() {
+        @Override
+        protected ConcurrentMap<String, FieldGetter> computeValue(Class<?> enumClass) {
+            return new ConcurrentHashMap<String, FieldGetter>();
+        }
+    };
+
     private final Object enumConstant;
-    private final Field field;
-    private final Method getterMethod;
+    private final FieldGetter getter;
 
     public EnumFieldInfo(Object enumConstant, String fieldName) {
-        logger.trace("Constructing instance for {}", fieldName);
         this.enumConstant = enumConstant;
+        this.getter = getFieldGetter(getEnumClass(enumConstant), fieldName);
+    }
 
-        Field myField = null;
-        Method myMethod = null;
+    /*
+    Constants having a body are instances of an anonymous subclass, whereas the fields and getters are declared by the Enum itself
+    */
+    private static Class<?> getEnumClass(Object enumConstant) {
+        if (enumConstant instanceof Enum) {
+            return ((Enum) enumConstant).getDeclaringClass();
+        }
+        return enumConstant.getClass();
+    }
 
-        try {
-            myField = getField(enumConstant.getClass(), fieldName);
-            logger.trace("Found field: {}", myField.getName());
-            myMethod = getGetterMethod(enumConstant.getClass(), myField);
-            logger.trace("Found getter method: {}", myMethod.getName());
-        } catch (NoSuchFieldException e) {
-            logger.debug("Cannot find field " + fieldName + " in " + enumConstant.getClass().getCanonicalName(), e);
-        } catch (NoSuchMethodException e) {
-            logger.debug("Cannot find getter for " + fieldName + " in " + enumConstant.getClass().getCanonicalName(), e);
+    private static FieldGetter getFieldGetter(Class<?> enumClass, String fieldName) {
+        ConcurrentMap<String, FieldGetter> getters = GETTERS.get(enumClass);
+        FieldGetter getter = getters.get(fieldName);
+        if (getter == null) {
+            getter = lookupFieldGetter(enumClass, fieldName);
+            FieldGetter existing = getters.putIfAbsent(fieldName, getter);
+            if (existing != null) {
+                getter = existing;
+            }
         }
+        return getter;
+    }
 
-        field = myField;
-        getterMethod = myMethod;
+    /*
+    Corresponding field and getter method must be defined with getter method having return type same as data type of the field
+    */
+    private static FieldGetter lookupFieldGetter(Class<?> enumClass, String fieldName) {
+        logger.trace("Looking up getter of {} in {}", fieldName, enumClass.getName());
+        Field field = getField(enumClass, fieldName);
+        if (field == null) {
+            logger.debug("Cannot find field {} in {}", fieldName, enumClass.getName());
+            return MISSING_GETTER;
+        }
+        Method method = getGetterMethod(enumClass, field);
+        if (method == null || method.getReturnType() != field.getType()) {
+            logger.debug("Cannot find getter for {} in {}", fieldName, enumClass.getName());
+            return MISSING_GETTER;
+        }
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            return new FieldGetter(handle.asType(MethodType.methodType(Object.class, Object.class)));
+        } catch (IllegalAccessException e) {
+            logger.debug("Cannot access getter for " + fieldName + " in " + enumClass.getName(), e);
+            return MISSING_GETTER;
+        }
     }
 
-    private static Field getField(Class<?> enumClass, String fieldName) throws NoSuchFieldException {
-        return enumClass.getDeclaredField(fieldName);
+    private static Field getField(Class<?> enumClass, String fieldName) {
+        for (Field field : enumClass.getDeclaredFields()) {
+            if (field.getName().equals(fieldName)) {
+                return field;
+            }
+        }
+        return null;
     }
 
-    private static Method getGetterMethod(Class<?> enumClass, Field field) throws NoSuchMethodException {
-        return enumClass.getDeclaredMethod(getGetterMethodName(field));
+    private static Method getGetterMethod(Class<?> enumClass, Field field) {
+        String getterMethodName = getGetterMethodName(field);
+        for (Method method : enumClass.getDeclaredMethods()) {
+            if (method.getName().equals(getterMethodName) && method.getParameterTypes().length == 0) {
+                return method;
+            }
+        }
+        return null;
     }
 
     /*
@@ -69,26 +127,37 @@ public class EnumFieldInfo {
         return sb.toString();
     }
 
+    /**
+     * @return If the field and its getter method are defined in the Enum, i.e. {@link #getFieldValue()} can provide the value
+     */
+    public boolean isAvailable() {
+        return getter.handle != null;
+    }
+
     /**
      * @return The value obtained through getter method defined in the Enum
      */
     public Object getFieldValue() {
-        validate();
+        if (getter.handle == null) {
+            throw new EnumMissingOptionalFieldException("Enum " + enumConstant.getClass().getName() + " missing at least one of the optional fields");
+        }
         try {
-            return getterMethod.invoke(enumConstant);
-        } catch (InvocationTargetException e) {
+            return (Object) getter.handle.invokeExact(enumConstant);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new EnumMissingOptionalFieldException("Cannot invoke getter method on " + enumConstant.getClass().getName(), e);
-        } catch (IllegalAccessException e) {
-            throw new EnumMissingOptionalFieldException("Cannot access getter method on " + enumConstant.getClass().getName(), e);
         }
     }
 
     /*
-    Corresponding field and getter method must be defined with getter method having return type same as data type of the field
+    Getter of a field, taking the Enum constant and returning the value as Object. The handle is null if field or its getter is not available
     */
-    private void validate() {
-        if (field == null || getterMethod == null || getterMethod.getReturnType() != field.getType()) {
-            throw new EnumMissingOptionalFieldException("Enum " + enumConstant.getClass().getName() + "missing at least one of the optional fields");
+    private static final class FieldGetter {
+        private final MethodHandle handle;
+
+        FieldGetter(MethodHandle handle) {
+            this.handle = handle;
         }
     }
 }
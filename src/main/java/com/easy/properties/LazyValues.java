@@ -0,0 +1,101 @@
+package com.easy.properties;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This thread-safe class holds the values of the configuration keys which are expanded from their templates only when first read <br>
+ * Expanding a value expands the values of the keys it refers to first (if they are not expanded yet), the keys being known not to refer
+ * to each other in a cycle. Every value is published once through compare and set, so all the readers get the same instance even if
+ * several of them expand it at the same time <br>
+ * The system property or environment variable for an empty value, or for a variable not referring to any key, is looked up when the
+ * value is expanded
+ *
+ * @author himanshu_shekhar
+ */
+final class LazyValues {
+    // Read value of a key which is neither in the configuration, nor in the system properties or environment variables
+    private static final String NO_VALUE = new String();
+    // Depth of the expansion stack to begin with, most values referring to only a few keys in a chain
+    private static final int INITIAL_STACK_DEPTH = 8;
+
+    private final SubstitutionEngine substitutionEngine;
+    private final ConfigKey[] configKeys;
+    private final ValueTemplate[] templates;
+    private final DependencyGraph dependencyGraph;
+    // Null for the values not expanded yet
+    private final AtomicReferenceArray<String> values;
+    private final AtomicReferenceArray<String> readValues;
+
+    /*
+    The expanded values are the ones already known (e.g. unchanged since the configuration was loaded earlier), null for the others
+    */
+    LazyValues(SubstitutionEngine substitutionEngine, ConfigKey[] configKeys, ValueTemplate[] templates, DependencyGraph dependencyGraph,
+            String[] expandedValues) {
+        this.substitutionEngine = substitutionEngine;
+        this.configKeys = configKeys;
+        this.templates = templates;
+        this.dependencyGraph = dependencyGraph;
+        this.values = new AtomicReferenceArray<String>(expandedValues);
+        this.readValues = new AtomicReferenceArray<String>(configKeys.length);
+    }
+
+    /*
+    The value if it is expanded already, else null
+    */
+    String getExpandedValue(int index) {
+        return values.get(index);
+    }
+
+    String getValue(int index) {
+        String value = values.get(index);
+        return value != null ? value : expand(index);
+    }
+
+    String getReadValue(int index) {
+        String readValue = readValues.get(index);
+        if (readValue == null) {
+            readValue = ConfigSnapshot.getReadValue(configKeys[index], getValue(index));
+            if (readValue == null) {
+                readValue = NO_VALUE;
+            }
+            if (!readValues.compareAndSet(index, null, readValue)) {
+                readValue = readValues.get(index);
+            }
+        }
+        return readValue == NO_VALUE ? null : readValue;
+    }
+
+    /*
+    Expand the value along with the values it depends on, deepest dependency first. The keys on the path being followed are kept on an
+    explicit stack, so that a long chain of references does not overflow the thread stack. The stack grows only as deep as the chain goes
+    */
+    private String expand(int index) {
+        int[] keys = new int[Math.min(INITIAL_STACK_DEPTH, configKeys.length)];
+        int[] positions = new int[keys.length];
+        keys[0] = index;
+        int depth = 1;
+        while (depth > 0) {
+            int key = keys[depth - 1];
+            int[] dependencies = dependencyGraph.getDependencies(key);
+            if (positions[depth - 1] < dependencies.length) {
+                int dependency = dependencies[positions[depth - 1]++];
+                if (values.get(dependency) == null) {
+                    if (depth == keys.length) {
+                        keys = Arrays.copyOf(keys, depth * 2);
+                        positions = Arrays.copyOf(positions, depth * 2);
+                    }
+                    keys[depth] = dependency;
+                    positions[depth] = 0;
+                    depth++;
+                }
+            } else {
+                depth--;
+                if (values.get(key) == null) {
+                    values.compareAndSet(key, null, substitutionEngine.expand(templates[key], values));
+                }
+            }
+        }
+        return values.get(index);
+    }
+}
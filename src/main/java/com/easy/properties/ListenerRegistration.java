@@ -0,0 +1,99 @@
+package com.easy.properties;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class delivers the change events to a {@link ConfigChangeListener} through an executor <br>
+ * Events are delivered to the listener one after another, never concurrently. An event raised while the earlier one is still waiting for
+ * (or in) delivery is combined with any other waiting event, so that a slow listener gets one event covering all the changes it missed
+ * instead of a backlog of events
+ *
+ * @author himanshu_shekhar
+ */
+final class ListenerRegistration implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(ListenerRegistration.class);
+
+    private final ConfigChangeListener listener;
+    // Ordinals of the keys listener is registered for, null if registered for all the keys
+    private final BitSet keys;
+
+    private ConfigChangeEvent pendingEvent;
+    private boolean scheduled;
+
+    ListenerRegistration(ConfigChangeListener listener, BitSet keys) {
+        this.listener = listener;
+        this.keys = keys;
+    }
+
+    ConfigChangeListener getListener() {
+        return listener;
+    }
+
+    /*
+    Add the ordinals of the keys listener is registered for to given set, i.e. all of them if registered for all the keys
+    */
+    void addKeys(BitSet target, int keyCount) {
+        if (keys == null) {
+            target.set(0, keyCount);
+        } else {
+            target.or(keys);
+        }
+    }
+
+    /*
+    Raise event for the keys listener is registered for, among the ones changed from the old snapshot to the new one. The listener is
+    invoked later through the executor, so this method does not wait for the listener
+    */
+    void notify(ConfigSnapshot oldSnapshot, ConfigSnapshot newSnapshot, Enum[] constants, BitSet changedKeys, Executor executor) {
+        Map<Enum, String> oldValues = new LinkedHashMap<Enum, String>();
+        Map<Enum, String> newValues = new LinkedHashMap<Enum, String>();
+        for (int i = changedKeys.nextSetBit(0); i >= 0; i = changedKeys.nextSetBit(i + 1)) {
+            if (keys == null || keys.get(i)) {
+                oldValues.put(constants[i], oldSnapshot.getValue(i));
+                newValues.put(constants[i], newSnapshot.getValue(i));
+            }
+        }
+        if (!newValues.isEmpty()) {
+            offer(new ConfigChangeEvent(oldValues, newValues), executor);
+        }
+    }
+
+    private void offer(ConfigChangeEvent event, Executor executor) {
+        boolean schedule;
+        synchronized (this) {
+            pendingEvent = pendingEvent == null ? event : pendingEvent.merge(event);
+            schedule = !scheduled;
+            scheduled = true;
+        }
+        if (schedule) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            ConfigChangeEvent event;
+            synchronized (this) {
+                event = pendingEvent;
+                pendingEvent = null;
+                if (event == null) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            if (!event.isEmpty()) {
+                try {
+                    listener.onChange(event);
+                } catch (RuntimeException e) {
+                    logger.error("Listener " + listener + " failed to handle " + event, e);
+                }
+            }
+        }
+    }
+}
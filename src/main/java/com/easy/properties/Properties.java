@@ -1,16 +1,23 @@
 package com.easy.properties;
 
-import com.easy.core.utils.RegexUtil;
+import com.easy.properties.exception.InvalidBindingException;
 import com.easy.properties.exception.InvalidConfigException;
+import com.easy.properties.exception.InvalidEnumException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +38,11 @@ import org.slf4j.LoggerFactory;
  *    <li>{@code double}</li>
  *    <li>List of any of the above types</li>
  * </ol>
+ * If the enum declares {@code type} of a key (see {@link ConfigKey}), the value is parsed once while loading and the getter for that
+ * type returns it without any parsing <br>
+ * Once a value has been read, reading it again allocates nothing, whichever getter is used. An empty value is replaced by the system
+ * property or environment variable with the same name as the key. That lookup happens when the configuration is loaded, not when the
+ * value is read. Lists are created when first read and are shared after that, so they cannot be modified
  * <hr>
  * <br>
  * <b>2) The value can be multi-lined, for example below content in a property file is perfectly fine</b> <br>
@@ -63,30 +75,61 @@ import org.slf4j.LoggerFactory;
  *    <li>Format of value in configuration file is incorrect</li>
  * </ol>
  * 
+ * <br>
+ * 
+ * <b>5) Listeners can be registered to be notified when values change on reloading the configuration (see {@link PropertiesLoader#watch()})</b> <br>
+ * Each listener gets a single event per reload having all the changed keys it is registered for, on the executor set through
+ * {@link #setListenerExecutor(Executor)}, so that reloading never waits for the listeners
+ * 
+ * <br>
+ * 
+ * <b>6) The configuration can be bound to an interface through {@link #bind(Class)}</b> <br>
+ * Its methods return the values already converted to their return types, which makes reading a value as cheap as reading a field
+ * 
+ * <br>
+ * 
+ * <b>7) Every value read can be counted, to find the keys read most often and the ones never read (see {@link PropertiesLoader#setMetrics(ConfigMetrics)})</b>
+ * 
  * @author himanshu_shekhar
  */
 public class Properties{
     private static final Logger logger = LoggerFactory.getLogger(Properties.class);
+    // Name of the source reported for an overridden value (see #override(Enum, String))
+    static final String OVERRIDE_SOURCE_NAME = "override";
     
     private final Map<ConfigKey, String> dataMap;
+    private final Map<ConfigKey, String> sourceMap;
+    private volatile ConfigSnapshot snapshot;
+    private final List<ListenerRegistration> listeners = new CopyOnWriteArrayList<ListenerRegistration>();
+    private final List<BoundConfig<?>> bindings = new CopyOnWriteArrayList<BoundConfig<?>>();
+    private volatile Executor listenerExecutor;
+    private volatile ConfigMetrics metrics;
+    // Replaced as a whole whenever a converter is registered, so that reading it needs no locking
+    private volatile Map<Class<?>, ValueConverter<?>> converters = Collections.emptyMap();
+    // Values overriding the ones from the sources. Replaced as a whole on every change, so that a reloaded instance tells whether it was
+    // resolved with the overrides in effect
+    private volatile Map<ConfigKey, String> overrides = Collections.emptyMap();
 
     Properties() {
         logger.trace("Constructing the instance");
         this.dataMap = new ConcurrentHashMap<ConfigKey, String>();
+        this.sourceMap = new ConcurrentHashMap<ConfigKey, String>();
     }
     
     /*
-    Just update the internal data structure for specified key with given value
+    Just update the internal data structure for specified key with given value, read from the configuration source with given name
     */
-    void update(ConfigKey configKey, String value){
-        logger.debug("Updating config key {} with value {}", configKey.getKeyName(), value);
+    void update(ConfigKey configKey, String value, String sourceName){
+        logger.debug("Updating config key {} with value {} from {}", configKey.getKeyName(), value, sourceName);
         dataMap.put(configKey, value);
+        sourceMap.put(configKey, sourceName);
     }
     
     /*
-    Validate that none of the mandatory keys is missing from the read loaded configuration
+    Validate that none of the mandatory keys is missing from the read loaded configuration. Invoked only while loading, before the
+    instance is shared with any other thread
     */
-    synchronized void validate(Collection<ConfigKey> configKeys){
+    void validate(ConfigKey[] configKeys){
         logger.debug("Validating the configuration keys");
         for(ConfigKey configKey : configKeys){
             if(configKey.isMandatory() && !dataMap.containsKey(configKey)){
@@ -98,126 +141,582 @@ public class Properties{
     /*
     Make the variable substitution on values defined in configuration property file. A variable can be defined using dollar($) sign. For example, 
     ${HOME} or $HOME. Note, that curly braces are optional, but often they make the configuration text more readable by enhancing the clarity.
-    The substitution is performed recursively so that value is resolved correctly if value for a key itself contains another key
+    The substitution is performed again on the values loaded originally, with the keys this configuration was loaded for
     */
     public synchronized void makeSubstitutions(){
+        ConfigSnapshot current = snapshot;
+        if(current == null){
+            throw new IllegalStateException("Configuration keys are not known before loading the configuration");
+        }
+        makeSubstitutions(current.getKeyEnumClass(), current.getConfigKeys(), null, current.isLazy());
+    }
+    
+    /*
+    Resolve the value of every key once, so that reading it later is just an array access by ordinal of the enum constant. The value
+    from configuration file is used if available, else the default value defined in the enum. A variable in the value is replaced by
+    resolved value of the key it refers to, so the substitution works correctly if value for a key itself contains another key
+    The configKeys must be indexed by ordinal of the corresponding enum constant. If snapshot of the configuration loaded earlier is given
+    then only the values changed since then (and the ones depending on them) are resolved. In lazy mode, the values are expanded only
+    when first read
+    Needs no lock, being invoked either on an instance created for a single load (or override) and not yet shared with any other thread,
+    or by makeSubstitutions() holding the lock of this instance
+    */
+    void makeSubstitutions(Class<?> keyEnumClass, ConfigKey[] configKeys, ConfigSnapshot previous, boolean lazy){
         logger.debug("Performing variable-substitutions");
-        for(ConfigKey configKey : dataMap.keySet()){
-            String substitutedValue = getSubstitutedValue(new HashSet<ConfigKey>(), configKey, dataMap.get(configKey));
-            logger.trace("Value after substitutions: {}", substitutedValue);
-            dataMap.put(configKey, substitutedValue);
+        String[] rawValues = new String[configKeys.length];
+        String[] sourceNames = new String[configKeys.length];
+        Map<ConfigKey, String> overridden = overrides;
+        for(int i = 0; i < configKeys.length; i++){
+            String val = overridden.get(configKeys[i]);
+            if(val != null){
+                sourceNames[i] = OVERRIDE_SOURCE_NAME;
+                rawValues[i] = val;
+                continue;
+            }
+            val = dataMap.get(configKeys[i]);
+            if(val == null || val.isEmpty()){
+                val = configKeys[i].getDefaultValue();
+            }else{
+                sourceNames[i] = sourceMap.get(configKeys[i]);
+            }
+            rawValues[i] = val == null ? "" : val;
+        }
+        SubstitutionEngine substitutionEngine = new SubstitutionEngine(keyEnumClass, configKeys, lazy);
+        if(previous == null){
+            snapshot = substitutionEngine.resolve(rawValues, sourceNames);
+        }else{
+            snapshot = substitutionEngine.resolve(previous, rawValues, sourceNames);
         }
     }
     
     /*
-    Obtain the value with variable substituted as per key-values available in configuration
-    Logic summary:
-    1. Find patterns like ${VAR} or $VAR in the given text value
-    2. For each of found occurrences, replace "${VAR}" or "$VAR" with value obtained from data-map using key VAR (or empty if no value present)
-    3. Keep a record of encountered property keys in a set and check if variable extracted from value is same as one of the keys encountered
-       so far. If so, raise the exception. This is done in order to detect the cyclic dependencies in the property files, e.g. x = $y, y = $x
+    Take over the snapshot restored from the snapshot cache as if it was loaded from the sources, i.e. with value of every key read from
+    some source kept along with the name of the source. Invoked only while loading, before the instance is shared with any other thread
     */
-    private String getSubstitutedValue(Set<ConfigKey> encounteredKeys, ConfigKey key, String value){
-        logger.trace("Adding {} to encountered keys", key);
-        encounteredKeys.add(key);
-        
-        logger.trace("Making variable substitution on ({})", value);
-        String result = value;
-        String regex = "(\\$\\{\\s*([a-zA-Z_.][a-zA-Z_.0-9]*)\\s*\\})|(\\$([a-zA-Z_.][a-zA-Z_.0-9]*))";
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(value);
-        while(matcher.find()){
-            String varNameWithCurlyBrace = matcher.group(2);
-            String varNameWithoutCurlyBrace = matcher.group(4);
-            String varName = varNameWithCurlyBrace == null ? varNameWithoutCurlyBrace : varNameWithCurlyBrace;
-            ConfigKey varNameKey = new ConfigKey(varName);
-            // If a key in value is same as the corresponding key, trying to retrieve the result will get us to stack overflow error due to
-            // cyclic dependency. For example, let's consider this:
-            // -------------
-            // X = $Y
-            // Y = $Z
-            // Z = $X
-            // -------------
-            // If we try to get value of any of X, Y or Z, the infinite loop will occur. So, I have taken keys in a set and check if the variable
-            // obtained through parsing the value is same as any of the encountered keys
-            
-            if(encounteredKeys.contains(varNameKey)){
-                logger.error("Detected cyclic dependency for {} in {}", varNameKey.getKeyName(), value);
-                throw new InvalidConfigException("Detected cyclic dependency in: " + value + ", for: " + varNameKey.getKeyName());
+    void restore(ConfigSnapshot restored){
+        logger.debug("Restoring configuration from snapshot cache");
+        ConfigKey[] configKeys = restored.getConfigKeys();
+        for(int i = 0; i < configKeys.length; i++){
+            String sourceName = restored.getSourceName(i);
+            if(sourceName != null){
+                update(configKeys[i], restored.getRawValue(i), sourceName);
+            }
+        }
+        snapshot = restored;
+    }
+
+    /*
+    Take over the configuration loaded afresh into given instance. Readers switch to the new values through single assignment of the
+    snapshot, so they never block and never see values partly from the old configuration and partly from the new one
+    */
+    synchronized void publish(Properties reloaded){
+        logger.debug("Publishing reloaded configuration");
+        ConfigSnapshot previous = snapshot;
+        if(reloaded.overrides != overrides){
+            // Loaded without the overrides in effect, which are resolved on top of the loaded values. They are resolved against the
+            // current values, so that the current snapshot is retained if nothing has changed
+            ConfigSnapshot loaded = reloaded.snapshot;
+            reloaded.overrides = overrides;
+            reloaded.makeSubstitutions(loaded.getKeyEnumClass(), loaded.getConfigKeys(), previous == null ? loaded : previous, loaded.isLazy());
+        }
+        takeOver(reloaded);
+    }
+    
+    /*
+    Take over the snapshot of given instance resolved with its overrides, along with the values from the sources it was resolved from
+    */
+    private void takeOver(Properties reloaded){
+        // Bound implementations read the reloaded instance, which must convert the values as this one does
+        reloaded.converters = converters;
+        ConfigSnapshot previous = snapshot;
+        // Bound implementations are created before taking over anything, so that a value which cannot be bound fails the whole reload
+        List<Object> boundInstances = new ArrayList<Object>();
+        if(previous != reloaded.snapshot){
+            for(BoundConfig<?> binding : bindings){
+                boundInstances.add(binding.create(reloaded));
+            }
+        }
+        dataMap.clear();
+        dataMap.putAll(reloaded.dataMap);
+        sourceMap.clear();
+        sourceMap.putAll(reloaded.sourceMap);
+        overrides = reloaded.overrides;
+        snapshot = reloaded.snapshot;
+        for(int i = 0; i < boundInstances.size(); i++){
+            ((BoundConfig<Object>) bindings.get(i)).update(boundInstances.get(i));
+        }
+        if(previous != null && previous != snapshot && !listeners.isEmpty()){
+            notifyListeners(previous, snapshot);
+        }
+    }
+    
+    /**
+     * Overrides the value of the key at runtime, without changing any of the sources (e.g. to turn a feature flag off during an incident).
+     * The keys referring to this key through variables are resolved again, and the values change all at once for the readers, the
+     * bound interfaces and the change listeners, like they do on reloading <br>
+     * The override takes precedence over all the sources, and is retained when the configuration is reloaded. {@link #getSourceName(Enum)}
+     * returns {@code override} for the key. The overridden values are neither kept in the snapshot cache nor published in the shared
+     * snapshot, which have the values from the sources only
+     * 
+     * @param key Enum key whose value is to be overridden
+     * @param value The value overriding the one from the sources, which can have variables like the one in a source
+     * @throws InvalidConfigException If the value makes keys refer to each other in a cycle, or cannot be converted to the type declared
+     * for the key (or for a key referring to it), in which case nothing is changed
+     * @throws InvalidEnumException If specified key is not a constant of the enum this configuration was loaded for
+     */
+    public synchronized void override(Enum key, String value){
+        if(value == null){
+            throw new IllegalArgumentException("Value overriding " + key.name() + " cannot be null");
+        }
+        ConfigSnapshot current = getLoadedSnapshot();
+        ConfigKey configKey = current.getConfigKeys()[current.indexOf(key)];
+        Map<ConfigKey, String> updated = new HashMap<ConfigKey, String>(overrides);
+        updated.put(configKey, value);
+        applyOverrides(current, updated);
+    }
+    
+    /**
+     * Removes the override of the key (see {@link #override(Enum, String)}), reverting it to the value from the sources as loaded last.
+     * The sources are not read again
+     * 
+     * @param key Enum key whose override is to be removed
+     * @throws InvalidEnumException If specified key is not a constant of the enum this configuration was loaded for
+     */
+    public synchronized void removeOverride(Enum key){
+        ConfigSnapshot current = getLoadedSnapshot();
+        ConfigKey configKey = current.getConfigKeys()[current.indexOf(key)];
+        if(!overrides.containsKey(configKey)){
+            return;
+        }
+        Map<ConfigKey, String> updated = new HashMap<ConfigKey, String>(overrides);
+        updated.remove(configKey);
+        // Same as the instances loaded without any override, so that reloading does not resolve the overrides needlessly
+        applyOverrides(current, updated.isEmpty() ? Collections.<ConfigKey, String>emptyMap() : updated);
+    }
+    
+    private ConfigSnapshot getLoadedSnapshot(){
+        ConfigSnapshot current = snapshot;
+        if(current == null){
+            throw new IllegalStateException("Configuration keys are not known before loading the configuration");
+        }
+        return current;
+    }
+    
+    /*
+    Resolve only the keys whose override has changed, and the keys referring to them, and take over the result like a reloaded
+    configuration. Nothing is taken over if they cannot be resolved
+    */
+    private void applyOverrides(ConfigSnapshot current, Map<ConfigKey, String> updatedOverrides){
+        Properties updated = new Properties();
+        updated.dataMap.putAll(dataMap);
+        updated.sourceMap.putAll(sourceMap);
+        updated.overrides = updatedOverrides;
+        updated.makeSubstitutions(current.getKeyEnumClass(), current.getConfigKeys(), current, current.isLazy());
+        takeOver(updated);
+    }
+    
+    /*
+    Raise the change event for every listener registered for any of the keys whose value differs between the snapshots. Only the keys
+    whose raw value differs, or which were resolved again for a changed system property or environment variable, and the keys referring
+    to them, can differ in value. Of these, only the ones some listener is registered for are compared, so that values to be expanded
+    when first read are not expanded just for finding the changes
+    */
+    private void notifyListeners(ConfigSnapshot previous, ConfigSnapshot current){
+        int keyCount = current.getConfigKeys().length;
+        int[] changedValues = new int[keyCount];
+        int changedCount = 0;
+        for(int i = 0; i < keyCount; i++){
+            // A value resolved again without its raw value changing is another instance, or not expanded yet
+            if(!current.getRawValue(i).equals(previous.getRawValue(i)) || current.getExpandedValue(i) != previous.getExpandedValue(i)){
+                changedValues[changedCount++] = i;
             }
-            
-            // Here, we are making a recursive call. This is done in order to handle cases where the value also
-            // has some key in it. For example, "home = /tmp", path="${home}/bin" and "conf = ${path}/../conf", then
-            // we would need to have this recursive call in order to resolve ${conf} correctly
-            String valueToReplace = dataMap.containsKey(varNameKey) ? getSubstitutedValue(encounteredKeys, varNameKey, dataMap.get(varNameKey)) : "";
-            if(valueToReplace == null || valueToReplace.isEmpty()){
-                valueToReplace = System.getProperty(varNameKey.getKeyName());
+        }
+        if(changedCount == 0){
+            return;
+        }
+        BitSet listenedKeys = new BitSet(keyCount);
+        for(ListenerRegistration registration : listeners){
+            registration.addKeys(listenedKeys, keyCount);
+        }
+        BitSet changedKeys = new BitSet(keyCount);
+        for(int i : current.getDependencyGraph().getResolutionOrder(Arrays.copyOf(changedValues, changedCount))){
+            if(!listenedKeys.get(i)){
+                continue;
             }
-            if(valueToReplace == null || valueToReplace.isEmpty()){
-                valueToReplace = System.getenv(varNameKey.getKeyName());
+            String oldValue = previous.getValue(i);
+            String newValue = current.getValue(i);
+            if(oldValue != newValue && (oldValue == null || !oldValue.equals(newValue))){
+                changedKeys.set(i);
             }
-            String varNameRegex = "\\$\\{\\s*" + varName + "\\s*\\}|\\$" + varName;
-            logger.trace("Making substitution on ({}): replace ({}) by ({})", result, varNameRegex, valueToReplace);
-            result = result.replaceAll(varNameRegex, valueToReplace);
+        }
+        if(changedKeys.isEmpty()){
+            return;
         }
         
-        return result;
+        logger.debug("Notifying listeners about {} changed configuration keys", changedKeys.cardinality());
+        Enum[] constants = (Enum[]) current.getKeyEnumClass().getEnumConstants();
+        Executor executor = getListenerExecutor();
+        for(ListenerRegistration registration : listeners){
+            registration.notify(previous, current, constants, changedKeys, executor);
+        }
     }
     
     /**
-     * @param key Enum key for which configuration property is needed
-     * @return Value corresponding to specified configuration key
+     * Register the listener to be notified when value of any configuration key changes
+     * 
+     * @param listener Listener to be notified
      */
-    public String get(Enum key){
-        logger.trace("Obtaining string value for: {}", key.name());
-        ConfigKey configKey = new ConfigKey(key);
-        String val = dataMap.get(configKey);
-        if(val == null || val.isEmpty()){
-            val = getSubstitutedValue(new HashSet<ConfigKey>(), configKey, configKey.getDefaultValue());
+    public void addChangeListener(ConfigChangeListener listener){
+        listeners.add(new ListenerRegistration(listener, null));
+    }
+    
+    /**
+     * Register the listener to be notified when value of the specified configuration key changes
+     * 
+     * @param listener Listener to be notified
+     * @param key Enum key whose changes are to be notified
+     * @throws InvalidEnumException If specified key is not a constant of the enum this configuration was loaded for
+     */
+    public void addChangeListener(ConfigChangeListener listener, Enum key){
+        addChangeListener(listener, Collections.singleton(key));
+    }
+    
+    /**
+     * Register the listener to be notified when value of any of the specified configuration keys changes
+     * 
+     * @param listener Listener to be notified
+     * @param keys Enum keys whose changes are to be notified
+     * @throws InvalidEnumException If any of the specified keys is not a constant of the enum this configuration was loaded for
+     */
+    public void addChangeListener(ConfigChangeListener listener, Collection<? extends Enum> keys){
+        ConfigSnapshot current = snapshot;
+        BitSet keyIndexes = new BitSet();
+        for(Enum key : keys){
+            keyIndexes.set(current.indexOf(key));
+        }
+        listeners.add(new ListenerRegistration(listener, keyIndexes));
+    }
+    
+    /**
+     * Stop notifying the listener, for all the keys it was registered for
+     * 
+     * @param listener Listener which is not to be notified anymore
+     */
+    public void removeChangeListener(ConfigChangeListener listener){
+        for(ListenerRegistration registration : listeners){
+            if(registration.getListener() == listener){
+                listeners.remove(registration);
+            }
         }
-        if(val == null || val.isEmpty()){
-            val = System.getProperty(configKey.getKeyName());
+    }
+    
+    /**
+     * Set the executor to notify the change listeners on. By default, listeners are notified on a single background (daemon) thread <br>
+     * A listener is never invoked concurrently with itself, even if the executor has multiple threads
+     * 
+     * @param executor Executor to run the listeners on
+     */
+    public void setListenerExecutor(Executor executor){
+        if(executor == null){
+            throw new IllegalArgumentException("Executor for change listeners cannot be null");
+        }
+        this.listenerExecutor = executor;
+    }
+    
+    private Executor getListenerExecutor(){
+        Executor executor = listenerExecutor;
+        return executor == null ? DefaultListenerExecutor.INSTANCE : executor;
+    }
+    
+    /*
+    Holder of the default executor for change listeners, so that its thread is started only when some listener is notified
+    */
+    private static final class DefaultListenerExecutor{
+        private static final Executor INSTANCE = Executors.newSingleThreadExecutor(new ThreadFactory(){
+            @Override
+            public Thread newThread(Runnable runnable){
+                Thread thread = new Thread(runnable, "properties-change-listener");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+    
+    /**
+     * Bind the configuration to specified interface, whose methods return values of the configuration keys (see {@link BindKey} for
+     * mapping of the methods to enum constants) <br>
+     * All the values are read and converted to return type of corresponding methods at once, so that an incorrect value is reported
+     * here instead of when the method is invoked. The implementation is generated at compile time if the interface is annotated with
+     * {@link ConfigBinding}, otherwise a proxy is used. A new implementation is created whenever the configuration is reloaded, and the
+     * reload fails (retaining the values loaded earlier) if any of the reloaded values cannot be bound <br>
+     * Binding the same interface again returns the same binding
+     * 
+     * @param <T> The interface to be bound
+     * @param type The interface to be bound
+     * @return Binding providing implementation of the interface with values of the configuration loaded last
+     * @throws InvalidBindingException If a method of the interface cannot be bound, e.g. it refers to an unknown enum constant or its
+     * return type is not supported or is different from the type declared for the key
+     * @throws InvalidConfigException If any of the values cannot be converted to return type of corresponding method
+     */
+    public synchronized <T> BoundConfig<T> bind(Class<T> type){
+        for(BoundConfig<?> binding : bindings){
+            if(binding.getType() == type){
+                return (BoundConfig<T>) binding;
+            }
         }
-        if(val == null || val.isEmpty()){
-            val = System.getenv(configKey.getKeyName());
+        ConfigBinder<T> binder = new ConfigBinder<T>(type, snapshot);
+        BoundConfig<T> binding = new BoundConfig<T>(binder, binder.bind(this));
+        bindings.add(binding);
+        return binding;
+    }
+    
+    ConfigSnapshot getSnapshot(){
+        return snapshot;
+    }
+    
+    /*
+    Start (or stop, if null) reporting every value read to the given metrics
+    */
+    void setMetrics(ConfigMetrics metrics){
+        this.metrics = metrics;
+    }
+    
+    /*
+    Index of the key in the snapshot, with the read reported to the metrics if enabled
+    */
+    private int indexOf(ConfigSnapshot current, Enum key){
+        int index = current.indexOf(key);
+        ConfigMetrics recorder = metrics;
+        if(recorder != null){
+            recorder.keyRead(key);
         }
-        return val;
+        return index;
+    }
+    
+    /**
+     * @return Graph of the configuration keys referring to each other through variables in their values
+     */
+    public DependencyGraph getDependencyGraph(){
+        return snapshot.getDependencyGraph();
+    }
+    
+    /**
+     * @param key Enum key whose value is to be traced
+     * @return Name of the configuration source (see {@link ConfigSource#getName()}) the value of specified key was read from, the one
+     * having highest precedence if the key is defined in multiple sources. Null if the value was not read from any source, i.e. it is
+     * the default value of the key (or empty)
+     * @throws InvalidEnumException If specified key is not a constant of the enum this configuration was loaded for
+     */
+    public String getSourceName(Enum key){
+        ConfigSnapshot current = snapshot;
+        return current.getSourceName(current.indexOf(key));
+    }
+    
+    /**
+     * Reads the values of all the given keys at once, all of them from the same version of the configuration even if it is being reloaded
+     * at the same time. Reading several keys this way costs about the same as reading each of them by itself
+     * 
+     * @param <K> The enum defining the keys
+     * @param keys Enum keys whose values are needed
+     * @return Value of each key, as the {@code type} declared for the key if any (see {@link ConfigValues#getValues()}), along with the
+     * version of the configuration
+     * @throws InvalidEnumException If specified keys are not constants of the enum this configuration was loaded for
+     */
+    public <K extends Enum<K>> ConfigValues<K> getAll(EnumSet<K> keys){
+        ConfigSnapshot current = snapshot;
+        EnumMap<K, Object> values = new EnumMap<K, Object>((Class<K>) current.getKeyEnumClass());
+        for(K key : keys){
+            values.put(key, current.getTypedValue(indexOf(current, key)));
+        }
+        return new ConfigValues<K>(values, current.getVersion());
+    }
+    
+    /**
+     * @return Version of the configuration, which changes whenever it is reloaded with any change in the sources (and is retained if
+     * nothing has changed). It can be compared with
+     * {@link ConfigValues#getVersion()} to find whether the values read earlier are still current
+     */
+    public long getVersion(){
+        return snapshot.getVersion();
+    }
+    
+    /**
+     * @param key Enum key for which configuration property is needed
+     * @return Value corresponding to specified configuration key
+     * @throws InvalidEnumException If specified key is not a constant of the enum this configuration was loaded for
+     */
+    public String get(Enum key){
+        ConfigSnapshot current = snapshot;
+        return current.getReadValue(indexOf(current, key));
     }
     
     /**
      * @param <T> The class representing type of elements of the list
      * @param key Enum key for which configuration property is needed
      * @param type Data type of elements of the list
-     * @return List of elements separated by comma in the configuration property file
+     * @return Unmodifiable list of elements separated by comma in the configuration property file
      */
     public <T> List<T> getList(Enum key, Class<T> type){
         return getList(key, type, ",");
     }
     
     /**
+     * The list is created when it is read first time, and the same list is returned till it is read with same type of elements and same
+     * delimiter
+     * 
      * @param <T> The class representing type of elements of the list
      * @param key Enum key for which configuration property is needed
      * @param type Data type of elements of the list
      * @param delimiter Delimiter which separates the list elements
-     * @return List of elements separated by specified delimiter in the configuration property file
+     * @return Unmodifiable list of elements separated by specified delimiter in the configuration property file
      */
     public <T> List<T> getList(Enum key, Class<T> type, String delimiter){
-        logger.trace("Obtaining list of type ({}) for ({})", type.getName(), key.name());
-        String delimiterEscaped = RegexUtil.getSpecialCharactersEscaped(delimiter);
-        String value = get(key);
-        String[] vals = value.split(delimiterEscaped);
-        
-        List<T> list = new ArrayList<T>();
-        for(String val : vals){
-            val = val.trim();
-            if(val.isEmpty()){
-                continue;
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        ValueConverter<?> converter = getConverter(type);
+        List<T> list = (List<T>) current.getConverted(index, type, delimiter, converter);
+        if(list == null){
+            list = Collections.unmodifiableList(parseList(key, current.getReadValue(index), type, delimiter, converter));
+            current.setConverted(index, type, delimiter, converter, list);
+        }
+        return list;
+    }
+    
+    /**
+     * @param key Enum key for which configuration property is needed
+     * @return Array of integers separated by comma in the configuration property file
+     * @throws InvalidConfigException If any of the values is not an integer
+     */
+    public int[] getIntArray(Enum key){
+        return getIntArray(key, ",");
+    }
+    
+    /**
+     * The array is parsed when it is read first time, and a copy of it is returned every time
+     * 
+     * @param key Enum key for which configuration property is needed
+     * @param delimiter Delimiter which separates the array elements
+     * @return Array of integers separated by specified delimiter in the configuration property file
+     * @throws InvalidConfigException If any of the values is not an integer
+     */
+    public int[] getIntArray(Enum key, String delimiter){
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        int[] values = (int[]) current.getConverted(index, int[].class, delimiter, null);
+        if(values == null){
+            String[] tokens = split(current.getReadValue(index), delimiter);
+            values = new int[tokens.length];
+            try{
+                for(int i = 0; i < tokens.length; i++){
+                    values[i] = Integer.parseInt(tokens[i]);
+                }
+            }catch(NumberFormatException e){
+                throw new InvalidConfigException("Values for " + key + " cannot be converted to array of int", e);
             }
-            
+            current.setConverted(index, int[].class, delimiter, null, values);
+        }
+        return values.clone();
+    }
+    
+    /**
+     * @param key Enum key for which configuration property is needed
+     * @return Array of longs separated by comma in the configuration property file
+     * @throws InvalidConfigException If any of the values is not a long
+     */
+    public long[] getLongArray(Enum key){
+        return getLongArray(key, ",");
+    }
+    
+    /**
+     * The array is parsed when it is read first time, and a copy of it is returned every time
+     * 
+     * @param key Enum key for which configuration property is needed
+     * @param delimiter Delimiter which separates the array elements
+     * @return Array of longs separated by specified delimiter in the configuration property file
+     * @throws InvalidConfigException If any of the values is not a long
+     */
+    public long[] getLongArray(Enum key, String delimiter){
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        long[] values = (long[]) current.getConverted(index, long[].class, delimiter, null);
+        if(values == null){
+            String[] tokens = split(current.getReadValue(index), delimiter);
+            values = new long[tokens.length];
             try{
-                list.add(getNonArrayValue(val.trim(), type));
+                for(int i = 0; i < tokens.length; i++){
+                    values[i] = Long.parseLong(tokens[i]);
+                }
             }catch(NumberFormatException e){
-                throw new InvalidConfigException("Values for " + key + " cannot be converted to array of " + type.getName(), e);
+                throw new InvalidConfigException("Values for " + key + " cannot be converted to array of long", e);
+            }
+            current.setConverted(index, long[].class, delimiter, null, values);
+        }
+        return values.clone();
+    }
+    
+    /**
+     * @param key Enum key for which configuration property is needed
+     * @return Array of doubles separated by comma in the configuration property file
+     * @throws InvalidConfigException If any of the values is not a double
+     */
+    public double[] getDoubleArray(Enum key){
+        return getDoubleArray(key, ",");
+    }
+    
+    /**
+     * The array is parsed when it is read first time, and a copy of it is returned every time
+     * 
+     * @param key Enum key for which configuration property is needed
+     * @param delimiter Delimiter which separates the array elements
+     * @return Array of doubles separated by specified delimiter in the configuration property file
+     * @throws InvalidConfigException If any of the values is not a double
+     */
+    public double[] getDoubleArray(Enum key, String delimiter){
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        double[] values = (double[]) current.getConverted(index, double[].class, delimiter, null);
+        if(values == null){
+            String[] tokens = split(current.getReadValue(index), delimiter);
+            values = new double[tokens.length];
+            try{
+                for(int i = 0; i < tokens.length; i++){
+                    values[i] = Double.parseDouble(tokens[i]);
+                }
+            }catch(NumberFormatException e){
+                throw new InvalidConfigException("Values for " + key + " cannot be converted to array of double", e);
+            }
+            current.setConverted(index, double[].class, delimiter, null, values);
+        }
+        return values.clone();
+    }
+    
+    /*
+    Split the value at every occurrence of the delimiter, with whitespace around the elements trimmed and empty elements dropped. The
+    delimiter is matched as plain text, so it needs no escaping. An empty delimiter makes every character an element
+    */
+    private static String[] split(String value, String delimiter){
+        List<String> tokens = new ArrayList<String>();
+        int start = 0;
+        while(start < value.length()){
+            int end = delimiter.isEmpty() ? start + 1 : value.indexOf(delimiter, start);
+            if(end < 0){
+                end = value.length();
+            }
+            String token = value.substring(start, end).trim();
+            if(!token.isEmpty()){
+                tokens.add(token);
+            }
+            start = end + delimiter.length();
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+    
+    private <T> List<T> parseList(Enum key, String value, Class<T> type, String delimiter, ValueConverter<?> converter){
+        logger.trace("Obtaining list of type ({}) for ({})", type.getName(), key.name());
+        List<T> list = new ArrayList<T>();
+        for(String val : split(value, delimiter)){
+            try{
+                list.add((T) converter.convert(val));
             }catch(IllegalArgumentException e){
                 throw new InvalidConfigException("Values for " + key + " cannot be converted to array of " + type.getName(), e);
             }
@@ -226,40 +725,99 @@ public class Properties{
         return list;
     }
     
+    /**
+     * Registers the converter for the values read as given type, through {@link #get(Enum, Class)} and {@link #getList(Enum, Class)} (and
+     * through the getters for the primitive types, if registered for a primitive type or its wrapper). It replaces the converter
+     * registered earlier for the type, or the one provided by default, which are available for the primitive types, {@code String},
+     * enums, {@link java.net.URI}, {@link java.time.Duration} (e.g. {@code 30s} or {@code PT30S}) and {@link java.net.InetSocketAddress}
+     * (e.g. {@code localhost:8080}) <br>
+     * The value of a key is converted only when first read as the type, and the converted value is remembered until the configuration is
+     * reloaded <br>
+     * A key declaring a {@code type} (see {@link ConfigKey}) is an exception: its value is parsed while loading, before any converter can
+     * be registered, so reading it as the declared type (or its wrapper) returns the parsed value without consulting the converters. This
+     * holds for the getter of the declared type (and the getters of wider types, e.g. {@link #getLong(Enum)} for an {@code int} key) as
+     * well as for {@link #get(Enum, Class)}. The converters apply to all the other keys, and to the declared keys read as other types
+     * 
+     * @param <T> The type the values are converted to
+     * @param type The type the values are converted to
+     * @param converter The converter for the type
+     */
+    public synchronized <T> void registerConverter(Class<T> type, ValueConverter<? extends T> converter){
+        if(converter == null){
+            throw new IllegalArgumentException("Converter for " + type.getName() + " cannot be null");
+        }
+        Map<Class<?>, ValueConverter<?>> registered = new HashMap<Class<?>, ValueConverter<?>>(converters);
+        registered.put(type, converter);
+        Class<?> counterpart = ValueConverters.getPrimitiveCounterpart(type);
+        if(counterpart != null){
+            registered.put(counterpart, converter);
+        }
+        converters = registered;
+    }
+    
     /*
-    It just converts the string value to object of appropriate type. And, I know it is bit complex 
-    (with higher cyclomatic complexity, if saying technically) and show issue with most of the code quality checking tools
-    but I cannot think of any other way to reduce the complexity
-    (I can think of using reflection to invoke the "parse" methods but that would be more complex than the if else blocks
-    in my opinion)
+    The converter registered for given type, else the one provided by default
     */
-    private <T> T getNonArrayValue(String valueString, Class<T> type){
-        logger.trace("Converting ({}) to type: {}", valueString, type.getName());
-        Object value;
-        
-        if (type == String.class) {
-            value = valueString;
-        } else if (type == Byte.class || type == byte.class) {
-            value = Byte.parseByte(valueString);
-        } else if(type == Boolean.class || type == boolean.class){
-            value = Boolean.parseBoolean(valueString);
-        } else if (type == Character.class || type == char.class) {
-            value = valueString.charAt(0);
-        } else if (type == Short.class || type == short.class) {
-            value = Short.parseShort(valueString);
-        } else if (type == Integer.class || type == int.class) {
-            value = Integer.parseInt(valueString);
-        } else if (type == Long.class || type == long.class) {
-            value = Long.parseLong(valueString);
-        } else if (type == Float.class || type == float.class) {
-            value = Float.parseFloat(valueString);
-        } else if (type == Double.class || type == double.class) {
-            value = Double.parseDouble(valueString);
-        } else {
-            throw new IllegalArgumentException(valueString + " cannot be converted to " + type.getName());
+    private ValueConverter<?> getConverter(Class<?> type){
+        ValueConverter<?> converter = converters.get(type);
+        if(converter == null){
+            converter = ValueConverters.getDefault(type);
+            if(converter == null){
+                throw new IllegalArgumentException("No converter is registered for " + type.getName());
+            }
+        }
+        return converter;
+    }
+    
+    /*
+    Value of the key converted to given type, converted only when first read as the type
+    */
+    private <T> T getConverted(ConfigSnapshot current, int index, Class<T> type, ValueConverter<?> converter){
+        Object value = current.getConverted(index, type, null, converter);
+        if(value == null){
+            value = converter.convert(current.getReadValue(index));
+            if(value == null){
+                throw new IllegalArgumentException("Converter for " + type.getName() + " returned null");
+            }
+            current.setConverted(index, type, null, converter, value);
+        }
+        return (T) value;
+    }
+    
+    /**
+     * @param <T> The type the value is converted to
+     * @param key Enum key for which configuration property is needed
+     * @param type The type the value is to be converted to, through the converter registered for it (see
+     * {@link #registerConverter(Class, ValueConverter)}), unless it is the type declared for the key
+     * @return Configuration property value converted to specified type (the value parsed while loading, if the type is the one declared
+     * for the key), null if the key has no value
+     * @throws InvalidConfigException If the value cannot be converted to specified type
+     * @throws IllegalArgumentException If no converter is available for specified type
+     * @throws InvalidEnumException If specified key is not a constant of the enum this configuration was loaded for
+     */
+    public <T> T get(Enum key, Class<T> type){
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        String val = current.getReadValue(index);
+        if(val == null){
+            return null;
+        }
+        Class<?> parsedType = current.getParsedType(index);
+        if(parsedType != null && (type == parsedType || type == ValueConverters.getPrimitiveCounterpart(parsedType))){
+            // Boxed only once, so that reading it again allocates nothing
+            Object value = current.getConverted(index, parsedType, null, null);
+            if(value == null){
+                value = current.getTypedValue(index);
+                current.setConverted(index, parsedType, null, null, value);
+            }
+            return (T) value;
+        }
+        ValueConverter<?> converter = getConverter(type);
+        try{
+            return getConverted(current, index, type, converter);
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not " + type.getName() + ", check configuration (" + val + ")", e);
         }
-        
-        return (T)value;
     }
     
     /**
@@ -268,12 +826,16 @@ public class Properties{
      * @throws InvalidConfigException If value specified in configuration file is not an integer
      */
     public int getInt(Enum key){
-        logger.trace("Obtaining integer value for: {}", key.name());
-        String val = get(key);
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        Class<?> parsedType = current.getParsedType(index);
+        if(parsedType == int.class || parsedType == short.class || parsedType == byte.class){
+            return current.getIntValue(index);
+        }
         try{
-            return Integer.parseInt(val);
-        }catch(NumberFormatException e){
-            throw new InvalidConfigException("Is not integer, check configuration (" + val + ")", e);
+            return getConverted(current, index, int.class, getConverter(int.class));
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not integer, check configuration (" + current.getReadValue(index) + ")", e);
         }
     }
     
@@ -283,12 +845,19 @@ public class Properties{
      * @throws InvalidConfigException If value specified in configuration file is not a long
      */
     public long getLong(Enum key){
-        logger.trace("Obtaining long value for: {}", key.name());
-        String val = get(key);
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        Class<?> parsedType = current.getParsedType(index);
+        if(parsedType == long.class){
+            return current.getLongValue(index);
+        }
+        if(parsedType == int.class || parsedType == short.class || parsedType == byte.class){
+            return current.getIntValue(index);
+        }
         try{
-            return Long.parseLong(val);
-        }catch(NumberFormatException e){
-            throw new InvalidConfigException("Is not long, check configuration (" + val + ")", e);
+            return getConverted(current, index, long.class, getConverter(long.class));
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not long, check configuration (" + current.getReadValue(index) + ")", e);
         }
     }
     
@@ -298,12 +867,15 @@ public class Properties{
      * @throws InvalidConfigException If value specified in configuration file is not a float
      */
     public float getFloat(Enum key){
-        logger.trace("Obtaining float value for: {}", key.name());
-        String val = get(key);
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        if(current.getParsedType(index) == float.class){
+            return (float) current.getDoubleValue(index);
+        }
         try{
-            return Float.parseFloat(val);
-        }catch(NumberFormatException e){
-            throw new InvalidConfigException("Is not float, check configuration (" + val + ")", e);
+            return getConverted(current, index, float.class, getConverter(float.class));
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not float, check configuration (" + current.getReadValue(index) + ")", e);
         }
     }
     
@@ -313,12 +885,15 @@ public class Properties{
      * @throws InvalidConfigException If value specified in configuration file is not a double
      */
     public double getDouble(Enum key){
-        logger.trace("Obtaining double value for: {}", key.name());
-        String val = get(key);
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        if(current.getParsedType(index) == double.class){
+            return current.getDoubleValue(index);
+        }
         try{
-            return Double.parseDouble(val);
-        }catch(NumberFormatException e){
-            throw new InvalidConfigException("Is not double, check configuration (" + val + ")", e);
+            return getConverted(current, index, double.class, getConverter(double.class));
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not double, check configuration (" + current.getReadValue(index) + ")", e);
         }
     }
     
@@ -328,12 +903,16 @@ public class Properties{
      * @throws InvalidConfigException If value specified in configuration file is not a short
      */
     public short getShort(Enum key){
-        logger.trace("Obtaining short value for: {}", key.name());
-        String val = get(key);
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        Class<?> parsedType = current.getParsedType(index);
+        if(parsedType == short.class || parsedType == byte.class){
+            return (short) current.getIntValue(index);
+        }
         try{
-            return Short.parseShort(val);
-        }catch(NumberFormatException e){
-            throw new InvalidConfigException("Is not double, check configuration (" + val + ")", e);
+            return getConverted(current, index, short.class, getConverter(short.class));
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not short, check configuration (" + current.getReadValue(index) + ")", e);
         }
     }
     
@@ -343,12 +922,16 @@ public class Properties{
      * @throws InvalidConfigException If value specified in configuration file is not a character
      */
     public char getChar(Enum key){
-        logger.trace("Obtaining char value for: {}", key.name());
-        String val = get(key);
-        if(val.length() != 1){
-            throw new InvalidConfigException("Is not character, check configuration (" + val + ")");
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        if(current.getParsedType(index) == char.class){
+            return (char) current.getIntValue(index);
+        }
+        try{
+            return getConverted(current, index, char.class, getConverter(char.class));
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not character, check configuration (" + current.getReadValue(index) + ")", e);
         }
-        return val.charAt(0);
     }
     
     /**
@@ -357,12 +940,15 @@ public class Properties{
      * @throws InvalidConfigException If value specified in configuration file is not a byte
      */
     public byte getByte(Enum key){
-        logger.trace("Obtaining byte value for: {}", key.name());
-        String val = get(key);
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        if(current.getParsedType(index) == byte.class){
+            return (byte) current.getIntValue(index);
+        }
         try{
-            return Byte.parseByte(val);
-        }catch(NumberFormatException e){
-            throw new InvalidConfigException("Is not byte, check configuration (" + val + ")", e);
+            return getConverted(current, index, byte.class, getConverter(byte.class));
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not byte, check configuration (" + current.getReadValue(index) + ")", e);
         }
     }
     
@@ -372,11 +958,15 @@ public class Properties{
      * @throws InvalidConfigException If value specified in configuration file is not a boolean
      */
     public boolean getBoolean(Enum key){
-        logger.trace("Obtaining boolean value for: {}", key.name());
-        String val = get(key);
-        if(val.isEmpty()){
-            throw new InvalidConfigException("Is not boolean, check configuration (" + val + ")");
+        ConfigSnapshot current = snapshot;
+        int index = indexOf(current, key);
+        if(current.getParsedType(index) == boolean.class){
+            return current.getBooleanValue(index);
+        }
+        try{
+            return getConverted(current, index, boolean.class, getConverter(boolean.class));
+        }catch(IllegalArgumentException e){
+            throw new InvalidConfigException("Is not boolean, check configuration (" + current.getReadValue(index) + ")", e);
         }
-        return Boolean.parseBoolean(val);
     }
 }
\ No newline at end of file
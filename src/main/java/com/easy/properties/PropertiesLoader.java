@@ -2,13 +2,18 @@ package com.easy.properties;
 
 import com.easy.properties.exception.InvalidConfigException;
 import com.easy.properties.exception.InvalidEnumException;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,163 +21,550 @@ import org.slf4j.LoggerFactory;
  * This is a thread-safe class used for reading given configuration property file and load the properties in memory based on specified enumeration<br>
  * The specified property file must have key and value pairs, separated by "=" <br>
  * <b>Note: The whitespace surrounding the delimiter is optional and is ignored while determining the values, for example {@code "Role=Developer"} and {@code "Role = Developer"} are equivalent
- * </b>
+ * </b> <br>
+ * Only the first "=" in a line separates the key from the value, so the value itself can contain "=" (e.g. {@code "QUERY = id=10"})
  * 
  * <br>
  * The lines in property file starting with {@code #} will be treated as comments and will be ignored
  * 
  * <br>
+ * The configuration can also be loaded from multiple sources (see {@link ConfigSources}), e.g. a file shipped with the application
+ * overridden by another one specific to the environment and then by the system properties. The sources are read concurrently, and a
+ * source overrides the values of the sources before it
+ * 
+ * <br>
  * This class provides the object which can be used to obtain the values present in property file for specified key in enum
  * 
  * @author himanshu_shekhar
  */
 public class PropertiesLoader {
     private static final Logger logger = LoggerFactory.getLogger(PropertiesLoader.class);
-    private static final String KEY_VALUE_SEPARATOR = "=";
 
-    private final File configFile;
-    private final Class<?> keyEnumClass;
-    private final Map<String, ConfigKey> configKeyMap;
-    private final Properties properties;
+    // In the order of increasing precedence
+    private final List<ConfigSource> sources;
+    private final Class<? extends Enum> keyEnumClass;
 
-    private String previousKey;
-    private StringBuilder previousValue = new StringBuilder();
+    private volatile ForkJoinPool parsingPool;
+    private volatile boolean lazySubstitution;
+    private volatile SnapshotCache snapshotCache;
+    private volatile SharedSnapshotFile sharedSnapshot;
+    private volatile ConfigMetrics metrics;
 
     /**
+     * The configuration property file is read in the default charset of the platform
      * 
      * @param configFilePath The configuration property file
      * @param keyEnumClass The enum class defining the keys to look for in configuration property file
      */
     public PropertiesLoader(String configFilePath, Class<? extends Enum> keyEnumClass) {
-        logger.trace("Constructing instance for config file: {}, enum: {}", configFilePath, keyEnumClass.getName());
+        this(configFilePath, Charset.defaultCharset(), keyEnumClass);
+    }
+
+    /**
+     * 
+     * @param configFilePath The configuration property file
+     * @param charset The charset the configuration property file is encoded in
+     * @param keyEnumClass The enum class defining the keys to look for in configuration property file
+     */
+    public PropertiesLoader(String configFilePath, Charset charset, Class<? extends Enum> keyEnumClass) {
+        this(keyEnumClass, Collections.singletonList(ConfigSources.file(configFilePath, charset)));
+    }
+
+    /**
+     * A source overrides the values of all the sources before it, i.e. the value of a key is taken from the last source having it
+     * 
+     * @param keyEnumClass The enum class defining the keys to look for in the sources
+     * @param sources The sources to load the configuration from, in the order of increasing precedence
+     */
+    public PropertiesLoader(Class<? extends Enum> keyEnumClass, ConfigSource... sources) {
+        this(keyEnumClass, Arrays.asList(sources));
+    }
+
+    /**
+     * A source overrides the values of all the sources before it, i.e. the value of a key is taken from the last source having it
+     * 
+     * @param keyEnumClass The enum class defining the keys to look for in the sources
+     * @param sources The sources to load the configuration from, in the order of increasing precedence
+     */
+    public PropertiesLoader(Class<? extends Enum> keyEnumClass, List<ConfigSource> sources) {
+        logger.trace("Constructing instance for sources: {}, enum: {}", sources, keyEnumClass.getName());
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("At least one config source is required");
+        }
         
-        this.configFile = new File(configFilePath);
+        this.sources = Collections.unmodifiableList(new ArrayList<ConfigSource>(sources));
         this.keyEnumClass = keyEnumClass;
-        this.configKeyMap = new ConcurrentHashMap<String, ConfigKey>();
-        this.properties = new Properties();
     }
 
     /**
-     * Reads the given configuration property file and initializes Properties object containing values based on specified enum
+     * Enables or disables parsing of the configuration property file in parallel, on the common fork/join pool. A large file is split into
+     * chunks at line boundaries, and the chunks are parsed on all the available cores. A small file is parsed in a single thread anyway <br>
+     * Multiple sources are read concurrently on this pool as well, or on the common pool if parsing in parallel is not enabled
+     * 
+     * @param parallel Whether the file is to be parsed in parallel, it is not by default
+     */
+    public void setParallelParsing(boolean parallel) {
+        this.parsingPool = parallel ? ForkJoinPool.commonPool() : null;
+    }
+
+    /**
+     * Enables parsing of the configuration property file in parallel, on the specified fork/join pool
+     * 
+     * @param pool The pool to parse the file on
+     * @see #setParallelParsing(boolean)
+     */
+    public void setParallelParsing(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool for parsing config file cannot be null");
+        }
+        this.parsingPool = pool;
+    }
+
+    /**
+     * Enables or disables expanding the variables in a value only when the value is first read, instead of expanding all the values while
+     * loading. This saves the time and memory taken by expanded values of the keys never read, e.g. when a large configuration shared by
+     * several applications refers to a few common values (like {@code ${BASE_DIR}}) all over <br>
+     * The values of keys declaring a {@code type} are expanded while loading still, so that a value which cannot be converted to the type
+     * fails the loading. Keys referring to each other in a cycle fail the loading as well. The system property or environment variable for
+     * an empty value (or for a variable which is not a key) is looked up when the value is first read
+     * 
+     * @param lazy Whether the values are to be expanded when first read, they are expanded while loading by default
+     */
+    public void setLazySubstitution(boolean lazy) {
+        this.lazySubstitution = lazy;
+    }
+
+    /**
+     * Enables keeping the loaded configuration in a binary snapshot file (e.g. next to the configuration property file), from which it
+     * is restored on next load as long as none of the sources has changed. Restoring the configuration needs neither parsing the sources
+     * nor reflecting on the enum nor resolving the variables, which makes the startup with a large configuration faster. The sources are
+     * still read for comparing their checksum (each of them only once, the content read being parsed if the configuration is not
+     * restored), and the system properties and environment variables the values refer to are compared as well <br>
+     * The snapshot file is written after the configuration is loaded from the sources (and on every reload when watching), and is
+     * ignored if it cannot be read or was written for a different version of the enum. It must not be placed where it would be read as
+     * a fragment of a configuration directory
+     * 
+     * @param snapshotFilePath The snapshot file, null to disable the snapshot cache (which is the default)
+     */
+    public void setSnapshotCache(String snapshotFilePath) {
+        if (snapshotFilePath == null) {
+            this.snapshotCache = null;
+            return;
+        }
+        SnapshotCache cache = new SnapshotCache(new File(snapshotFilePath), keyEnumClass);
+        if (!cache.isUsable()) {
+            logger.warn("Snapshot cache cannot be used for {}, as its class file cannot be read", keyEnumClass.getName());
+            return;
+        }
+        this.snapshotCache = cache;
+    }
+
+    /**
+     * Enables publishing the loaded configuration in a memory mapped file, from which other processes on the same host can read it through
+     * {@link #readShared(String, Class)} without loading it themselves. The configuration is published again on every reload when
+     * watching, and the reading processes switch over to it within a moment <br>
+     * A failure to publish the configuration is logged, and does not fail the loading
+     * 
+     * @param sharedSnapshotPath The shared snapshot file, null to disable publishing (which is the default)
+     */
+    public void setSharedSnapshot(String sharedSnapshotPath) {
+        if (sharedSnapshotPath == null) {
+            this.sharedSnapshot = null;
+            return;
+        }
+        SnapshotCodec codec = new SnapshotCodec(keyEnumClass);
+        if (!codec.isUsable()) {
+            logger.warn("Shared snapshot cannot be used for {}, as its class file cannot be read", keyEnumClass.getName());
+            return;
+        }
+        this.sharedSnapshot = new SharedSnapshotFile(new File(sharedSnapshotPath), codec);
+    }
+
+    /**
+     * Enables reporting the time taken by each phase of loading (and reloading) the configuration, the values taken from elsewhere than
+     * the sources, and every value read from the Properties instance, to the given metrics (e.g. {@link PropertiesMetrics}) <br>
+     * Nothing is measured or reported by default, in which case reading a value costs nothing more than it would without this feature.
+     * The Properties instances loaded already keep reporting to the metrics they were loaded with
+     * 
+     * @param metrics The metrics to report to, null to disable reporting
+     */
+    public void setMetrics(ConfigMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reads the configuration published by another process through {@link #setSharedSnapshot(String)}, and keeps reading it whenever it
+     * is published again
+     * 
+     * @param sharedSnapshotPath The shared snapshot file
+     * @param keyEnumClass The enum class defining the keys, same as the one the configuration is published for
+     * @return Reader providing the Properties instance, which must be closed to stop reading the shared snapshot file
+     * @throws InvalidConfigException If the shared snapshot file cannot be read, or has no configuration published for this version of
+     * the enum
+     */
+    public static SharedPropertiesReader readShared(String sharedSnapshotPath, Class<? extends Enum> keyEnumClass) {
+        SnapshotCodec codec = new SnapshotCodec(keyEnumClass);
+        if (!codec.isUsable()) {
+            throw new InvalidConfigException("Shared snapshot cannot be used for " + keyEnumClass.getName() + ", as its class file cannot be read");
+        }
+        SharedPropertiesReader reader = new SharedPropertiesReader(new SharedSnapshotFile(new File(sharedSnapshotPath), codec));
+        reader.start();
+        return reader;
+    }
+
+    /**
+     * Reads the given configuration property file and initializes Properties object containing values based on specified enum <br>
+     * Every call returns a new Properties instance, which is not affected by the later calls. All the state of loading is kept in the
+     * call itself, so any number of threads can load through the same loader at the same time
      * 
      * @return Properties instance which can be used to get the values present in configuration property file
      * @throws InvalidEnumException If specified enum has no value defined in it
-     * @throws InvalidConfigException If specified configuration file cannot be accessed or has some key which is not defined in given enum
+     * @throws InvalidConfigException If any of the sources cannot be accessed, or a configuration file has some key which is not defined in
+     * given enum
      */
     public Properties load() {
-        initializeConfigKeys();
-        readConfigFile();
+        Properties properties;
+        SnapshotCache cache = snapshotCache;
+        if (cache == null) {
+            properties = load(null, null);
+        } else {
+            List<SourceContent> contents = SourceContent.readAll(expandSources());
+            long checksum = SnapshotCache.checksum(contents);
+            ConfigSnapshot cached = cache.read(checksum);
+            if (cached != null) {
+                logger.info("Restored configuration from snapshot cache {}", cache.getFile().getAbsolutePath());
+                properties = new Properties();
+                properties.restore(cached);
+            } else {
+                properties = load(null, contents);
+                writeSnapshotCache(cache, checksum, properties.getSnapshot());
+            }
+        }
+        properties.setMetrics(metrics);
+        reportFallbacks(properties.getSnapshot());
+        publishSharedSnapshot(properties.getSnapshot());
+        return properties;
+    }
+
+    /*
+    Load the configuration into a new Properties instance. If snapshot of the configuration loaded earlier is given, its config keys are
+    used as they are (since the enum cannot have changed) and only the values changed since then are resolved. The sources are read
+    unless their content is given, having been read for the snapshot cache already
+    */
+    private Properties load(ConfigSnapshot previous, List<SourceContent> contents) {
+        ConfigMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        ConfigKey[] configKeys = previous == null ? initializeConfigKeys() : previous.getConfigKeys();
+        Map<String, ConfigKey> configKeyMap = new HashMap<String, ConfigKey>(configKeys.length * 2);
+        for (ConfigKey configKey : configKeys) {
+            configKeyMap.put(configKey.getKeyName(), configKey);
+        }
+        start = phaseCompleted(recorder, ConfigMetrics.LoadPhase.KEY_INITIALIZATION, start);
+        Properties properties = new Properties();
+        readSources(properties, configKeyMap, contents);
+        start = phaseCompleted(recorder, ConfigMetrics.LoadPhase.SOURCE_READ, start);
         
-        properties.validate(configKeyMap.values());
-        properties.makeSubstitutions();
+        properties.validate(configKeys);
+        start = phaseCompleted(recorder, ConfigMetrics.LoadPhase.VALIDATION, start);
+        properties.makeSubstitutions(keyEnumClass, configKeys, previous, lazySubstitution);
+        phaseCompleted(recorder, ConfigMetrics.LoadPhase.SUBSTITUTION, start);
         
         return properties;
     }
 
     /*
-    Update the map for keeping track of config keys present in the specified enum class
+    Report the time elapsed since start of the phase, if metrics are enabled. Returns the start of the next phase
     */
-    private void initializeConfigKeys() {
-        configKeyMap.clear();
-        for (Object enumConstant : keyEnumClass.getEnumConstants()) {
-            ConfigKey configKey = new ConfigKey(enumConstant);
-            configKeyMap.put(configKey.getKeyName(), configKey);
+    private static long phaseCompleted(ConfigMetrics recorder, ConfigMetrics.LoadPhase phase, long start) {
+        if (recorder == null) {
+            return 0;
         }
-        if (configKeyMap.isEmpty()) {
-            throw new InvalidEnumException("Enum " + keyEnumClass.getName() + " does not have any constant defined");
+        long end = System.nanoTime();
+        recorder.phaseCompleted(phase, end - start);
+        return end;
+    }
+
+    /*
+    Report every key whose value is not read from any source, if metrics are enabled, and every variable substituted in a value from the
+    system properties or environment variables. In lazy mode only the values expanded already are known to be empty, and to have their
+    variables looked up in the system properties and environment variables
+    */
+    private void reportFallbacks(ConfigSnapshot snapshot) {
+        ConfigMetrics recorder = metrics;
+        if (recorder == null) {
+            return;
+        }
+        Enum[] constants = keyEnumClass.getEnumConstants();
+        ConfigKey[] configKeys = snapshot.getConfigKeys();
+        for (int i = 0; i < configKeys.length; i++) {
+            String value = snapshot.getExpandedValue(i);
+            if (value != null) {
+                reportSubstitutedFallbacks(recorder, snapshot, i, constants[i]);
+            }
+            if (snapshot.getSourceName(i) != null) {
+                continue;
+            }
+            String defaultValue = configKeys[i].getDefaultValue();
+            if (defaultValue != null && !defaultValue.isEmpty()) {
+                recorder.fallbackUsed(constants[i], ConfigMetrics.Fallback.DEFAULT_VALUE);
+            }
+            if (value != null && value.isEmpty()) {
+                reportExternalFallback(recorder, constants[i], configKeys[i].getKeyName());
+            }
         }
     }
 
     /*
-    Read the configuration property line-by-line and update the Properties instance with read values
+    Report the variables of an expanded value which were looked up in the system properties and environment variables while substituting
+    (see SubstitutionEngine), i.e. the ones not referring to any key, or referring to a key without value
     */
-    private void readConfigFile() {
-        FileReader fileReader = null;
+    private static void reportSubstitutedFallbacks(ConfigMetrics recorder, ConfigSnapshot snapshot, int index, Enum key) {
+        ValueTemplate template = snapshot.getTemplates()[index];
+        int[] dependencies = snapshot.getDependencyGraph().getDependencies(index);
+        for (int i = 0; i < template.getVariableCount(); i++) {
+            String varName = template.getVariable(i);
+            boolean external = true;
+            for (int dependency : dependencies) {
+                if (snapshot.getConfigKey(dependency).getKeyName().equals(varName)) {
+                    String varValue = snapshot.getExpandedValue(dependency);
+                    external = varValue == null || varValue.isEmpty();
+                    break;
+                }
+            }
+            if (external) {
+                reportExternalFallback(recorder, key, varName);
+            }
+        }
+    }
+
+    private static void reportExternalFallback(ConfigMetrics recorder, Enum key, String name) {
+        String propertyValue = System.getProperty(name);
+        if (propertyValue != null && !propertyValue.isEmpty()) {
+            recorder.fallbackUsed(key, ConfigMetrics.Fallback.SYSTEM_PROPERTY);
+        } else {
+            String envValue = System.getenv(name);
+            if (envValue != null && !envValue.isEmpty()) {
+                recorder.fallbackUsed(key, ConfigMetrics.Fallback.ENVIRONMENT_VARIABLE);
+            }
+        }
+    }
+
+    /**
+     * Loads the configuration like {@link #load()} does, and keeps watching the configuration property file for changes. Whenever the
+     * file changes, it is loaded again in background and the values are switched over to the new ones all at once. If the changed file
+     * cannot be loaded (e.g. it has a syntax error, or a mandatory key is missing) then the values from the file loaded last are retained <br>
+     * If the configuration is loaded from multiple sources, all of them are loaded again whenever any of the files among them changes, or
+     * a fragment is added to, changed in or removed from any of the directories among them
+     * 
+     * @return Watcher providing the Properties instance, which must be closed to stop watching the file
+     * @throws InvalidEnumException If specified enum has no value defined in it
+     * @throws InvalidConfigException If specified configuration file cannot be accessed or watched, or has some key which is not defined in
+     * given enum
+     */
+    public PropertiesWatcher watch() {
+        List<File> configFiles = new ArrayList<File>();
+        List<ConfigSources.DirectorySource> configDirectories = new ArrayList<ConfigSources.DirectorySource>();
+        for (ConfigSource source : sources) {
+            if (source instanceof ConfigSources.FileSource) {
+                configFiles.add(((ConfigSources.FileSource) source).getFile());
+            } else if (source instanceof ConfigSources.DirectorySource) {
+                configDirectories.add((ConfigSources.DirectorySource) source);
+            }
+        }
+        if (configFiles.isEmpty() && configDirectories.isEmpty()) {
+            throw new InvalidConfigException("None of the config sources is a file or directory which can be watched");
+        }
+        // The watch is registered before loading, so that a change made while loading is not missed
+        Properties properties = new Properties();
+        properties.setMetrics(metrics);
+        PropertiesWatcher watcher = new PropertiesWatcher(this, configFiles, configDirectories, properties);
         try {
-            fileReader = new FileReader(configFile);
-            BufferedReader br = new BufferedReader(fileReader);
-            String line;
-            while ((line = br.readLine()) != null) {
-                parseLine(line.trim());
-            }
-            // Since multi-lined values are supported, values are first accumulated till next "KEY = VALUE" is found
-            // So, the last "KEY = VALUE" is not processed through line-by-line parsing. That's why an extra call to
-            // config-updating method is made so that last KEY and VALUE also gets processed and configuration is updated
-            updateConfigSoFar();
-        } catch (FileNotFoundException e) {
-            throw new InvalidConfigException("Config file not found (" + configFile.getAbsolutePath() + ")", e);
+            properties.publish(load());
+        } catch (RuntimeException e) {
+            watcher.close();
+            throw e;
+        }
+        watcher.start();
+        return watcher;
+    }
+
+    /*
+    Load the configuration afresh and publish it to the given Properties instance. The reloaded instance does not report the reads to the
+    metrics, since it is read only for binding, and the reads are reported by the target anyway
+    */
+    void reload(Properties target) {
+        SnapshotCache cache = snapshotCache;
+        List<SourceContent> contents = cache == null ? null : SourceContent.readAll(expandSources());
+        ConfigSnapshot previous = target.getSnapshot();
+        Properties reloaded = load(previous, contents);
+        // Publishing resolves the overrides of the target (if any) on top, while the cache and the shared snapshot get the loaded values
+        ConfigSnapshot loaded = reloaded.getSnapshot();
+        target.publish(reloaded);
+        if (cache != null) {
+            writeSnapshotCache(cache, SnapshotCache.checksum(contents), loaded);
+        }
+        if (target.getSnapshot() != previous) {
+            reportFallbacks(loaded);
+            publishSharedSnapshot(loaded);
+        }
+    }
+
+    private void publishSharedSnapshot(ConfigSnapshot snapshot) {
+        SharedSnapshotFile shared = sharedSnapshot;
+        if (shared == null) {
+            return;
+        }
+        try {
+            shared.publish(snapshot);
         } catch (IOException e) {
-            throw new InvalidConfigException("Cannot read from config file " + configFile.getAbsolutePath(), e);
-        } finally {
-            if (fileReader != null) {
-                try {
-                    fileReader.close();
-                } catch (IOException e) {
-                    logger.warn("Cannot close the reader for configuration file " + configFile.getAbsolutePath(), e);
-                }
+            logger.warn("Cannot publish configuration in shared snapshot " + shared.getFile().getAbsolutePath(), e);
+        }
+    }
+
+    /*
+    Keep the loaded configuration in the snapshot cache. It was loaded from the very content the checksum was taken of, so it matches the
+    checksum even if some source has changed since then
+    */
+    private static void writeSnapshotCache(SnapshotCache cache, long checksum, ConfigSnapshot snapshot) {
+        try {
+            cache.write(checksum, snapshot);
+        } catch (IOException e) {
+            logger.warn("Cannot write snapshot cache " + cache.getFile().getAbsolutePath(), e);
+        }
+    }
+
+    /*
+    Config keys present in the specified enum class, indexed by ordinal of the corresponding enum constant
+    */
+    private ConfigKey[] initializeConfigKeys() {
+        Object[] enumConstants = keyEnumClass.getEnumConstants();
+        ConfigKey[] configKeys = getGeneratedConfigKeys(enumConstants.length);
+        if (configKeys == null) {
+            configKeys = new ConfigKey[enumConstants.length];
+            for (int i = 0; i < enumConstants.length; i++) {
+                configKeys[i] = new ConfigKey(enumConstants[i]);
             }
         }
+        if (configKeys.length == 0) {
+            throw new InvalidEnumException("Enum " + keyEnumClass.getName() + " does not have any constant defined");
+        }
+        return configKeys;
     }
 
     /*
-    Logic summary:
-    1. Ignore if line is empty or is a comment line (i.e. starts with "#")
-    2. If line does not contain "=", it must be part of multi-lined VALUE for previous KEY, so record this line into VALUE gathered for previous KEY
-    3. If "=" is present, invoke method for extracting key-value pair and updating value gathered for last configuration
+    Config keys from the class generated at compile time for an enum annotated with ConfigKeys. Null if the enum is not annotated, or the
+    class is not generated (e.g. annotation processing was disabled) or was generated for a different version of the enum
     */
-    private void parseLine(String line) {
-        if (isCommentOrBlank(line)) {
-            logger.trace("Ignoring line: {}", line);
-        } else if (!line.contains(KEY_VALUE_SEPARATOR)) {
-            // This must be part of the multi-line value
-            logger.trace("Appending ({}) to multilined value", line);
-            previousValue.append("\n").append(line);
-        } else {
-            logger.trace("Extracting key-value pair from {}", line);
-            extractKeyValueAndUpdateConfigSoFar(line);
+    private ConfigKey[] getGeneratedConfigKeys(int constantCount) {
+        if (!keyEnumClass.isAnnotationPresent(ConfigKeys.class)) {
+            return null;
+        }
+        String enumName = keyEnumClass.getName();
+        String tableName = getGeneratedClassName(keyEnumClass, "_ConfigKeyTable");
+        try {
+            Class<?> tableClass = Class.forName(tableName, true, keyEnumClass.getClassLoader());
+            ConfigKey[] configKeys = ((ConfigKeyTable) tableClass.getConstructor().newInstance()).getConfigKeys();
+            if (configKeys.length == constantCount) {
+                return configKeys;
+            }
+            logger.warn("{} does not match the constants of {}, using reflection instead", tableName, enumName);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Cannot use " + tableName + " generated for " + enumName + ", using reflection instead", e);
         }
+        return null;
     }
 
     /*
-    An empty line or a line starting with "#" character is treated as a commented line
+    Name the annotation processors give to the class generated for specified type, i.e. name of the type in the same package with given
+    suffix appended, and with "_" in place of "$" for a nested type
     */
-    private boolean isCommentOrBlank(String line) {
-        return line.isEmpty() || line.startsWith("#");
+    static String getGeneratedClassName(Class<?> type, String suffix) {
+        String typeName = type.getName();
+        int packageEnd = typeName.lastIndexOf('.');
+        return typeName.substring(0, packageEnd + 1) + typeName.substring(packageEnd + 1).replace('$', '_') + suffix;
     }
 
     /*
-    Extract KEY and VALUE from line in the format of "KEY = VALUE". Then update value gathered for last (i.e. previous) key and mark current key
-    and value as previous key and value (so that it is updated when next "KEY = VALUE" is found)
+    Read all the sources and update the given Properties instance with the value of each key from the source having highest precedence for it.
+    Multiple sources are read concurrently, but the values are taken over in the order of precedence. A file is parsed as bytes, and a
+    large file is parsed in chunks on the fork/join pool, if enabled. If the content of the sources is given, it is parsed instead of
+    reading the sources again
     */
-    private void extractKeyValueAndUpdateConfigSoFar(String line) {
-        String[] fields = line.split(KEY_VALUE_SEPARATOR);
-        if (!isFieldsValid(fields)) {
-            throw new InvalidConfigException("Contains invalid line (" + line + ")");
+    private void readSources(Properties properties, Map<String, ConfigKey> configKeyMap, List<SourceContent> contents) {
+        final ForkJoinPool pool = parsingPool;
+        List<ConfigSource> sources;
+        if (contents == null) {
+            sources = expandSources();
+        } else {
+            sources = new ArrayList<ConfigSource>(contents.size());
+            for (SourceContent content : contents) {
+                sources.add(content.getSource());
+            }
         }
-        // It is important here to trim, otherwise the key would not be found in the configKeys map due to any whitespace present
-        String key = fields[0].trim();
-        String val = fields[1].trim();
-        updateConfigSoFar();
-        synchronized(this){
-            previousKey = key;
-            previousValue = new StringBuilder().append(val);
+        List<Map<String, String>> sourceValues = new ArrayList<Map<String, String>>();
+        if (sources.size() == 1) {
+            sourceValues.add(read(sources.get(0), contents == null ? null : contents.get(0), pool));
+        } else if (sources.size() > 1) {
+            List<ForkJoinTask<Map<String, String>>> tasks = new ArrayList<ForkJoinTask<Map<String, String>>>();
+            ForkJoinPool readingPool = pool == null ? ForkJoinPool.commonPool() : pool;
+            for (int i = 0; i < sources.size(); i++) {
+                final ConfigSource source = sources.get(i);
+                final SourceContent content = contents == null ? null : contents.get(i);
+                tasks.add(readingPool.submit(new Callable<Map<String, String>>() {
+                    @Override
+                    public Map<String, String> call() {
+                        return read(source, content, pool);
+                    }
+                }));
+            }
+            for (ForkJoinTask<Map<String, String>> task : tasks) {
+                sourceValues.add(task.join());
+            }
+        }
+        for (int i = 0; i < sources.size(); i++) {
+            ConfigSource source = sources.get(i);
+            for (Map.Entry<String, String> entry : sourceValues.get(i).entrySet()) {
+                updateRepository(properties, configKeyMap, source, entry.getKey(), entry.getValue());
+            }
         }
     }
 
-    private boolean isFieldsValid(String[] fields) {
-        return fields.length == 2 && !fields[0].isEmpty();
+    /*
+    Every fragment in a directory is a source by itself, so that fragments are read concurrently and are reported as the source
+    */
+    private List<ConfigSource> expandSources() {
+        List<ConfigSource> expanded = new ArrayList<ConfigSource>();
+        for (ConfigSource source : sources) {
+            if (source instanceof ConfigSources.DirectorySource) {
+                expanded.addAll(((ConfigSources.DirectorySource) source).listFragments());
+            } else {
+                expanded.add(source);
+            }
+        }
+        return expanded;
     }
 
-    private synchronized void updateConfigSoFar() {
-        if (previousKey != null && !previousKey.isEmpty()) {
-            updateRepository(previousKey, previousValue.toString());
+    private static Map<String, String> read(ConfigSource source, SourceContent content, ForkJoinPool parsingPool) {
+        if (content != null) {
+            logger.debug("Parsing config source {} read earlier", source.getName());
+            return content.getValues(parsingPool);
         }
+        logger.debug("Reading config source {}", source.getName());
+        if (source instanceof ConfigSources.FileSource) {
+            return ((ConfigSources.FileSource) source).read(parsingPool);
+        }
+        return source.read();
     }
 
-    private void updateRepository(String keyName, String value) {
-        if (!configKeyMap.containsKey(keyName)) {
-            throw new InvalidConfigException("Unrecongnized configuration key (" + keyName + ")");
+    private static void updateRepository(Properties properties, Map<String, ConfigKey> configKeyMap, ConfigSource source, String keyName,
+            String value) {
+        ConfigKey configKey = configKeyMap.get(keyName);
+        if (configKey == null) {
+            if (source.isStrict()) {
+                throw new InvalidConfigException("Unrecongnized configuration key (" + keyName + ") in " + source.getName());
+            }
+            return;
         }
-        properties.update(configKeyMap.get(keyName), value);
+        properties.update(configKey, value, source.getName());
     }
-}
\ No newline at end of file
+}
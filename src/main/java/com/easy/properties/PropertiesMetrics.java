@@ -0,0 +1,217 @@
+package com.easy.properties;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This thread-safe class keeps the measurements of loading and reading the configuration for the keys of an enum, and exposes them
+ * through JMX once registered with {@link #register()} <br>
+ * The read count of every key is kept in a striped counter ({@link LongAdder}), so that threads reading the values concurrently do not
+ * contend with each other. The read counts tell the keys read most often, whose values are worth declaring the {@code type} of (or
+ * binding to an interface), and the keys never read, which may be dropped from the enum
+ *
+ * @author himanshu_shekhar
+ */
+public class PropertiesMetrics implements ConfigMetrics, PropertiesMetricsMBean {
+    private static final ConfigMetrics.LoadPhase[] PHASES = ConfigMetrics.LoadPhase.values();
+    private static final ConfigMetrics.Fallback[] FALLBACKS = ConfigMetrics.Fallback.values();
+
+    private final Class<? extends Enum> keyEnumClass;
+    private final Enum[] keys;
+    private final LongAdder[] readCounts;
+    private final LongAdder[] fallbackCounts;
+    private final LongAdder[] totalLoadNanos;
+    private final AtomicLongArray lastLoadNanos;
+    private final LongAdder loadCount;
+
+    private volatile ObjectName objectName;
+
+    /**
+     * @param keyEnumClass The enum class defining the keys, same as the one the configuration is loaded for
+     */
+    public PropertiesMetrics(Class<? extends Enum> keyEnumClass) {
+        this.keyEnumClass = keyEnumClass;
+        this.keys = keyEnumClass.getEnumConstants();
+        this.readCounts = newCounters(keys.length);
+        this.fallbackCounts = newCounters(FALLBACKS.length);
+        this.totalLoadNanos = newCounters(PHASES.length);
+        this.lastLoadNanos = new AtomicLongArray(PHASES.length);
+        this.loadCount = new LongAdder();
+    }
+
+    private static LongAdder[] newCounters(int count) {
+        LongAdder[] counters = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    @Override
+    public void phaseCompleted(ConfigMetrics.LoadPhase phase, long elapsedNanos) {
+        if (phase == PHASES[0]) {
+            loadCount.increment();
+        }
+        totalLoadNanos[phase.ordinal()].add(elapsedNanos);
+        lastLoadNanos.set(phase.ordinal(), elapsedNanos);
+    }
+
+    @Override
+    public void fallbackUsed(Enum key, ConfigMetrics.Fallback fallback) {
+        fallbackCounts[fallback.ordinal()].increment();
+    }
+
+    @Override
+    public void keyRead(Enum key) {
+        readCounts[key.ordinal()].increment();
+    }
+
+    /**
+     * @param key The key whose read count is needed
+     * @return Number of times the value of specified key was read
+     */
+    public long getReadCount(Enum key) {
+        if (key.getDeclaringClass() != keyEnumClass) {
+            throw new IllegalArgumentException("Key " + key.name() + " does not belong to " + keyEnumClass.getName());
+        }
+        return readCounts[key.ordinal()].sum();
+    }
+
+    /**
+     * @param fallback Where the values are taken from
+     * @return Number of values (and variables substituted in values) taken from specified fallback over all the loads
+     */
+    public long getFallbackCount(ConfigMetrics.Fallback fallback) {
+        return fallbackCounts[fallback.ordinal()].sum();
+    }
+
+    /**
+     * @param phase The phase of loading
+     * @return Time in nanoseconds taken by specified phase of the latest load
+     */
+    public long getLastLoadNanos(ConfigMetrics.LoadPhase phase) {
+        return lastLoadNanos.get(phase.ordinal());
+    }
+
+    @Override
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    @Override
+    public Map<String, Long> getLastLoadNanos() {
+        Map<String, Long> nanos = new LinkedHashMap<String, Long>();
+        for (ConfigMetrics.LoadPhase phase : PHASES) {
+            nanos.put(phase.name(), lastLoadNanos.get(phase.ordinal()));
+        }
+        return nanos;
+    }
+
+    @Override
+    public Map<String, Long> getTotalLoadNanos() {
+        Map<String, Long> nanos = new LinkedHashMap<String, Long>();
+        for (ConfigMetrics.LoadPhase phase : PHASES) {
+            nanos.put(phase.name(), totalLoadNanos[phase.ordinal()].sum());
+        }
+        return nanos;
+    }
+
+    @Override
+    public Map<String, Long> getFallbackCounts() {
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (ConfigMetrics.Fallback fallback : FALLBACKS) {
+            counts.put(fallback.name(), fallbackCounts[fallback.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public long getReadCount() {
+        long count = 0;
+        for (LongAdder readCount : readCounts) {
+            count += readCount.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> getReadCounts() {
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < keys.length; i++) {
+            counts.put(keys[i].name(), readCounts[i].sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public String[] getUnreadKeys() {
+        List<String> unreadKeys = new ArrayList<String>();
+        for (int i = 0; i < keys.length; i++) {
+            if (readCounts[i].sum() == 0) {
+                unreadKeys.add(keys[i].name());
+            }
+        }
+        return unreadKeys.toArray(new String[unreadKeys.size()]);
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder readCount : readCounts) {
+            readCount.reset();
+        }
+        for (LongAdder fallbackCount : fallbackCounts) {
+            fallbackCount.reset();
+        }
+        for (int i = 0; i < PHASES.length; i++) {
+            totalLoadNanos[i].reset();
+            lastLoadNanos.set(i, 0);
+        }
+        loadCount.reset();
+    }
+
+    /**
+     * Registers this instance with the platform MBean server, under the name
+     * {@code com.easy.properties:type=PropertiesMetrics,name=<enum class name>}
+     *
+     * @return The name this instance is registered under
+     * @throws IllegalStateException If the instance cannot be registered, e.g. another one is registered for the same enum already
+     */
+    public synchronized ObjectName register() {
+        if (objectName != null) {
+            return objectName;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName("com.easy.properties:type=PropertiesMetrics,name=" + ObjectName.quote(keyEnumClass.getName()));
+            server.registerMBean(this, name);
+            objectName = name;
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics MBean for " + keyEnumClass.getName(), e);
+        }
+    }
+
+    /**
+     * Unregisters this instance from the platform MBean server, if it is registered
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister metrics MBean " + objectName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+}
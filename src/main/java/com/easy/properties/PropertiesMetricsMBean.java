@@ -0,0 +1,52 @@
+package com.easy.properties;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link PropertiesMetrics}, through which the measurements are exposed over JMX
+ *
+ * @author himanshu_shekhar
+ */
+public interface PropertiesMetricsMBean {
+
+    /**
+     * @return Number of times the configuration was loaded (or reloaded) from its sources
+     */
+    long getLoadCount();
+
+    /**
+     * @return Time in nanoseconds taken by each phase (see {@link ConfigMetrics.LoadPhase}) of the latest load, by name of the phase
+     */
+    Map<String, Long> getLastLoadNanos();
+
+    /**
+     * @return Time in nanoseconds taken by each phase (see {@link ConfigMetrics.LoadPhase}) of all the loads together, by name of the phase
+     */
+    Map<String, Long> getTotalLoadNanos();
+
+    /**
+     * @return Number of values (and variables substituted in values) taken from elsewhere than the sources over all the loads, by name
+     * of the fallback (see {@link ConfigMetrics.Fallback})
+     */
+    Map<String, Long> getFallbackCounts();
+
+    /**
+     * @return Total number of values read
+     */
+    long getReadCount();
+
+    /**
+     * @return Number of times the value of each key was read, by name of the enum constant
+     */
+    Map<String, Long> getReadCounts();
+
+    /**
+     * @return Names of the enum constants whose value was never read, which may be keys no longer in use
+     */
+    String[] getUnreadKeys();
+
+    /**
+     * Resets all the counters and timings to zero
+     */
+    void reset();
+}
@@ -0,0 +1,182 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidConfigException;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class watches a configuration property file, and reloads the {@link Properties} instance whenever the file changes <br>
+ * The file is reloaded in a background (daemon) thread. Values are switched over to the reloaded ones all at once, so that readers of the
+ * Properties instance never block and never see a partly applied file. If the changed file cannot be loaded, the values loaded last are
+ * retained and the error is logged, and is also available through {@link #getLastReloadError()} <br>
+ * Editors and deployment tools often write a file in several steps, so the file is reloaded only once it has not changed for a short
+ * while, and the change listeners of the Properties instance are notified once for all those writes <br>
+ * If the configuration is loaded from multiple files, all of them are watched and a change to any of them reloads the configuration. For a
+ * directory of configuration fragments, addition and removal of a fragment reloads the configuration as well <br>
+ * An instance is obtained through {@link PropertiesLoader#watch()}, and must be closed once the file need not be watched anymore
+ *
+ * @author himanshu_shekhar
+ */
+public final class PropertiesWatcher implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PropertiesWatcher.class);
+    // Time for which file must not change before it is reloaded
+    static final long QUIET_PERIOD_MILLIS = 100;
+    // Time for which reload can be put off by the file changing again and again, after which it is reloaded anyway
+    static final long MAX_SETTLE_MILLIS = 10 * QUIET_PERIOD_MILLIS;
+
+    private final PropertiesLoader loader;
+    private final Set<Path> configFiles;
+    private final Map<Path, ConfigSources.DirectorySource> configDirectories;
+    // Files and directories being watched, for logging
+    private final String watchedPaths;
+    private final Properties properties;
+    private final WatchService watchService;
+    private final Thread watcherThread;
+
+    private volatile RuntimeException lastReloadError;
+
+    PropertiesWatcher(PropertiesLoader loader, List<File> configFiles, List<ConfigSources.DirectorySource> configDirectories, Properties properties) {
+        this.loader = loader;
+        this.configFiles = new HashSet<Path>();
+        for (File configFile : configFiles) {
+            this.configFiles.add(configFile.getAbsoluteFile().toPath());
+        }
+        this.configDirectories = new HashMap<Path, ConfigSources.DirectorySource>();
+        for (ConfigSources.DirectorySource configDirectory : configDirectories) {
+            this.configDirectories.put(configDirectory.getDirectory().getAbsoluteFile().toPath(), configDirectory);
+        }
+        this.properties = properties;
+        Set<Object> watched = new HashSet<Object>(this.configFiles);
+        watched.addAll(configDirectories);
+        this.watchedPaths = watched.toString();
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new InvalidConfigException("Cannot watch config files " + watchedPaths, e);
+        }
+        // A file cannot be watched by itself, so its directory is watched and events for other files are ignored. Creation of the file is
+        // also watched, since editors often save the file by replacing it with a new one. Deletion matters for fragments in a directory
+        Set<Path> directories = new HashSet<Path>(this.configDirectories.keySet());
+        for (Path configFile : this.configFiles) {
+            directories.add(configFile.getParent());
+        }
+        for (Path directory : directories) {
+            try {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            } catch (IOException e) {
+                close();
+                throw new InvalidConfigException("Cannot watch config directory " + directory, e);
+            }
+        }
+        this.watcherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "properties-watcher-" + (configFiles.isEmpty() ? configDirectories.get(0).getDirectory() : configFiles.get(0)).getName());
+        this.watcherThread.setDaemon(true);
+    }
+
+    void start() {
+        watcherThread.start();
+    }
+
+    private void watch() {
+        logger.debug("Watching config files {}", watchedPaths);
+        try {
+            while (true) {
+                if (!isChanged(watchService.take())) {
+                    continue;
+                }
+                // Wait for the writes to settle, so that the file is reloaded only once for the changes made in quick succession. Changes to
+                // other files in the directory do not put off the reload, and a file changing all the time puts it off only for a while
+                long now = System.nanoTime();
+                long quietUntil = now + TimeUnit.MILLISECONDS.toNanos(QUIET_PERIOD_MILLIS);
+                long settleUntil = now + TimeUnit.MILLISECONDS.toNanos(MAX_SETTLE_MILLIS);
+                long wait;
+                while ((wait = Math.min(quietUntil, settleUntil) - System.nanoTime()) > 0) {
+                    WatchKey watchKey = watchService.poll(wait, TimeUnit.NANOSECONDS);
+                    if (watchKey != null && isChanged(watchKey)) {
+                        quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(QUIET_PERIOD_MILLIS);
+                    }
+                }
+                reload();
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Stopped watching config files {}", watchedPaths);
+        } catch (InterruptedException e) {
+            logger.debug("Interrupted while watching config files {}", watchedPaths);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isChanged(WatchKey watchKey) {
+        boolean changed = false;
+        Path directory = (Path) watchKey.watchable();
+        ConfigSources.DirectorySource configDirectory = configDirectories.get(directory);
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true;
+            } else {
+                Path fileName = (Path) event.context();
+                changed |= configFiles.contains(directory.resolve(fileName)) || (configDirectory != null && configDirectory.matches(fileName));
+            }
+        }
+        watchKey.reset();
+        return changed;
+    }
+
+    private void reload() {
+        logger.info("Reloading changed config files {}", watchedPaths);
+        try {
+            loader.reload(properties);
+            lastReloadError = null;
+        } catch (RuntimeException e) {
+            logger.error("Cannot reload config files " + watchedPaths + ", retaining the values loaded last", e);
+            lastReloadError = e;
+        }
+    }
+
+    /**
+     * @return The Properties instance which is reloaded whenever the configuration property file changes
+     */
+    public Properties getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return Error encountered while reloading the configuration property file last time, or null if it was reloaded successfully
+     */
+    public RuntimeException getLastReloadError() {
+        return lastReloadError;
+    }
+
+    /**
+     * Stops watching the configuration property file. The Properties instance retains the values loaded last
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close the watch service for config files " + watchedPaths, e);
+        }
+    }
+}
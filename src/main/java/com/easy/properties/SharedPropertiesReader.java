@@ -0,0 +1,136 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidConfigException;
+import java.io.Closeable;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class provides the configuration published by another process through {@link PropertiesLoader#setSharedSnapshot(String)},
+ * so that the processes on a host reading the same configuration do not have to load it (i.e. parse the sources, reflect on the enum and
+ * resolve the variables) themselves <br>
+ * The shared snapshot file is polled in a background (daemon) thread, and whenever the publishing process publishes the configuration
+ * again (e.g. on reloading it), the values are switched over to the new ones all at once, like they are for
+ * {@link PropertiesWatcher}. The change listeners and the bound interfaces of the Properties instance are updated as well. If the published
+ * configuration cannot be read, the values read last are retained and the error is logged, and is also available through
+ * {@link #getLastReadError()} <br>
+ * The values are taken over as resolved by the publishing process, except that an empty value is looked up in the system properties and
+ * environment variables of this process <br>
+ * An instance is obtained through {@link PropertiesLoader#readShared(String, Class)}, and must be closed once the configuration need not be
+ * read anymore
+ *
+ * @author himanshu_shekhar
+ */
+public final class SharedPropertiesReader implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SharedPropertiesReader.class);
+    // Time between two checks for the configuration published again
+    static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final SharedSnapshotFile sharedFile;
+    private final Properties properties;
+    private final Thread readerThread;
+
+    private volatile long sequence;
+    private volatile boolean closed;
+    private volatile RuntimeException lastReadError;
+
+    SharedPropertiesReader(SharedSnapshotFile sharedFile) {
+        this.sharedFile = sharedFile;
+        this.properties = new Properties();
+        String path = sharedFile.getFile().getAbsolutePath();
+        try {
+            SharedSnapshotFile.Published published = sharedFile.read();
+            if (published == null) {
+                throw new InvalidConfigException("No configuration is published in shared snapshot " + path);
+            }
+            properties.restore(published.getSnapshot());
+            this.sequence = published.getSequence();
+        } catch (IOException e) {
+            sharedFile.close();
+            throw new InvalidConfigException("Cannot read shared config snapshot " + path, e);
+        } catch (RuntimeException e) {
+            sharedFile.close();
+            throw e;
+        }
+        this.readerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                poll();
+            }
+        }, "properties-shared-" + sharedFile.getFile().getName());
+        this.readerThread.setDaemon(true);
+    }
+
+    void start() {
+        readerThread.start();
+    }
+
+    private void poll() {
+        logger.debug("Reading shared config snapshot {}", sharedFile.getFile().getAbsolutePath());
+        try {
+            while (!closed) {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+                read();
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Stopped reading shared config snapshot {}", sharedFile.getFile().getAbsolutePath());
+        }
+    }
+
+    /*
+    Take over the configuration if it has been published again since it was read last
+    */
+    private void read() {
+        String path = sharedFile.getFile().getAbsolutePath();
+        try {
+            if (sharedFile.getPublishedSequence() == sequence) {
+                return;
+            }
+            logger.info("Reading configuration published again in {}", path);
+            // The sequence number is taken from the slot actually read, since the configuration may be published again meanwhile
+            SharedSnapshotFile.Published published = sharedFile.read();
+            if (published == null) {
+                throw new InvalidConfigException("Cannot read configuration published in shared snapshot " + path);
+            }
+            Properties reloaded = new Properties();
+            reloaded.restore(published.getSnapshot());
+            properties.publish(reloaded);
+            sequence = published.getSequence();
+            lastReadError = null;
+        } catch (IOException e) {
+            if (closed) {
+                return;
+            }
+            logger.error("Cannot read shared config snapshot " + path + ", retaining the values read last", e);
+            lastReadError = new InvalidConfigException("Cannot read shared config snapshot " + path, e);
+        } catch (RuntimeException e) {
+            logger.error("Cannot read shared config snapshot " + path + ", retaining the values read last", e);
+            lastReadError = e;
+        }
+    }
+
+    /**
+     * @return The Properties instance which is updated whenever the configuration is published again
+     */
+    public Properties getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return Error encountered while reading the configuration published last time, or null if it was read successfully
+     */
+    public RuntimeException getLastReadError() {
+        return lastReadError;
+    }
+
+    /**
+     * Stops reading the shared snapshot file. The Properties instance retains the values read last
+     */
+    @Override
+    public void close() {
+        closed = true;
+        readerThread.interrupt();
+        sharedFile.close();
+    }
+}
@@ -0,0 +1,248 @@
+package com.easy.properties;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class lays out the configuration published by one process in a memory mapped file, to be read by other processes on the same host
+ * without loading the configuration themselves <br>
+ * The file has a header followed by two slots, each of which can hold a snapshot encoded through {@link SnapshotCodec}:
+ * <ul>
+ *    <li>Header: magic number, layout version, sequence number of the snapshot published last and capacity of a slot</li>
+ *    <li>Slot: sequence number of the snapshot in it, length of the snapshot and the snapshot itself</li>
+ * </ul>
+ * Snapshots are published in alternate slots, so the one published last stays intact while the next one is being written. The header
+ * is updated only after the slot is written, and a reader verifies after copying a slot that it still has the same sequence number,
+ * retrying otherwise. Since the encoded snapshot ends with its CRC, a copy which is still inconsistent is discarded while decoding, so
+ * a reader never sees a partly published snapshot. A slot grows (along with the file) if a snapshot does not fit in it, but the file
+ * never shrinks, so that it is always safe to access for the readers having it mapped. Growing moves the second slot, so the snapshot
+ * that does not fit is always written in the second slot, past the end of both the slots as they were (skipping a sequence number if
+ * the snapshot published last is in the second slot), which keeps the snapshot published last intact for the readers still reading it
+ * <br>
+ * Publishers of the same file take turns through a file lock, whereas the readers never lock
+ *
+ * @author himanshu_shekhar
+ */
+final class SharedSnapshotFile implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SharedSnapshotFile.class);
+
+    private static final int MAGIC = 0x45505348;
+    private static final int LAYOUT_VERSION = 1;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int HEADER_SIZE = 32;
+    private static final int LENGTH_OFFSET = 8;
+    private static final int SLOT_HEADER_SIZE = 16;
+    private static final int MIN_CAPACITY = 64 * 1024;
+    // Sequence number of a slot being written
+    private static final long WRITING = -1;
+    private static final int READ_ATTEMPTS = 3;
+
+    private final File file;
+    private final SnapshotCodec codec;
+
+    // Used by the reader only, the channel being opened on first read
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private boolean closed;
+
+    SharedSnapshotFile(File file, SnapshotCodec codec) {
+        this.file = file;
+        this.codec = codec;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    private static long getSlotOffset(long sequence, int capacity) {
+        return HEADER_SIZE + (sequence & 1) * (long) (SLOT_HEADER_SIZE + capacity);
+    }
+
+    /**
+     * The file lock keeps out the other processes, and synchronizing keeps out the other threads, which the file lock would fail for
+     *
+     * @param snapshot The snapshot to publish, replacing the one published earlier (if any) for the readers
+     * @throws IOException If the file cannot be written
+     */
+    synchronized void publish(ConfigSnapshot snapshot) throws IOException {
+        byte[] content = codec.encode(snapshot, 0);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.lock();
+            try {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                long sequence = 0;
+                int capacity = 0;
+                if (header.getInt(0) == MAGIC && header.getInt(VERSION_OFFSET) == LAYOUT_VERSION) {
+                    sequence = header.getLong(SEQUENCE_OFFSET);
+                    capacity = header.getInt(CAPACITY_OFFSET);
+                }
+                long next = sequence + 1;
+                if (content.length > capacity) {
+                    // More than twice the current capacity, so that the second slot starts past the end of both the current slots
+                    capacity = Math.max(MIN_CAPACITY, Math.max(content.length * 2, capacity * 2 + SLOT_HEADER_SIZE));
+                    if ((next & 1) == 0) {
+                        next++;
+                    }
+                }
+                MappedByteBuffer slot = channel.map(FileChannel.MapMode.READ_WRITE, getSlotOffset(next, capacity), SLOT_HEADER_SIZE + capacity);
+                slot.putLong(0, WRITING);
+                slot.putInt(LENGTH_OFFSET, content.length);
+                slot.position(SLOT_HEADER_SIZE);
+                slot.put(content);
+                slot.putLong(0, next);
+
+                header.putInt(0, MAGIC);
+                header.putInt(VERSION_OFFSET, LAYOUT_VERSION);
+                header.putInt(CAPACITY_OFFSET, capacity);
+                header.putLong(SEQUENCE_OFFSET, next);
+                logger.debug("Published snapshot {} of {} bytes in {}", next, content.length, file.getAbsolutePath());
+            } finally {
+                lock.release();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return Sequence number of the snapshot published last, zero if none is published yet
+     * @throws IOException If the file cannot be read
+     */
+    synchronized long getPublishedSequence() throws IOException {
+        ByteBuffer buffer = map(HEADER_SIZE);
+        if (buffer == null || buffer.getInt(0) != MAGIC || buffer.getInt(VERSION_OFFSET) != LAYOUT_VERSION) {
+            return 0;
+        }
+        return buffer.getLong(SEQUENCE_OFFSET);
+    }
+
+    /**
+     * @return The snapshot published last along with its sequence number, null if none is published yet, or it could not be read
+     * consistently (as it was being replaced) or it was published for a different version of the enum
+     * @throws IOException If the file cannot be read
+     */
+    synchronized Published read() throws IOException {
+        for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+            long sequence = getPublishedSequence();
+            if (sequence == 0) {
+                return null;
+            }
+            ConfigSnapshot snapshot = read(sequence, mapped.getInt(CAPACITY_OFFSET));
+            if (snapshot != null) {
+                return new Published(sequence, snapshot);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Capacity of a slot as published along with the sequence number, zero if nothing is published yet
+     * @throws IOException If the file cannot be read
+     */
+    synchronized int getPublishedCapacity() throws IOException {
+        return getPublishedSequence() == 0 ? 0 : mapped.getInt(CAPACITY_OFFSET);
+    }
+
+    /**
+     * @param sequence Sequence number of the snapshot, as read from the header
+     * @param capacity Capacity of a slot, as read from the header along with the sequence number
+     * @return The snapshot having given sequence number, null if its slot has been written again since then (or is being written)
+     * @throws IOException If the file cannot be read
+     */
+    synchronized ConfigSnapshot read(long sequence, int capacity) throws IOException {
+        long slotOffset = getSlotOffset(sequence, capacity);
+        ByteBuffer buffer = map(slotOffset + SLOT_HEADER_SIZE + capacity);
+        if (buffer == null) {
+            return null;
+        }
+        int offset = (int) slotOffset;
+        int length = buffer.getInt(offset + LENGTH_OFFSET);
+        if (buffer.getLong(offset) != sequence || length < 0 || length > capacity) {
+            return null;
+        }
+        byte[] content = new byte[length];
+        ByteBuffer slot = buffer.duplicate();
+        slot.position(offset + SLOT_HEADER_SIZE);
+        slot.get(content);
+        // The slot is written again only for the snapshot published after the next one, which marks the slot before writing it
+        if (buffer.getLong(offset) != sequence) {
+            return null;
+        }
+        return codec.decode(ByteBuffer.wrap(content), file.getAbsolutePath() + "#" + sequence);
+    }
+
+    /*
+    Content of the file mapped at least up to given size, which is mapped again if the file has grown since it was mapped last. Null if
+    the file does not exist or is smaller
+    */
+    private ByteBuffer map(long size) throws IOException {
+        if (mapped != null && mapped.capacity() >= size) {
+            return mapped;
+        }
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (channel == null) {
+            if (!file.isFile()) {
+                return null;
+            }
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        long fileSize = channel.size();
+        if (fileSize < size) {
+            return null;
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        return mapped;
+    }
+
+    /**
+     * Closes the file opened for reading. The file mapped last stays mapped till it is garbage collected
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        mapped = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Cannot close shared config snapshot " + file.getAbsolutePath(), e);
+            }
+            channel = null;
+        }
+    }
+
+    /*
+    Snapshot read from a slot, along with the sequence number the slot was verified to have
+    */
+    static final class Published {
+        private final long sequence;
+        private final ConfigSnapshot snapshot;
+
+        Published(long sequence, ConfigSnapshot snapshot) {
+            this.sequence = sequence;
+            this.snapshot = snapshot;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        ConfigSnapshot getSnapshot() {
+            return snapshot;
+        }
+    }
+}
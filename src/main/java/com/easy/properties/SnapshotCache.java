@@ -0,0 +1,127 @@
+package com.easy.properties;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class keeps the configuration loaded from the sources in a binary file, so that it can be restored on next start without parsing
+ * the sources, reflecting on the enum or resolving the variables (see {@link SnapshotCodec}) <br>
+ * The file is used only if all of these are still the same:
+ * <ul>
+ *    <li>the enum, i.e. its name, its class file and number of its constants</li>
+ *    <li>content of all the sources (including the list of fragments in a directory), compared through checksum</li>
+ *    <li>the system properties and environment variables looked up while resolving the values</li>
+ * </ul>
+ * The file is replaced atomically when written, so a process starting concurrently reads either the old file or the new one, never a
+ * partly written one. A file which cannot be read (e.g. it is corrupt, or was written by another version) is ignored
+ *
+ * @author himanshu_shekhar
+ */
+final class SnapshotCache {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotCache.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File cacheFile;
+    private final SnapshotCodec codec;
+
+    SnapshotCache(File cacheFile, Class<? extends Enum> keyEnumClass) {
+        this.cacheFile = cacheFile;
+        this.codec = new SnapshotCodec(keyEnumClass);
+    }
+
+    File getFile() {
+        return cacheFile;
+    }
+
+    /*
+    The cache is not used at all if the class file of the enum cannot be read
+    */
+    boolean isUsable() {
+        return codec.isUsable();
+    }
+
+    /*
+    Checksum of the content of the sources, in the order of the sources. A file is checksummed as it is, and the other sources through
+    the values they have
+    */
+    static long checksum(List<SourceContent> contents) {
+        CRC32 crc = new CRC32();
+        long length = 0;
+        for (SourceContent content : contents) {
+            byte[] name = content.getSource().getName().getBytes(UTF_8);
+            crc.update(name);
+            length += name.length;
+            ByteBuffer fileContent = content.getFileContent();
+            if (fileContent != null) {
+                length += fileContent.remaining();
+                crc.update(fileContent.duplicate());
+            } else {
+                for (Map.Entry<String, String> entry : new TreeMap<String, String>(content.getValues(null)).entrySet()) {
+                    byte[] bytes = (entry.getKey() + '=' + entry.getValue() + '\n').getBytes(UTF_8);
+                    crc.update(bytes);
+                    length += bytes.length;
+                }
+            }
+            // Separator, so that content moved from one source to the next one changes the checksum
+            crc.update(0);
+        }
+        // Length is kept in the upper half, making a change that leaves the CRC intact even less likely to go unnoticed
+        return length << 32 ^ crc.getValue();
+    }
+
+    /**
+     * @param sourceChecksum Checksum of the sources the configuration is being loaded from
+     * @return Snapshot kept in the cache file, null if there is none or it does not match the enum, the sources or the system properties
+     * and environment variables
+     */
+    ConfigSnapshot read(long sourceChecksum) {
+        ByteBuffer content;
+        try {
+            content = ConfigFileParser.read(cacheFile);
+        } catch (NoSuchFileException e) {
+            logger.debug("Snapshot cache {} does not exist", cacheFile.getAbsolutePath());
+            return null;
+        } catch (IOException e) {
+            logger.warn("Cannot read snapshot cache " + cacheFile.getAbsolutePath(), e);
+            return null;
+        } catch (RuntimeException e) {
+            logger.warn("Cannot read snapshot cache " + cacheFile.getAbsolutePath(), e);
+            return null;
+        }
+        return codec.decode(content, cacheFile.getAbsolutePath(), sourceChecksum);
+    }
+
+    /**
+     * @param sourceChecksum Checksum of the sources the snapshot was loaded from
+     * @param snapshot The snapshot to keep in the cache file, replacing the one in it (if any)
+     * @throws IOException If the cache file cannot be written
+     */
+    void write(long sourceChecksum, ConfigSnapshot snapshot) throws IOException {
+        byte[] content = codec.encode(snapshot, sourceChecksum);
+        File directory = cacheFile.getAbsoluteFile().getParentFile();
+        File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", directory);
+        try {
+            Files.write(tempFile.toPath(), content);
+            try {
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+        logger.debug("Written snapshot cache {}", cacheFile.getAbsolutePath());
+    }
+}
@@ -0,0 +1,346 @@
+package com.easy.properties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class encodes the configuration loaded for an enum into bytes, and decodes it back without parsing the sources,
+ * reflecting on the enum or resolving the variables <br>
+ * The encoded snapshot has the config keys, the values before and after substitution, the dependencies among the keys and the typed
+ * values, preceded by fingerprint of the enum (i.e. its name and its class file) and followed by CRC of all the bytes. It is decoded only
+ * if it was encoded for the same enum, having same number of constants <br>
+ * It also has the checksum of the sources the configuration was loaded from, and the values of the system properties and environment
+ * variables looked up while resolving, so that whether these are still the same can be verified while decoding <br>
+ * A value which is to be expanded when first read (see {@link LazyValues}) is encoded only if it has been expanded already, so that
+ * encoding a snapshot does not expand the values never read. The others are expanded when first read from the decoded snapshot
+ *
+ * @author himanshu_shekhar
+ */
+final class SnapshotCodec {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotCodec.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int MAGIC = 0x45505343;
+    private static final int FORMAT_VERSION = 2;
+    // Types a key can declare, written as index in this array. The parsed values are written with index of their primitive type
+    private static final Class<?>[] TYPES = {String.class, byte.class, Byte.class, short.class, Short.class, int.class, Integer.class,
+            char.class, Character.class, long.class, Long.class, float.class, Float.class, double.class, Double.class, boolean.class,
+            Boolean.class};
+    private static final int NO_TYPE = -1;
+    private static final int NULL_LENGTH = -1;
+
+    private final Class<? extends Enum> keyEnumClass;
+    // Zero if the class file of the enum cannot be read, in which case nothing can be encoded for the enum
+    private final long enumFingerprint;
+
+    SnapshotCodec(Class<? extends Enum> keyEnumClass) {
+        this.keyEnumClass = keyEnumClass;
+        this.enumFingerprint = fingerprint(keyEnumClass);
+    }
+
+    boolean isUsable() {
+        return enumFingerprint != 0;
+    }
+
+    /*
+    Name of the enum along with content of its class file, so that any change in the keys (or in their key name, default value etc.)
+    changes the fingerprint
+    */
+    private static long fingerprint(Class<? extends Enum> keyEnumClass) {
+        String className = keyEnumClass.getName();
+        InputStream in = keyEnumClass.getResourceAsStream(className.substring(className.lastIndexOf('.') + 1) + ".class");
+        if (in == null) {
+            logger.debug("Class file of {} not found, snapshot cannot be encoded", className);
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(className.getBytes(UTF_8));
+        try {
+            try {
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = in.read(buffer)) >= 0) {
+                    crc.update(buffer, 0, count);
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Cannot read class file of " + className + ", snapshot cannot be encoded", e);
+            return 0;
+        }
+        // Never zero, which stands for the fingerprint not being available
+        return crc.getValue() | 1L << 32;
+    }
+
+    /**
+     * @param content Encoded snapshot, along with the fingerprint of the enum it was encoded for
+     * @param description Description of where the content is read from, for logging
+     * @return Snapshot decoded from the content, null if it was encoded for a different version of the enum or in a different format
+     */
+    ConfigSnapshot decode(ByteBuffer content, String description) {
+        return decode(content, description, false, 0);
+    }
+
+    /**
+     * @param content Encoded snapshot, along with the fingerprint of the enum and the checksum of the sources it was encoded for
+     * @param description Description of where the content is read from, for logging
+     * @param sourceChecksum Checksum of the sources the configuration is being loaded from
+     * @return Snapshot decoded from the content, null if it was encoded for a different version of the enum, in a different format, for
+     * different content of the sources or with different values of the system properties and environment variables it refers to
+     */
+    ConfigSnapshot decode(ByteBuffer content, String description, long sourceChecksum) {
+        return decode(content, description, true, sourceChecksum);
+    }
+
+    private ConfigSnapshot decode(ByteBuffer content, String description, boolean matchSources, long sourceChecksum) {
+        try {
+            return decodeContent(content.duplicate(), description, matchSources, sourceChecksum);
+        } catch (BufferUnderflowException e) {
+            logger.warn("Snapshot {} is truncated, ignoring it", description);
+            return null;
+        } catch (RuntimeException e) {
+            logger.warn("Snapshot " + description + " is corrupt, ignoring it", e);
+            return null;
+        }
+    }
+
+    private ConfigSnapshot decodeContent(ByteBuffer content, String description, boolean matchSources, long sourceChecksum) {
+        if (content.remaining() < 4 || !hasValidCrc(content)) {
+            logger.warn("Snapshot {} is corrupt, ignoring it", description);
+            return null;
+        }
+        if (content.getInt() != MAGIC || content.getInt() != FORMAT_VERSION) {
+            logger.info("Snapshot {} is not in the expected format, ignoring it", description);
+            return null;
+        }
+        if (content.getLong() != enumFingerprint) {
+            logger.info("Snapshot {} was written for a different version of {}", description, keyEnumClass.getName());
+            return null;
+        }
+        long checksum = content.getLong();
+        if (matchSources && checksum != sourceChecksum) {
+            logger.info("Config sources have changed since snapshot {} was written", description);
+            return null;
+        }
+        int externalCount = content.getInt();
+        for (int i = 0; i < externalCount; i++) {
+            String name = getString(content);
+            String propertyValue = getString(content);
+            String environmentValue = getString(content);
+            if (matchSources && (!equals(propertyValue, System.getProperty(name)) || !equals(environmentValue, System.getenv(name)))) {
+                logger.info("System property or environment variable {} has changed since snapshot {} was written", name,
+                        description);
+                return null;
+            }
+        }
+
+        int keyCount = content.getInt();
+        if (keyCount != keyEnumClass.getEnumConstants().length) {
+            logger.info("Snapshot {} was written for a different version of {}", description, keyEnumClass.getName());
+            return null;
+        }
+        ConfigKey[] configKeys = new ConfigKey[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            String keyName = getString(content);
+            boolean mandatory = content.get() != 0;
+            String defaultValue = getString(content);
+            configKeys[i] = new ConfigKey(keyName, mandatory, defaultValue, TYPES[content.get()]);
+        }
+        String[] rawValues = new String[keyCount];
+        String[] sourceNames = new String[keyCount];
+        String[] values = new String[keyCount];
+        int[][] dependencies = new int[keyCount][];
+        for (int i = 0; i < keyCount; i++) {
+            rawValues[i] = getString(content);
+            sourceNames[i] = getString(content);
+            values[i] = getString(content);
+            dependencies[i] = new int[content.getInt()];
+            for (int j = 0; j < dependencies[i].length; j++) {
+                dependencies[i][j] = content.getInt();
+            }
+        }
+
+        Class<?>[] parsedTypes = new Class<?>[keyCount];
+        int[] intValues = new int[keyCount];
+        long[] longValues = new long[keyCount];
+        double[] doubleValues = new double[keyCount];
+        BitSet booleanValues = new BitSet(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            byte typeIndex = content.get();
+            Class<?> type = typeIndex == NO_TYPE ? null : TYPES[typeIndex];
+            parsedTypes[i] = type;
+            if (type == long.class) {
+                longValues[i] = content.getLong();
+            } else if (type == float.class || type == double.class) {
+                doubleValues[i] = content.getDouble();
+            } else if (type == boolean.class) {
+                booleanValues.set(i, content.get() != 0);
+            } else if (type != null) {
+                intValues[i] = content.getInt();
+            }
+        }
+
+        DependencyGraph dependencyGraph = new DependencyGraph(keyEnumClass, configKeys, dependencies);
+        return new ConfigSnapshot(keyEnumClass, configKeys, rawValues, sourceNames, values, dependencyGraph, parsedTypes, intValues,
+                longValues, doubleValues, booleanValues);
+    }
+
+    /*
+    The last four bytes are CRC of all the bytes before them
+    */
+    private static boolean hasValidCrc(ByteBuffer content) {
+        ByteBuffer payload = content.duplicate();
+        payload.limit(content.limit() - 4);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == content.getInt(content.limit() - 4);
+    }
+
+    private static String getString(ByteBuffer content) {
+        int length = content.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        content.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * @param snapshot The snapshot to encode
+     * @param sourceChecksum Checksum of the sources the snapshot was loaded from
+     * @return Snapshot encoded along with the fingerprint of the enum, the checksum and the values of the system properties and
+     * environment variables it refers to, followed by CRC of all of these
+     */
+    byte[] encode(ConfigSnapshot snapshot, long sourceChecksum) {
+        try {
+            return encode(snapshot, sourceChecksum, new ByteArrayOutputStream());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode snapshot in memory", e);
+        }
+    }
+
+    private byte[] encode(ConfigSnapshot snapshot, long sourceChecksum, ByteArrayOutputStream bytes) throws IOException {
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(enumFingerprint);
+        out.writeLong(sourceChecksum);
+        Set<String> externals = getExternalNames(snapshot);
+        out.writeInt(externals.size());
+        for (String name : externals) {
+            putString(out, name);
+            putString(out, System.getProperty(name));
+            putString(out, System.getenv(name));
+        }
+
+        ConfigKey[] configKeys = snapshot.getConfigKeys();
+        out.writeInt(configKeys.length);
+        for (ConfigKey configKey : configKeys) {
+            putString(out, configKey.getKeyName());
+            out.writeByte(configKey.isMandatory() ? 1 : 0);
+            putString(out, configKey.getDefaultValue());
+            out.writeByte(indexOf(configKey.getType()));
+        }
+        DependencyGraph dependencyGraph = snapshot.getDependencyGraph();
+        for (int i = 0; i < configKeys.length; i++) {
+            putString(out, snapshot.getRawValue(i));
+            putString(out, snapshot.getSourceName(i));
+            putString(out, snapshot.getExpandedValue(i));
+            int[] dependencies = dependencyGraph.getDependencies(i);
+            out.writeInt(dependencies.length);
+            for (int dependency : dependencies) {
+                out.writeInt(dependency);
+            }
+        }
+        for (int i = 0; i < configKeys.length; i++) {
+            Class<?> type = snapshot.getParsedType(i);
+            out.writeByte(type == null ? NO_TYPE : indexOf(type));
+            if (type == long.class) {
+                out.writeLong(snapshot.getLongValue(i));
+            } else if (type == float.class || type == double.class) {
+                out.writeDouble(snapshot.getDoubleValue(i));
+            } else if (type == boolean.class) {
+                out.writeByte(snapshot.getBooleanValue(i) ? 1 : 0);
+            } else if (type != null) {
+                out.writeInt(snapshot.getIntValue(i));
+            }
+        }
+        out.flush();
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /*
+    Names looked up in the system properties and environment variables while loading, i.e. the keys with empty value and the variables
+    not referring to a key with non-empty value. Values not expanded yet are skipped, since their lookup happens when they are expanded
+    */
+    private static Set<String> getExternalNames(ConfigSnapshot snapshot) {
+        ConfigKey[] configKeys = snapshot.getConfigKeys();
+        Map<String, Integer> indexByKeyName = new HashMap<String, Integer>(configKeys.length * 2);
+        for (int i = 0; i < configKeys.length; i++) {
+            indexByKeyName.put(configKeys[i].getKeyName(), i);
+        }
+        Set<String> names = new TreeSet<String>();
+        ValueTemplate[] templates = snapshot.getTemplates();
+        for (int i = 0; i < configKeys.length; i++) {
+            String value = snapshot.getExpandedValue(i);
+            if (value == null) {
+                continue;
+            }
+            if (value.isEmpty()) {
+                names.add(configKeys[i].getKeyName());
+            }
+            for (int j = 0; j < templates[i].getVariableCount(); j++) {
+                String varName = templates[i].getVariable(j);
+                Integer varIndex = indexByKeyName.get(varName);
+                // Expanded already, since a value is expanded only after the values it refers to
+                String varValue = varIndex == null ? null : snapshot.getExpandedValue(varIndex);
+                if (varValue == null || varValue.isEmpty()) {
+                    names.add(varName);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static int indexOf(Class<?> type) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i] == type) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Type " + type.getName() + " cannot be kept in snapshot");
+    }
+
+    private static void putString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,66 @@
+package com.easy.properties;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This immutable class holds the content of a configuration source read once while loading with the snapshot cache enabled, so that the
+ * same content is checksummed for the cache and, if the configuration is not restored from the cache, parsed into the values <br>
+ * A file is kept as it is, so that nothing is parsed when the configuration is restored from the cache. Any other source is kept as the
+ * values read from it
+ *
+ * @author himanshu_shekhar
+ */
+final class SourceContent {
+    private final ConfigSource source;
+    // Null if the source is not a file
+    private final ByteBuffer fileContent;
+    // Null if the source is a file
+    private final Map<String, String> values;
+
+    private SourceContent(ConfigSource source, ByteBuffer fileContent, Map<String, String> values) {
+        this.source = source;
+        this.fileContent = fileContent;
+        this.values = values;
+    }
+
+    /*
+    Read the content of every source, in the same order as the sources. A source which cannot be read fails the reading, just like it
+    would fail the loading
+    */
+    static List<SourceContent> readAll(List<ConfigSource> sources) {
+        List<SourceContent> contents = new ArrayList<SourceContent>(sources.size());
+        for (ConfigSource source : sources) {
+            if (source instanceof ConfigSources.FileSource) {
+                contents.add(new SourceContent(source, ((ConfigSources.FileSource) source).readContent(), null));
+            } else {
+                contents.add(new SourceContent(source, null, source.read()));
+            }
+        }
+        return contents;
+    }
+
+    ConfigSource getSource() {
+        return source;
+    }
+
+    /*
+    Content of the file, null if the source is not a file. The buffer is shared, so it must be duplicated before being read
+    */
+    ByteBuffer getFileContent() {
+        return fileContent;
+    }
+
+    /*
+    Values of the source, parsed from content of the file (on the fork/join pool, if given) if the source is a file
+    */
+    Map<String, String> getValues(ForkJoinPool parsingPool) {
+        if (fileContent == null) {
+            return values;
+        }
+        return ((ConfigSources.FileSource) source).parse(fileContent.duplicate(), parsingPool);
+    }
+}
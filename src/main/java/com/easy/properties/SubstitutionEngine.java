@@ -0,0 +1,257 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidConfigException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class performs variable substitution on the raw configuration values <br>
+ * Each value is compiled only once into a {@link ValueTemplate}, from which the {@link DependencyGraph} of the keys is built. The keys are
+ * then resolved one after another in dependency order, so that every variable referring to a key is replaced by value of that key which is
+ * already resolved. So the total work is linear in total size of the values, and does not need recursion irrespective of how the keys
+ * refer to each other <br>
+ * When the configuration is loaded again, only the changed values are compiled again, and only the changed keys along with the keys
+ * depending on them are resolved again, along with the keys whose variables looked up in system properties or environment variables
+ * have a different value now. Everything else is taken from the configuration loaded earlier <br>
+ * A variable which is not a configuration key, or is a key without value, is looked up in system properties and then in environment
+ * variables, and is replaced by empty text if not found there as well <br>
+ * In lazy mode, the keys are not expanded while resolving, but only when first read (see {@link LazyValues}). The dependency graph is
+ * built all the same, so that keys referring to each other in a cycle fail the loading in either mode <br>
+ * This class is thread-safe
+ *
+ * @author himanshu_shekhar
+ */
+final class SubstitutionEngine {
+    private static final Logger logger = LoggerFactory.getLogger(SubstitutionEngine.class);
+
+    private final Class<?> keyEnumClass;
+    private final ConfigKey[] configKeys;
+    private final Map<String, Integer> indexByKeyName;
+    private final boolean lazy;
+
+    /**
+     * @param keyEnumClass The enum class defining the configuration keys
+     * @param configKeys The configuration keys, indexed by ordinal of the corresponding enum constant
+     * @param lazy Whether the values are to be expanded when first read, instead of while resolving
+     */
+    SubstitutionEngine(Class<?> keyEnumClass, ConfigKey[] configKeys, boolean lazy) {
+        this.keyEnumClass = keyEnumClass;
+        this.configKeys = configKeys;
+        this.lazy = lazy;
+        this.indexByKeyName = new HashMap<String, Integer>(configKeys.length * 2);
+        for (int i = 0; i < configKeys.length; i++) {
+            indexByKeyName.put(configKeys[i].getKeyName(), i);
+        }
+    }
+
+    /**
+     * @param rawValues Values (before substitution) of the configuration keys, in the same order as the keys
+     * @param sourceNames Names of the configuration sources the values were read from, in the same order as the keys
+     * @return Snapshot having values of all the configuration keys with variables substituted
+     * @throws InvalidConfigException If keys refer to each other in a cycle, e.g. {@code X = $Y} and {@code Y = $X}. All such cycles are
+     * reported together
+     */
+    ConfigSnapshot resolve(String[] rawValues, String[] sourceNames) {
+        logger.debug("Resolving variables of {} configuration keys", configKeys.length);
+        ValueTemplate[] templates = new ValueTemplate[configKeys.length];
+        int[][] dependencies = new int[configKeys.length][];
+        int[] lastReferrer = new int[configKeys.length];
+        for (int i = 0; i < configKeys.length; i++) {
+            templates[i] = ValueTemplate.compile(rawValues[i]);
+            dependencies[i] = findDependencies(templates[i], i, lastReferrer);
+        }
+        DependencyGraph dependencyGraph = new DependencyGraph(keyEnumClass, configKeys, dependencies);
+
+        // Resolution order is found in lazy mode as well, since the cycles are detected while finding it
+        int[] resolutionOrder = dependencyGraph.getResolutionOrder();
+        if (lazy) {
+            LazyValues lazyValues = new LazyValues(this, configKeys, templates, dependencyGraph, new String[configKeys.length]);
+            return new ConfigSnapshot(keyEnumClass, configKeys, rawValues, sourceNames, templates, lazyValues, dependencyGraph);
+        }
+        String[] values = new String[configKeys.length];
+        expand(templates, values, resolutionOrder);
+        return new ConfigSnapshot(keyEnumClass, configKeys, rawValues, sourceNames, templates, values, dependencyGraph);
+    }
+
+    /**
+     * @param previous Snapshot of the configuration loaded earlier for same configuration keys
+     * @param rawValues Values (before substitution) of the configuration keys, in the same order as the keys
+     * @param sourceNames Names of the configuration sources the values were read from, in the same order as the keys
+     * @return Snapshot having values of all the configuration keys with variables substituted, the previous one if no value (or its
+     * source) has changed, and no system property or environment variable substituted in an expanded value has changed either
+     * @throws InvalidConfigException If the changed values cause keys to refer to each other in a cycle
+     */
+    ConfigSnapshot resolve(ConfigSnapshot previous, String[] rawValues, String[] sourceNames) {
+        int[] changedKeys = new int[configKeys.length];
+        int changedCount = 0;
+        // Keys whose raw value is same, but which are to be resolved again since a variable looked up outside the configuration has changed
+        int[] externallyChangedKeys = new int[configKeys.length];
+        int externallyChangedCount = 0;
+        for (int i = 0; i < configKeys.length; i++) {
+            if (!rawValues[i].equals(previous.getRawValue(i))) {
+                changedKeys[changedCount++] = i;
+            } else if (isExternallyChanged(previous, i)) {
+                externallyChangedKeys[externallyChangedCount++] = i;
+            }
+        }
+        if (changedCount == 0 && externallyChangedCount == 0) {
+            logger.debug("None of the {} configuration values has changed", configKeys.length);
+            if (Arrays.equals(sourceNames, previous.getSourceNames())) {
+                return previous;
+            }
+            // Same values read from other sources, so nothing is resolved again
+            if (previous.isLazy()) {
+                return new ConfigSnapshot(previous, rawValues, sourceNames, previous.getTemplates(), previous.getLazyValues(),
+                        previous.getDependencyGraph());
+            }
+            return new ConfigSnapshot(previous, rawValues, sourceNames, previous.getTemplates(), getValues(previous), previous.getDependencyGraph());
+        }
+
+        int[] changed = Arrays.copyOf(changedKeys, changedCount);
+        ValueTemplate[] templates = previous.getTemplates().clone();
+        int[][] changedDependencies = new int[changedCount][];
+        int[] lastReferrer = new int[configKeys.length];
+        for (int i = 0; i < changedCount; i++) {
+            int index = changed[i];
+            templates[index] = ValueTemplate.compile(rawValues[index]);
+            changedDependencies[i] = findDependencies(templates[index], index, lastReferrer);
+        }
+        DependencyGraph dependencyGraph = previous.getDependencyGraph().update(changed, changedDependencies);
+
+        int[] toResolve = Arrays.copyOf(changed, changedCount + externallyChangedCount);
+        System.arraycopy(externallyChangedKeys, 0, toResolve, changedCount, externallyChangedCount);
+        int[] resolutionOrder = dependencyGraph.getResolutionOrder(toResolve);
+        if (lazy) {
+            // Values of the keys not to be resolved again are reused if they are expanded already
+            String[] expandedValues = new String[configKeys.length];
+            for (int i = 0; i < configKeys.length; i++) {
+                expandedValues[i] = previous.getExpandedValue(i);
+            }
+            for (int index : resolutionOrder) {
+                expandedValues[index] = null;
+            }
+            LazyValues lazyValues = new LazyValues(this, configKeys, templates, dependencyGraph, expandedValues);
+            return new ConfigSnapshot(previous, rawValues, sourceNames, templates, lazyValues, dependencyGraph);
+        }
+        logger.debug("Resolving variables of {} changed and {} dependent configuration keys", toResolve.length, resolutionOrder.length - toResolve.length);
+        String[] values = getValues(previous);
+        expand(templates, values, resolutionOrder);
+        return new ConfigSnapshot(previous, rawValues, sourceNames, templates, values, dependencyGraph);
+    }
+
+    /*
+    Whether the value of a key, expanded in the previous snapshot, would expand differently now since a system property or environment
+    variable it was looked up in (for a variable not referring to any key, or referring to a key without value) has changed. A value not
+    expanded yet is looked up afresh whenever it is expanded, so it has nothing to compare
+    */
+    private boolean isExternallyChanged(ConfigSnapshot previous, int index) {
+        String value = previous.getExpandedValue(index);
+        if (value == null || !refersToExternal(previous, previous.getTemplates()[index])) {
+            return false;
+        }
+        ValueTemplate template = previous.getTemplates()[index];
+        String[] variableValues = new String[template.getVariableCount()];
+        for (int i = 0; i < variableValues.length; i++) {
+            String varName = template.getVariable(i);
+            Integer varIndex = indexByKeyName.get(varName);
+            String varValue = varIndex == null ? null : previous.getExpandedValue(varIndex);
+            if (varIndex != null && varValue == null) {
+                // Not expanded yet in a restored snapshot, which must have been encoded while being expanded. Resolved again to be safe
+                return true;
+            }
+            variableValues[i] = varValue == null || varValue.isEmpty() ? lookupExternal(varName) : varValue;
+        }
+        return !value.equals(template.expand(variableValues));
+    }
+
+    /*
+    Whether any variable of an expanded value was looked up in system properties and environment variables
+    */
+    private boolean refersToExternal(ConfigSnapshot previous, ValueTemplate template) {
+        for (int i = 0; i < template.getVariableCount(); i++) {
+            Integer varIndex = indexByKeyName.get(template.getVariable(i));
+            if (varIndex == null) {
+                return true;
+            }
+            String varValue = previous.getExpandedValue(varIndex);
+            if (varValue == null || varValue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+    Keys referred to by variables in the value, each key listed only once even if referred to multiple times in the value
+    */
+    private int[] findDependencies(ValueTemplate template, int index, int[] lastReferrer) {
+        int[] buffer = new int[template.getVariableCount()];
+        int count = 0;
+        for (int j = 0; j < template.getVariableCount(); j++) {
+            Integer varIndex = indexByKeyName.get(template.getVariable(j));
+            // Referrers are recorded with an offset of one, since zero means the key is not referred to yet
+            if (varIndex != null && lastReferrer[varIndex] != index + 1) {
+                lastReferrer[varIndex] = index + 1;
+                buffer[count++] = varIndex;
+            }
+        }
+        int[] dependencies = new int[count];
+        System.arraycopy(buffer, 0, dependencies, 0, count);
+        return dependencies;
+    }
+
+    /*
+    Expand the templates of given keys in given order, which must have dependencies of a key before it
+    */
+    private void expand(ValueTemplate[] templates, String[] values, int[] resolutionOrder) {
+        for (int index : resolutionOrder) {
+            ValueTemplate template = templates[index];
+            String[] variableValues = new String[template.getVariableCount()];
+            for (int i = 0; i < variableValues.length; i++) {
+                String varName = template.getVariable(i);
+                Integer varIndex = indexByKeyName.get(varName);
+                String value = varIndex == null ? null : values[varIndex];
+                variableValues[i] = value == null || value.isEmpty() ? lookupExternal(varName) : value;
+            }
+            values[index] = template.expand(variableValues);
+            logger.trace("Value of {} after substitutions: {}", configKeys[index].getKeyName(), values[index]);
+        }
+    }
+
+    /*
+    Values of all the keys in the previous snapshot, which are expanded now if they were to be expanded when first read
+    */
+    private String[] getValues(ConfigSnapshot previous) {
+        String[] values = new String[configKeys.length];
+        for (int i = 0; i < configKeys.length; i++) {
+            values[i] = previous.getValue(i);
+        }
+        return values;
+    }
+
+    /*
+    Expand the template of a key whose dependencies are all expanded already
+    */
+    String expand(ValueTemplate template, AtomicReferenceArray<String> values) {
+        String[] variableValues = new String[template.getVariableCount()];
+        for (int i = 0; i < variableValues.length; i++) {
+            String varName = template.getVariable(i);
+            Integer varIndex = indexByKeyName.get(varName);
+            String value = varIndex == null ? null : values.get(varIndex);
+            variableValues[i] = value == null || value.isEmpty() ? lookupExternal(varName) : value;
+        }
+        return template.expand(variableValues);
+    }
+
+    private static String lookupExternal(String varName) {
+        String value = System.getProperty(varName);
+        if (value == null || value.isEmpty()) {
+            value = System.getenv(varName);
+        }
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,20 @@
+package com.easy.properties;
+
+/**
+ * Converts the value of a configuration key to a particular type, e.g. {@code "30s"} to a {@link java.time.Duration} <br>
+ * Register it through {@link Properties#registerConverter(Class, ValueConverter)} for the type it converts to. The value of a key is
+ * converted only once per type for every load of the configuration, so the converter need not cache anything itself. It must be
+ * thread-safe, and the objects it returns must be immutable since they are shared among all the readers
+ *
+ * @param <T> The type the value is converted to
+ * @author himanshu_shekhar
+ */
+public interface ValueConverter<T> {
+
+    /**
+     * @param value The value of the key, as {@link Properties#get(Enum)} returns it (or an element of the list, when read as list)
+     * @return The converted value, which must not be null
+     * @throws IllegalArgumentException If the value cannot be converted to the type
+     */
+    T convert(String value);
+}
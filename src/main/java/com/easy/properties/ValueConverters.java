@@ -0,0 +1,232 @@
+package com.easy.properties;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Converters the values are converted with when no converter is registered for the type, i.e. for the primitive types (and their
+ * wrappers), {@code String}, enums, {@link URI}, {@link Duration} and {@link InetSocketAddress} <br>
+ * A duration is either a number followed by one of the units {@code ns, us, ms, s, m, h, d} (e.g. {@code 30s}), or in the ISO-8601
+ * format (e.g. {@code PT30S}). A socket address is {@code host:port}, with an IPv6 host enclosed in brackets (e.g. {@code [::1]:8080}),
+ * and is not resolved
+ *
+ * @author himanshu_shekhar
+ */
+final class ValueConverters {
+    private static final Class<?>[] PRIMITIVE_TYPES = {byte.class, short.class, int.class, long.class, float.class, double.class,
+        boolean.class, char.class};
+    private static final Class<?>[] WRAPPER_TYPES = {Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+        Boolean.class, Character.class};
+
+    private static final Map<Class<?>, ValueConverter<?>> DEFAULTS = new HashMap<Class<?>, ValueConverter<?>>();
+    // Enum converters, created when first needed, so that the same converter is used for an enum every time
+    private static final ConcurrentMap<Class<?>, ValueConverter<?>> ENUM_CONVERTERS = new ConcurrentHashMap<Class<?>, ValueConverter<?>>();
+
+    static {
+        register(new ValueConverter<String>() {
+            @Override
+            public String convert(String value) {
+                return requireValue(value);
+            }
+        }, String.class);
+        register(new ValueConverter<Byte>() {
+            @Override
+            public Byte convert(String value) {
+                return Byte.parseByte(requireValue(value));
+            }
+        }, Byte.class, byte.class);
+        register(new ValueConverter<Short>() {
+            @Override
+            public Short convert(String value) {
+                return Short.parseShort(requireValue(value));
+            }
+        }, Short.class, short.class);
+        register(new ValueConverter<Integer>() {
+            @Override
+            public Integer convert(String value) {
+                return Integer.parseInt(requireValue(value));
+            }
+        }, Integer.class, int.class);
+        register(new ValueConverter<Long>() {
+            @Override
+            public Long convert(String value) {
+                return Long.parseLong(requireValue(value));
+            }
+        }, Long.class, long.class);
+        register(new ValueConverter<Float>() {
+            @Override
+            public Float convert(String value) {
+                return Float.parseFloat(requireValue(value));
+            }
+        }, Float.class, float.class);
+        register(new ValueConverter<Double>() {
+            @Override
+            public Double convert(String value) {
+                return Double.parseDouble(requireValue(value));
+            }
+        }, Double.class, double.class);
+        register(new ValueConverter<Boolean>() {
+            @Override
+            public Boolean convert(String value) {
+                return Boolean.parseBoolean(requireValue(value));
+            }
+        }, Boolean.class, boolean.class);
+        register(new ValueConverter<Character>() {
+            @Override
+            public Character convert(String value) {
+                if (requireValue(value).length() != 1) {
+                    throw new IllegalArgumentException(value + " is not a character");
+                }
+                return value.charAt(0);
+            }
+        }, Character.class, char.class);
+        register(new ValueConverter<URI>() {
+            @Override
+            public URI convert(String value) {
+                try {
+                    return new URI(requireValue(value));
+                } catch (URISyntaxException e) {
+                    throw new IllegalArgumentException(value + " is not a URI", e);
+                }
+            }
+        }, URI.class);
+        register(new ValueConverter<Duration>() {
+            @Override
+            public Duration convert(String value) {
+                return parseDuration(requireValue(value));
+            }
+        }, Duration.class);
+        register(new ValueConverter<InetSocketAddress>() {
+            @Override
+            public InetSocketAddress convert(String value) {
+                return parseSocketAddress(requireValue(value));
+            }
+        }, InetSocketAddress.class);
+    }
+
+    private ValueConverters() {
+    }
+
+    private static void register(ValueConverter<?> converter, Class<?>... types) {
+        for (Class<?> type : types) {
+            DEFAULTS.put(type, converter);
+        }
+    }
+
+    /*
+    The converter for given type, null if there is none
+    */
+    static ValueConverter<?> getDefault(Class<?> type) {
+        ValueConverter<?> converter = DEFAULTS.get(type);
+        if (converter == null && type.isEnum()) {
+            converter = ENUM_CONVERTERS.get(type);
+            if (converter == null) {
+                ValueConverter<?> created = newEnumConverter((Class<? extends Enum>) type);
+                converter = ENUM_CONVERTERS.putIfAbsent(type, created);
+                if (converter == null) {
+                    converter = created;
+                }
+            }
+        }
+        return converter;
+    }
+
+    /*
+    The wrapper type for a primitive type and the other way round, null for any other type
+    */
+    static Class<?> getPrimitiveCounterpart(Class<?> type) {
+        for (int i = 0; i < PRIMITIVE_TYPES.length; i++) {
+            if (PRIMITIVE_TYPES[i] == type) {
+                return WRAPPER_TYPES[i];
+            } else if (WRAPPER_TYPES[i] == type) {
+                return PRIMITIVE_TYPES[i];
+            }
+        }
+        return null;
+    }
+
+    private static <E extends Enum<E>> ValueConverter<E> newEnumConverter(final Class<E> type) {
+        return new ValueConverter<E>() {
+            @Override
+            public E convert(String value) {
+                return Enum.valueOf(type, requireValue(value));
+            }
+        };
+    }
+
+    private static String requireValue(String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Value is empty");
+        }
+        return value;
+    }
+
+    /*
+    For keys declared as boolean, anything other than true or false (in any case) is rejected, since Boolean#parseBoolean would silently
+    take it as false. Keys not declared with a type keep the lenient Boolean#parseBoolean of the default converter
+    */
+    static boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        } else if ("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException(value + " is not a boolean, must be true or false");
+    }
+
+    static Duration parseDuration(String value) {
+        if (value.startsWith("P") || value.startsWith("p") || value.startsWith("-P") || value.startsWith("-p")) {
+            try {
+                return Duration.parse(value);
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException(value + " is not a duration", e);
+            }
+        }
+        int unitStart = value.length();
+        while (unitStart > 0 && Character.isLetter(value.charAt(unitStart - 1))) {
+            unitStart--;
+        }
+        String unit = value.substring(unitStart);
+        ChronoUnit chronoUnit;
+        if (unit.equals("ns")) {
+            chronoUnit = ChronoUnit.NANOS;
+        } else if (unit.equals("us")) {
+            chronoUnit = ChronoUnit.MICROS;
+        } else if (unit.equals("ms")) {
+            chronoUnit = ChronoUnit.MILLIS;
+        } else if (unit.equals("s")) {
+            chronoUnit = ChronoUnit.SECONDS;
+        } else if (unit.equals("m")) {
+            chronoUnit = ChronoUnit.MINUTES;
+        } else if (unit.equals("h")) {
+            chronoUnit = ChronoUnit.HOURS;
+        } else if (unit.equals("d")) {
+            chronoUnit = ChronoUnit.DAYS;
+        } else {
+            throw new IllegalArgumentException(value + " is not a duration, unit must be one of ns, us, ms, s, m, h, d");
+        }
+        return Duration.of(Long.parseLong(value.substring(0, unitStart).trim()), chronoUnit);
+    }
+
+    static InetSocketAddress parseSocketAddress(String value) {
+        int separator = value.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException(value + " is not a socket address (host:port)");
+        }
+        String host = value.substring(0, separator).trim();
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        } else if (host.indexOf(':') >= 0) {
+            throw new IllegalArgumentException(value + " is not a socket address, IPv6 host must be enclosed in brackets");
+        }
+        return InetSocketAddress.createUnresolved(host, Integer.parseInt(value.substring(separator + 1).trim()));
+    }
+}
@@ -0,0 +1,142 @@
+package com.easy.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This immutable class represents a configuration value compiled into literal text and variable segments <br>
+ * A variable is referred to through dollar sign, either as {@code ${VAR}} (whitespace inside the braces is ignored) or as {@code $VAR}.
+ * Name of the variable starts with a letter, underscore or dot, followed by any number of letters, digits, underscores or dots <br>
+ * The value is scanned only once while compiling, after which it can be expanded any number of times without any pattern matching
+ *
+ * @author himanshu_shekhar
+ */
+final class ValueTemplate {
+    private static final String[] NO_VARIABLES = new String[0];
+
+    // There is always one literal more than the variables, i.e. literals[0] variables[0] literals[1] ... variables[n-1] literals[n]
+    private final String[] literals;
+    private final String[] variables;
+
+    private ValueTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    /**
+     * @param value The value which may have variables in it
+     * @return Compiled form of the value
+     */
+    static ValueTemplate compile(String value) {
+        if (value.indexOf('$') < 0) {
+            return new ValueTemplate(new String[]{value}, NO_VARIABLES);
+        }
+
+        List<String> literals = new ArrayList<String>();
+        List<String> variables = new ArrayList<String>();
+        int literalStart = 0;
+        int position = value.indexOf('$');
+        while (position >= 0) {
+            int end = -1;
+            String name = null;
+            if (position + 1 < value.length() && value.charAt(position + 1) == '{') {
+                int nameStart = skipWhitespace(value, position + 2);
+                int nameEnd = scanName(value, nameStart);
+                int closingBrace = skipWhitespace(value, nameEnd);
+                if (nameEnd > nameStart && closingBrace < value.length() && value.charAt(closingBrace) == '}') {
+                    name = value.substring(nameStart, nameEnd);
+                    end = closingBrace + 1;
+                }
+            } else {
+                int nameEnd = scanName(value, position + 1);
+                if (nameEnd > position + 1) {
+                    name = value.substring(position + 1, nameEnd);
+                    end = nameEnd;
+                }
+            }
+
+            if (name == null) {
+                // A dollar sign which does not start a variable is just part of the text
+                position = value.indexOf('$', position + 1);
+            } else {
+                literals.add(value.substring(literalStart, position));
+                variables.add(name);
+                literalStart = end;
+                position = value.indexOf('$', end);
+            }
+        }
+        literals.add(value.substring(literalStart));
+
+        return new ValueTemplate(literals.toArray(new String[literals.size()]), variables.toArray(new String[variables.size()]));
+    }
+
+    private static int skipWhitespace(String value, int from) {
+        int position = from;
+        while (position < value.length() && isWhitespace(value.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /*
+    Returns the position just after the name starting at given position, which is same as the given position if no name starts there
+    */
+    private static int scanName(String value, int from) {
+        if (from >= value.length() || !isNameStart(value.charAt(from))) {
+            return from;
+        }
+        int position = from + 1;
+        while (position < value.length() && (isNameStart(value.charAt(position)) || isDigit(value.charAt(position)))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isNameStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '.';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return Number of variables referred to in the value, counting each occurrence
+     */
+    int getVariableCount() {
+        return variables.length;
+    }
+
+    /**
+     * @param position Position of the variable occurrence, starting from zero
+     * @return Name of the variable at given position
+     */
+    String getVariable(int position) {
+        return variables[position];
+    }
+
+    /**
+     * @param variableValues Values of the variables, in the same order as they occur in the value
+     * @return The value with each variable replaced by its given value
+     */
+    String expand(String[] variableValues) {
+        if (variables.length == 0) {
+            return literals[0];
+        }
+
+        int length = literals[0].length();
+        for (int i = 0; i < variables.length; i++) {
+            length += variableValues[i].length() + literals[i + 1].length();
+        }
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            sb.append(variableValues[i]).append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,12 @@
+package com.easy.properties.exception;
+
+public class InvalidBindingException extends RuntimeException{
+
+    public InvalidBindingException(String message) {
+        super(message);
+    }
+
+    public InvalidBindingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
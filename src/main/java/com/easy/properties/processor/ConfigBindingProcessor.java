@@ -0,0 +1,187 @@
+package com.easy.properties.processor;
+
+import com.easy.properties.ConfigBinding;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor generating the implementation of interfaces annotated with {@link ConfigBinding} <br>
+ * For every such interface, a class implementing it is generated in the same package, named after the interface with
+ * {@code _ConfigBinding} appended (and {@code _} in place of {@code $} for a nested interface). It keeps the value of every abstract
+ * method in a final field, assigned from the values converted by {@code com.easy.properties.Properties#bind(Class)} <br>
+ * An abstract method having parameters or return type not supported for binding is reported as a compilation error
+ *
+ * @author himanshu_shekhar
+ */
+public class ConfigBindingProcessor extends AbstractProcessor {
+    private static final String BINDING_SUFFIX = "_ConfigBinding";
+    // Types (other than primitives) which can be returned by a method, or be elements of the list returned by it
+    private static final Set<String> SCALAR_TYPES = new HashSet<String>(Arrays.asList("java.lang.String", "java.lang.Byte",
+            "java.lang.Short", "java.lang.Integer", "java.lang.Character", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+            "java.lang.Boolean"));
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ConfigBinding.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ConfigBinding.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@ConfigBinding is applicable to interfaces only");
+            } else if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                error(element, "Interface annotated with @ConfigBinding cannot be private");
+            } else if (!((TypeElement) element).getTypeParameters().isEmpty()) {
+                error(element, "Interface annotated with @ConfigBinding cannot have type parameters");
+            } else {
+                generate((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement interfaceElement) {
+        // Sorted by name, which is the order in which values are passed to the constructor
+        Map<String, ExecutableElement> methods = new TreeMap<String, ExecutableElement>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(interfaceElement))) {
+            if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+                methods.put(method.getSimpleName().toString(), method);
+            }
+        }
+        boolean valid = true;
+        for (ExecutableElement method : methods.values()) {
+            valid &= validate(interfaceElement, method);
+        }
+        if (!valid) {
+            // Error is already reported
+            return;
+        }
+
+        String packageName = getPackage(interfaceElement).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(interfaceElement).toString();
+        String bindingName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + BINDING_SUFFIX;
+        String interfaceName = interfaceElement.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * Implementation of {@link ").append(interfaceName).append("} with values bound to the configuration, generated by ")
+                .append(getClass().getName()).append("\n */\n");
+        source.append("public final class ").append(bindingName).append(" implements ").append(interfaceName).append(" {\n");
+        for (ExecutableElement method : methods.values()) {
+            source.append("    private final ").append(method.getReturnType()).append(" ").append(method.getSimpleName()).append(";\n");
+        }
+        source.append("\n    @SuppressWarnings(\"unchecked\")\n");
+        source.append("    public ").append(bindingName).append("(Object[] values) {\n");
+        int index = 0;
+        for (ExecutableElement method : methods.values()) {
+            source.append("        this.").append(method.getSimpleName()).append(" = (").append(getBoxedType(method.getReturnType()))
+                    .append(") values[").append(index++).append("];\n");
+        }
+        source.append("    }\n");
+        for (ExecutableElement method : methods.values()) {
+            boolean isArray = method.getReturnType().getKind() == TypeKind.ARRAY;
+            source.append("\n    @Override\n    public ").append(method.getReturnType()).append(" ").append(method.getSimpleName()).append("() {\n");
+            source.append("        return ").append(method.getSimpleName()).append(isArray ? ".clone()" : "").append(";\n    }\n");
+        }
+        source.append("}\n");
+
+        String qualifiedBindingName = packageName.isEmpty() ? bindingName : packageName + "." + bindingName;
+        try {
+            Writer writer = processingEnv.getFiler().createSourceFile(qualifiedBindingName, interfaceElement).openWriter();
+            try {
+                writer.write(source.toString());
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            error(interfaceElement, "Cannot generate " + qualifiedBindingName + ": " + e.getMessage());
+        }
+    }
+
+    /*
+    Method must not have parameters, and must return String, a primitive type or its wrapper, List of String or of a wrapper, or array of
+    int, long or double
+    */
+    private boolean validate(TypeElement interfaceElement, ExecutableElement method) {
+        // Inherited method is reported on the interface, as it may not be declared in source being compiled
+        Element reported = method.getEnclosingElement().equals(interfaceElement) ? method : interfaceElement;
+        if (!method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty()) {
+            error(reported, "Method " + method.getSimpleName() + " bound to configuration cannot have parameters");
+            return false;
+        }
+        if (!isSupported(method.getReturnType())) {
+            error(reported, "Return type " + method.getReturnType() + " of method " + method.getSimpleName() + " is not supported for binding to configuration");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isSupported(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            TypeKind componentKind = ((ArrayType) type).getComponentType().getKind();
+            return componentKind == TypeKind.INT || componentKind == TypeKind.LONG || componentKind == TypeKind.DOUBLE;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        String typeName = processingEnv.getTypeUtils().erasure(type).toString();
+        if ("java.util.List".equals(typeName)) {
+            List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+            return typeArguments.size() == 1 && typeArguments.get(0).getKind() == TypeKind.DECLARED
+                    && SCALAR_TYPES.contains(typeArguments.get(0).toString());
+        }
+        return SCALAR_TYPES.contains(typeName);
+    }
+
+    private String getBoxedType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private static PackageElement getPackage(Element element) {
+        while (element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return (PackageElement) element;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
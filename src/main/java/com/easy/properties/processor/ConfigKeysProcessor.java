@@ -0,0 +1,185 @@
+package com.easy.properties.processor;
+
+import com.easy.properties.ConfigKeys;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor generating the metadata of configuration keys for the enums annotated with {@link ConfigKeys} <br>
+ * For every such enum, a class implementing {@code com.easy.properties.ConfigKeyTable} is generated in the same package, named after the
+ * enum with {@code _ConfigKeyTable} appended (and {@code _} in place of {@code $} for a nested enum). It creates the
+ * {@code com.easy.properties.ConfigKey} of every constant through the getters of the optional fields, so that no reflection is needed
+ * while loading the configuration <br>
+ * An optional field ({@code keyName, mandatory, defaultValue or type}) must be of the supported type and must have a non-private getter
+ * following Java naming conventions, otherwise it is reported as a compilation error
+ *
+ * @author himanshu_shekhar
+ */
+public class ConfigKeysProcessor extends AbstractProcessor {
+    private static final String TABLE_SUFFIX = "_ConfigKeyTable";
+    // Constants per generated method, so that a large enum does not exceed the size limit of a method
+    private static final int CONSTANTS_PER_METHOD = 500;
+    // Placeholder for the enum constant in expression obtaining value of an optional field
+    private static final String CONSTANT = "$constant";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ConfigKeys.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ConfigKeys.class)) {
+            if (element.getKind() != ElementKind.ENUM) {
+                error(element, "@ConfigKeys is applicable to enums only");
+            } else if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                error(element, "Enum annotated with @ConfigKeys cannot be private");
+            } else {
+                generate((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement enumElement) {
+        String keyName = getGetterCall(enumElement, "keyName", "java.lang.String");
+        String mandatory = getGetterCall(enumElement, "mandatory", "boolean");
+        String defaultValue = getGetterCall(enumElement, "defaultValue", "java.lang.String");
+        String type = getGetterCall(enumElement, "type", "java.lang.Class");
+        if ("".equals(keyName) || "".equals(mandatory) || "".equals(defaultValue) || "".equals(type)) {
+            // Error is already reported
+            return;
+        }
+
+        List<String> constants = new ArrayList<String>();
+        for (Element member : enumElement.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.ENUM_CONSTANT) {
+                constants.add(member.getSimpleName().toString());
+            }
+        }
+
+        String packageName = getPackage(enumElement).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(enumElement).toString();
+        String tableName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + TABLE_SUFFIX;
+        String enumName = enumElement.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.easy.properties.ConfigKey;\n");
+        source.append("import com.easy.properties.ConfigKeyTable;\n\n");
+        source.append("/**\n * Metadata of the configuration keys defined in {@link ").append(enumName).append("}, generated by ")
+                .append(getClass().getName()).append("\n */\n");
+        source.append("public final class ").append(tableName).append(" implements ConfigKeyTable {\n\n");
+        source.append("    @Override\n    public ConfigKey[] getConfigKeys() {\n");
+        source.append("        ConfigKey[] configKeys = new ConfigKey[").append(constants.size()).append("];\n");
+        for (int start = 0; start < constants.size(); start += CONSTANTS_PER_METHOD) {
+            source.append("        fill").append(start / CONSTANTS_PER_METHOD).append("(configKeys);\n");
+        }
+        source.append("        return configKeys;\n    }\n");
+        for (int start = 0; start < constants.size(); start += CONSTANTS_PER_METHOD) {
+            source.append("\n    private static void fill").append(start / CONSTANTS_PER_METHOD).append("(ConfigKey[] configKeys) {\n");
+            for (int i = start; i < Math.min(start + CONSTANTS_PER_METHOD, constants.size()); i++) {
+                String constant = enumName + "." + constants.get(i);
+                source.append("        configKeys[").append(i).append("] = new ConfigKey(")
+                        .append(keyName == null ? "\"" + constants.get(i) + "\"" : keyName.replace(CONSTANT, constant)).append(", ")
+                        .append(mandatory == null ? "false" : mandatory.replace(CONSTANT, constant)).append(", ")
+                        .append(defaultValue == null ? "\"\"" : defaultValue.replace(CONSTANT, constant)).append(", ")
+                        .append(type == null ? "String.class" : type.replace(CONSTANT, constant)).append(");\n");
+            }
+            source.append("    }\n");
+        }
+        source.append("}\n");
+
+        String qualifiedTableName = packageName.isEmpty() ? tableName : packageName + "." + tableName;
+        try {
+            Writer writer = processingEnv.getFiler().createSourceFile(qualifiedTableName, enumElement).openWriter();
+            try {
+                writer.write(source.toString());
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            error(enumElement, "Cannot generate " + qualifiedTableName + ": " + e.getMessage());
+        }
+    }
+
+    /*
+    Expression invoking the getter of given optional field on the CONSTANT placeholder (e.g. "$constant.getKeyName()"), null if the field
+    is not defined and empty if the field or its getter is incorrect. The boolean field can be of wrapper type as well, in which case null
+    is considered false like it is while using reflection. The type field must be a Class
+    */
+    private String getGetterCall(TypeElement enumElement, String fieldName, String expectedType) {
+        VariableElement field = null;
+        for (Element member : enumElement.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.FIELD && member.getSimpleName().contentEquals(fieldName)) {
+                field = (VariableElement) member;
+            }
+        }
+        if (field == null) {
+            return null;
+        }
+
+        TypeMirror fieldType = field.asType();
+        String typeName = processingEnv.getTypeUtils().erasure(fieldType).toString();
+        boolean isBoolean = fieldType.getKind() == TypeKind.BOOLEAN || "java.lang.Boolean".equals(typeName);
+        if ("boolean".equals(expectedType) ? !isBoolean : !expectedType.equals(typeName)) {
+            error(field, "Field " + fieldName + " of enum " + enumElement.getSimpleName() + " must be of type " + expectedType);
+            return "";
+        }
+
+        String getterName = (isBoolean ? "is" : "get") + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (Element member : enumElement.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.METHOD && member.getSimpleName().contentEquals(getterName)) {
+                ExecutableElement getter = (ExecutableElement) member;
+                if (getter.getParameters().isEmpty() && !getter.getModifiers().contains(Modifier.PRIVATE)
+                        && !getter.getModifiers().contains(Modifier.STATIC)
+                        && isSameErasure(getter.getReturnType(), fieldType)) {
+                    String call = CONSTANT + "." + getterName + "()";
+                    return fieldType.getKind() == TypeKind.BOOLEAN || !isBoolean ? call : "Boolean.TRUE.equals(" + call + ")";
+                }
+            }
+        }
+        error(field, "Field " + fieldName + " of enum " + enumElement.getSimpleName() + " must have a non-private getter "
+                + fieldType + " " + getterName + "()");
+        return "";
+    }
+
+    private boolean isSameErasure(TypeMirror type, TypeMirror otherType) {
+        return processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(otherType));
+    }
+
+    private static PackageElement getPackage(Element element) {
+        while (element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return (PackageElement) element;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,82 @@
+package com.easy.properties;
+
+import com.easy.properties.exception.InvalidConfigException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class ConfigFileParserTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String CONTENT = "orphan line before any key\n"
+            + "# HOME = /home/commented\n"
+            + "HOME = /home/test\r\n"
+            + "DESCRIPTION = First line\n"
+            + "   second line  \n"
+            + "\n"
+            + "# comment inside value\n"
+            + "third line with café\r"
+            + "QUERY=id=10&name=x\n"
+            + "EMPTY =\n"
+            + "LAST = last value\n"
+            + "  continued";
+
+    @Test
+    public void parsesEntriesInOrder() {
+        List<String> entries = parse(CONTENT);
+        List<String> expected = new ArrayList<String>();
+        expected.add("HOME=/home/test");
+        expected.add("DESCRIPTION=First line\nsecond line\nthird line with café");
+        expected.add("QUERY=id=10&name=x");
+        expected.add("EMPTY=");
+        expected.add("LAST=last value\ncontinued");
+        assertEquals("Incorrect entries parsed", expected, entries);
+    }
+
+    @Test
+    public void parsesSameEntriesInParallelForAnyChunkSize() {
+        List<String> expected = parse(CONTENT);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int chunkSize = 1; chunkSize <= CONTENT.length(); chunkSize++) {
+                assertEquals("Incorrect entries parsed with chunk size " + chunkSize, expected, parse(CONTENT, pool, chunkSize));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownInParallelIfKeyIsEmpty() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parse(CONTENT + "\n = no key", pool, 8);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<String> parse(String content) {
+        EntryCollector collector = new EntryCollector();
+        new ConfigFileParser(ByteBuffer.wrap(content.getBytes(UTF_8)), UTF_8).parse(collector);
+        return collector.entries;
+    }
+
+    private static List<String> parse(String content, ForkJoinPool pool, int chunkSize) {
+        EntryCollector collector = new EntryCollector();
+        new ConfigFileParser(ByteBuffer.wrap(content.getBytes(UTF_8)), UTF_8).parse(collector, pool, chunkSize);
+        return collector.entries;
+    }
+
+    private static class EntryCollector implements ConfigFileParser.EntryHandler {
+        private final List<String> entries = new ArrayList<String>();
+
+        @Override
+        public void onEntry(String key, String value) {
+            entries.add(key + "=" + value);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.easy.properties.enums.MyPropsSimple;
 import com.easy.properties.enums.MyPropsWithDefaultValue;
 import com.easy.properties.enums.MyPropsWithKeyName;
 import com.easy.properties.enums.MyPropsWithMandatory;
+import com.easy.properties.enums.MyPropsWithType;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -33,6 +34,18 @@ public class ConfigKeyTest {
         assertEquals("Default value is not set if user defined value is not specified", "/home", configKey.getDefaultValue());
     }
     
+    @Test
+    public void setsTypeCorrectly() {
+        ConfigKey configKey = new ConfigKey(MyPropsWithType.TIMEOUT);
+        assertEquals("Type is not set correctly", int.class, configKey.getType());
+    }
+
+    @Test
+    public void usesStringTypeIfTypeNotSpecified() {
+        ConfigKey configKey = new ConfigKey(MyPropsSimple.HOME);
+        assertEquals("String type is not used if user defined type is not specified", String.class, configKey.getType());
+    }
+    
     @Test
     public void instanceWithSameKeyNameAreEqual(){
         ConfigKey configKeyFirst = new ConfigKey(MyPropsSimple.HOME);
@@ -0,0 +1,88 @@
+package com.easy.properties;
+
+import com.easy.properties.data.Var;
+import com.easy.properties.enums.MyPropsSimple;
+import com.easy.properties.exception.InvalidConfigException;
+import java.util.EnumSet;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DependencyGraphTest {
+
+    @Test
+    public void ordersLongChainOfKeysWithoutRecursion() {
+        int count = 100000;
+        int[][] dependencies = new int[count][];
+        for (int i = 0; i < count; i++) {
+            // Every key refers to the next one, and the last key refers to none
+            dependencies[i] = i == count - 1 ? new int[0] : new int[]{i + 1};
+        }
+        DependencyGraph graph = new DependencyGraph(MyPropsSimple.class, getConfigKeys(count), dependencies);
+        int[] order = graph.getResolutionOrder();
+        assertEquals("Dependency is not ordered before its dependent", count - 1, order[0]);
+        assertEquals("Key having no dependent is not ordered last", 0, order[count - 1]);
+    }
+
+    @Test
+    public void expandsLongChainOfKeysWhenFirstRead() {
+        int count = 1000;
+        String[] rawValues = new String[count];
+        String[] sourceNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            // Every key refers to the next one, and the last key refers to none
+            rawValues[i] = i == count - 1 ? "end" : "${K" + (i + 1) + "}";
+            sourceNames[i] = "values";
+        }
+        ConfigSnapshot snapshot = new SubstitutionEngine(MyPropsSimple.class, getConfigKeys(count), true).resolve(rawValues, sourceNames);
+        assertEquals("Value at the start of long chain is not expanded", "end", snapshot.getValue(0));
+        assertEquals("Value at the end of long chain is not expanded", "end", snapshot.getExpandedValue(count - 1));
+    }
+
+    @Test
+    public void reportsAllCycles() {
+        int[][] dependencies = new int[][]{{1}, {0}, {2}, {}, {3}};
+        DependencyGraph graph = new DependencyGraph(MyPropsSimple.class, getConfigKeys(5), dependencies);
+        try {
+            graph.getResolutionOrder();
+            fail("Cyclic dependency is not detected");
+        } catch (InvalidConfigException e) {
+            assertTrue("Cycle between two keys is not reported", e.getMessage().contains("[K1, K0]"));
+            assertTrue("Key referring to itself is not reported", e.getMessage().contains("[K2]"));
+            assertFalse("Key without cycle is reported", e.getMessage().contains("K3"));
+        }
+    }
+
+    @Test
+    public void ordersOnlyChangedKeysAndTheirDependents() {
+        int[][] dependencies = new int[][]{{}, {0}, {1}, {}};
+        DependencyGraph graph = new DependencyGraph(MyPropsSimple.class, getConfigKeys(4), dependencies);
+        DependencyGraph updated = graph.update(new int[]{1}, new int[][]{{3}});
+        assertArrayEquals("Changed key and its dependents are not ordered correctly", new int[]{1, 2}, updated.getResolutionOrder(new int[]{1}));
+        assertEquals("Dependents of removed dependency are not updated", 0, updated.getDependents(0).length);
+        assertArrayEquals("Dependents of added dependency are not updated", new int[]{1}, updated.getDependents(3));
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void detectsCycleIntroducedByChange() {
+        int[][] dependencies = new int[][]{{}, {0}, {1}};
+        DependencyGraph graph = new DependencyGraph(MyPropsSimple.class, getConfigKeys(3), dependencies);
+        graph.update(new int[]{0}, new int[][]{{2}}).getResolutionOrder(new int[]{0});
+    }
+
+    @Test
+    public void providesDependenciesAndDependentsOfKey() {
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.MULTI_SUBSTITUTED_VAR_PROPS, MyPropsSimple.class);
+        DependencyGraph graph = propsLoader.load().getDependencyGraph();
+        assertEquals("Cannot get dependencies of key", EnumSet.of(MyPropsSimple.HOME), graph.getDependencies(MyPropsSimple.BIN_DIR));
+        assertEquals("Cannot get dependents of key", EnumSet.of(MyPropsSimple.DUMP_FILE), graph.getDependents(MyPropsSimple.BIN_DIR));
+        assertTrue("Key without variables has dependencies", graph.getDependencies(MyPropsSimple.HOME).isEmpty());
+    }
+
+    private static ConfigKey[] getConfigKeys(int count) {
+        ConfigKey[] configKeys = new ConfigKey[count];
+        for (int i = 0; i < count; i++) {
+            configKeys[i] = new ConfigKey("K" + i);
+        }
+        return configKeys;
+    }
+}
@@ -25,4 +25,16 @@ public class EnumFieldInfoTest {
         EnumFieldInfo enumFieldInfo = new EnumFieldInfo(MyPropsWithKeyNameAndIncorrectGetter.HOME, "keyName");
         enumFieldInfo.getFieldValue();
     }
+    
+    @Test
+    public void fieldIsAvailableIfFieldAndGetterPresent(){
+        assertTrue("Field with getter not available", new EnumFieldInfo(MyPropsWithAllOptionalFieldsPresent.HOME, "keyName").isAvailable());
+        assertTrue("Field with getter not available", new EnumFieldInfo(MyPropsWithAllOptionalFieldsPresent.HOME, "mandatory").isAvailable());
+    }
+    
+    @Test
+    public void fieldIsNotAvailableIfFieldOrGetterNotPresent(){
+        assertFalse("Missing field is available", new EnumFieldInfo(MyPropsWithAllOptionalFieldsPresent.HOME, "nonExistent").isAvailable());
+        assertFalse("Field with incorrect getter is available", new EnumFieldInfo(MyPropsWithKeyNameAndIncorrectGetter.HOME, "keyName").isAvailable());
+    }
 }
@@ -0,0 +1,66 @@
+package com.easy.properties;
+
+import com.easy.properties.data.Var;
+import com.easy.properties.enums.MyPropsWithNonStringVals;
+import com.easy.properties.enums.MyPropsWithType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PropertiesAllocationTest {
+    private static final int WARM_UP_CALLS = 200000;
+    private static final int MEASURED_CALLS = 2000000;
+    // Allowance for allocations made by measurement itself, must not grow with number of calls
+    private static final long ALLOCATION_BUDGET_BYTES = 4096;
+
+    private com.sun.management.ThreadMXBean threadBean;
+    private Properties typedProps;
+    private Properties untypedProps;
+
+    @Before
+    public void setUp() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        typedProps = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class).load();
+        untypedProps = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class).load();
+    }
+
+    @Test
+    public void gettersDoNotAllocate() {
+        long checksum = readAll(WARM_UP_CALLS);
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        checksum += readAll(MEASURED_CALLS);
+        long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+
+        assertTrue("Getters allocated " + allocated + " bytes in " + MEASURED_CALLS + " rounds", allocated <= ALLOCATION_BUDGET_BYTES);
+        assertTrue(checksum != 0);
+    }
+
+    private long readAll(int calls) {
+        long checksum = 0;
+        for (int i = 0; i < calls; i++) {
+            checksum += typedProps.get(MyPropsWithType.NAME).length();
+            checksum += typedProps.getInt(MyPropsWithType.TIMEOUT);
+            checksum += typedProps.getLong(MyPropsWithType.MAX_SIZE);
+            checksum += (long) typedProps.getDouble(MyPropsWithType.RATIO);
+            checksum += (long) typedProps.getFloat(MyPropsWithType.LOAD_FACTOR);
+            checksum += typedProps.getBoolean(MyPropsWithType.ENABLED) ? 1 : 0;
+            checksum += typedProps.getChar(MyPropsWithType.GRADE);
+
+            checksum += untypedProps.getByte(MyPropsWithNonStringVals.BYTE_VAL);
+            checksum += untypedProps.getLong(MyPropsWithNonStringVals.LONG_VAL);
+            checksum += (long) untypedProps.getDouble(MyPropsWithNonStringVals.DOUBLE_VAL);
+            checksum += untypedProps.getBoolean(MyPropsWithNonStringVals.BOOLEAN_VAL) ? 1 : 0;
+            checksum += untypedProps.getList(MyPropsWithNonStringVals.INTS_VALID, Integer.class).size();
+            checksum += untypedProps.getList(MyPropsWithNonStringVals.FLOATS_VALID, float.class).size();
+        }
+        return checksum;
+    }
+}
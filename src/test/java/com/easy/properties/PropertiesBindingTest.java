@@ -0,0 +1,123 @@
+package com.easy.properties;
+
+import com.easy.properties.bindings.MyConfigNonStringVals;
+import com.easy.properties.bindings.MyConfigTyped;
+import com.easy.properties.data.Var;
+import com.easy.properties.enums.MyPropsWithNonStringVals;
+import com.easy.properties.enums.MyPropsWithType;
+import com.easy.properties.exception.InvalidBindingException;
+import com.easy.properties.exception.InvalidConfigException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class PropertiesBindingTest {
+
+    interface DeclaredIntAsBoolean {
+        boolean timeout();
+    }
+
+    interface UnknownKey {
+        String unknownKey();
+    }
+
+    interface UnsupportedReturnType {
+        Object name();
+    }
+
+    interface StringsAsInt {
+        int strings();
+    }
+
+    interface CharAsBoolean {
+        @BindKey("CHAR_VAL")
+        boolean charAsBoolean();
+    }
+
+    interface WithDefaultMethod {
+        String name();
+
+        default String describe() {
+            return name();
+        }
+    }
+
+    @Test
+    public void bindsConfigToGeneratedImplementation() {
+        Properties props = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class).load();
+        MyConfigTyped config = props.bind(MyConfigTyped.class).get();
+        assertEquals("Implementation is not generated", "MyConfigTyped_ConfigBinding", config.getClass().getSimpleName());
+        assertEquals("Cannot bind int", 30, config.timeout());
+        assertEquals("Cannot bind long", 991923919918L, config.getMaxSize());
+        assertEquals("Cannot bind double", 0.75, config.ratio(), 0);
+        assertEquals("Cannot bind float as double", 1.5, config.loadFactorAsDouble(), 0);
+        assertEquals("Cannot bind wrapper", Float.valueOf(1.5f), config.loadFactor());
+        assertTrue("Cannot bind boolean", config.isEnabled());
+        assertEquals("Cannot bind char", 'A', config.grade());
+        assertEquals("Cannot bind key specified through annotation", "test", config.serviceName());
+        assertEquals("Cannot invoke default method", "test (30)", config.describe());
+    }
+
+    @Test
+    public void bindsConfigThroughProxyIfNotGenerated() {
+        Properties props = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class).load();
+        MyConfigNonStringVals config = props.bind(MyConfigNonStringVals.class).get();
+        assertTrue("Proxy is not used", Proxy.isProxyClass(config.getClass()));
+        assertEquals("Cannot bind list", Arrays.asList(10, 43, 89, 7), config.intsValid());
+        assertArrayEquals("Cannot bind array", new int[]{10, 43, 89, 7}, config.intsValidArray());
+        assertEquals("Cannot bind list of strings", Arrays.asList("apple", "ball", "cat"), config.strings());
+        assertArrayEquals("Cannot bind array of doubles", new double[]{3.89, 1.45, 9.0, 10}, config.floats(), 0);
+        assertEquals("Cannot bind byte", 45, config.byteVal());
+        assertTrue("Cannot bind boolean", config.isBooleanVal());
+        assertEquals("Cannot bind double", 8182.99123, config.doubleVal(), 0);
+        assertEquals("Cannot bind long", Long.valueOf(991923919918L), config.longVal());
+        assertEquals("Cannot bind char", Character.valueOf('X'), config.charVal());
+    }
+
+    @Test
+    public void arrayReadIsNotAffectedByChangesToArrayReadEarlier() {
+        Properties props = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class).load();
+        MyConfigNonStringVals config = props.bind(MyConfigNonStringVals.class).get();
+        config.intsValidArray()[0] = 0;
+        assertEquals("Bound array is modified", 10, config.intsValidArray()[0]);
+    }
+
+    @Test
+    public void bindingSameInterfaceAgainReturnsSameBinding() {
+        Properties props = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class).load();
+        BoundConfig<MyConfigTyped> binding = props.bind(MyConfigTyped.class);
+        assertSame("Interface is bound again", binding, props.bind(MyConfigTyped.class));
+        assertSame("Implementation is created again", binding.get(), props.bind(MyConfigTyped.class).get());
+    }
+
+    @Test(expected = InvalidBindingException.class)
+    public void invalidBindingIsThrownIfReturnTypeDiffersFromDeclaredType() {
+        new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class).load().bind(DeclaredIntAsBoolean.class);
+    }
+
+    @Test(expected = InvalidBindingException.class)
+    public void invalidBindingIsThrownIfKeyIsNotDefined() {
+        new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class).load().bind(UnknownKey.class);
+    }
+
+    @Test(expected = InvalidBindingException.class)
+    public void invalidBindingIsThrownIfReturnTypeIsNotSupported() {
+        new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class).load().bind(UnsupportedReturnType.class);
+    }
+
+    @Test(expected = InvalidBindingException.class)
+    public void invalidBindingIsThrownIfDefaultMethodCannotBeInvoked() {
+        new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class).load().bind(WithDefaultMethod.class);
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfValueCannotBeConverted() {
+        new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class).load().bind(StringsAsInt.class);
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfValueIsNotBoolean() {
+        new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class).load().bind(CharAsBoolean.class);
+    }
+}
@@ -3,12 +3,39 @@ package com.easy.properties;
 import com.easy.properties.data.Var;
 import com.easy.properties.enums.MyPropsEmpty;
 import com.easy.properties.enums.MyPropsSimple;
+import com.easy.properties.enums.MyPropsSingleLetterKey;
+import com.easy.properties.enums.MyPropsWithNonStringVals;
+import com.easy.properties.enums.MyPropsWithType;
 import com.easy.properties.exception.InvalidConfigException;
 import com.easy.properties.exception.InvalidEnumException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import static org.junit.Assert.*;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class PropertiesLoaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    interface LongConfig {
+        long longVal();
+    }
+    
     @Test
     public void loadsSimpleProperties(){
         PropertiesLoader loader = new PropertiesLoader(Var.SIMPLE_PROPS, MyPropsSimple.class);
@@ -38,4 +65,578 @@ public class PropertiesLoaderTest {
         PropertiesLoader loader = new PropertiesLoader(Var.COMMENTED_PROPS, MyPropsSimple.class);
         assertNotNull("Cannot load config file with comments", loader.load());
     }
-}
+    
+    @Test
+    public void reloadResolvesOnlyChangedKeysAndTheirDependents() throws IOException{
+        File configFile = folder.newFile("reloaded.properties");
+        write(configFile, "HOME = /home/before\nBIN_DIR = ${HOME}/bin\nDUMP_FILE = ${BIN_DIR}/dump.log\nDESCRIPTION = Unchanged $TEST");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        Properties props = loader.load();
+        String description = props.get(MyPropsSimple.DESCRIPTION);
+        
+        write(configFile, "HOME = /home/after\nBIN_DIR = ${HOME}/bin\nDUMP_FILE = ${BIN_DIR}/dump.log\nDESCRIPTION = Unchanged $TEST");
+        loader.reload(props);
+        assertEquals("Dependent of changed key is not resolved again", "/home/after/bin/dump.log", props.get(MyPropsSimple.DUMP_FILE));
+        assertSame("Value of unchanged key is not reused", description, props.get(MyPropsSimple.DESCRIPTION));
+    }
+    
+    @Test
+    public void reloadReusesSnapshotIfNothingChanged(){
+        PropertiesLoader loader = new PropertiesLoader(Var.MULTI_SUBSTITUTED_VAR_PROPS, MyPropsSimple.class);
+        Properties props = loader.load();
+        ConfigSnapshot snapshot = props.getSnapshot();
+        loader.reload(props);
+        assertSame("Snapshot is not reused for unchanged configuration", snapshot, props.getSnapshot());
+    }
+    
+    @Test
+    public void listenersAreNotifiedOnceForChangesSinceLastNotification() throws IOException{
+        File configFile = folder.newFile("listened.properties");
+        write(configFile, "HOME = /home/first\nBIN_DIR = ${HOME}/bin\nDESCRIPTION = Unchanged");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        Properties props = loader.load();
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        props.setListenerExecutor(new Executor(){
+            @Override
+            public void execute(Runnable task){
+                tasks.add(task);
+            }
+        });
+        final List<ConfigChangeEvent> binEvents = new ArrayList<ConfigChangeEvent>();
+        final List<ConfigChangeEvent> descriptionEvents = new ArrayList<ConfigChangeEvent>();
+        props.addChangeListener(new ConfigChangeListener(){
+            @Override
+            public void onChange(ConfigChangeEvent event){
+                binEvents.add(event);
+            }
+        }, MyPropsSimple.BIN_DIR);
+        props.addChangeListener(new ConfigChangeListener(){
+            @Override
+            public void onChange(ConfigChangeEvent event){
+                descriptionEvents.add(event);
+            }
+        }, EnumSet.of(MyPropsSimple.DESCRIPTION, MyPropsSimple.TEST));
+        
+        write(configFile, "HOME = /home/second\nBIN_DIR = ${HOME}/bin\nDESCRIPTION = Unchanged");
+        loader.reload(props);
+        write(configFile, "HOME = /home/third\nBIN_DIR = ${HOME}/bin\nDESCRIPTION = Unchanged");
+        loader.reload(props);
+        assertEquals("Changes pending for a listener are not combined", 1, tasks.size());
+        tasks.get(0).run();
+        
+        assertEquals("Listener is not notified once", 1, binEvents.size());
+        assertEquals("Only the registered key must be notified", EnumSet.of(MyPropsSimple.BIN_DIR), binEvents.get(0).getChangedKeys());
+        assertEquals("Incorrect old value", "/home/first/bin", binEvents.get(0).getOldValue(MyPropsSimple.BIN_DIR));
+        assertEquals("Incorrect new value", "/home/third/bin", binEvents.get(0).getNewValue(MyPropsSimple.BIN_DIR));
+        assertTrue("Listener of unchanged keys is notified", descriptionEvents.isEmpty());
+    }
+    
+    @Test
+    public void boundConfigIsReplacedOnReload() throws IOException{
+        File configFile = folder.newFile("bound.properties");
+        write(configFile, "LONG_VAL = 1");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsWithNonStringVals.class);
+        Properties props = loader.load();
+        BoundConfig<LongConfig> binding = props.bind(LongConfig.class);
+        LongConfig before = binding.get();
+        
+        write(configFile, "LONG_VAL = 2");
+        loader.reload(props);
+        assertEquals("Bound value is not reloaded", 2, binding.get().longVal());
+        assertEquals("Implementation created earlier is modified", 1, before.longVal());
+    }
+    
+    @Test
+    public void reloadFailsIfReloadedValueCannotBeBound() throws IOException{
+        File configFile = folder.newFile("unbindable.properties");
+        write(configFile, "LONG_VAL = 1");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsWithNonStringVals.class);
+        Properties props = loader.load();
+        BoundConfig<LongConfig> binding = props.bind(LongConfig.class);
+        
+        write(configFile, "LONG_VAL = one");
+        try{
+            loader.reload(props);
+            fail("Reload does not fail for value which cannot be bound");
+        }catch(InvalidConfigException e){
+            assertEquals("Configuration is partly reloaded", "1", props.get(MyPropsWithNonStringVals.LONG_VAL));
+            assertEquals("Bound value is reloaded", 1, binding.get().longVal());
+        }
+    }
+    
+    @Test
+    public void loadsLayeredSourcesInOrderOfPrecedence() throws IOException{
+        File baseFile = folder.newFile("base.properties");
+        write(baseFile, "HOME = /home/base\nBIN_DIR = ${HOME}/bin\nDESCRIPTION = Base");
+        File envFile = folder.newFile("env.properties");
+        write(envFile, "HOME = /home/env");
+        Map<String, String> overrides = new HashMap<String, String>();
+        overrides.put("DESCRIPTION", "Overridden");
+        System.setProperty("DUMP_FILE", "/tmp/dump.log");
+        try{
+            Properties props = new PropertiesLoader(MyPropsSimple.class, ConfigSources.environment(), ConfigSources.classpath("propsSimple.properties"),
+                    ConfigSources.file(baseFile.getPath()), ConfigSources.file(envFile.getPath()), ConfigSources.systemProperties(),
+                    ConfigSources.map("overrides", overrides)).load();
+            assertEquals("Value of later source is not used", "/home/env", props.get(MyPropsSimple.HOME));
+            assertEquals("Variable is not resolved across sources", "/home/env/bin", props.get(MyPropsSimple.BIN_DIR));
+            assertEquals("Value of overrides is not used", "Overridden", props.get(MyPropsSimple.DESCRIPTION));
+            assertEquals("Value of system property is not used", "/tmp/dump.log", props.get(MyPropsSimple.DUMP_FILE));
+            
+            assertEquals("Incorrect source of value", envFile.getAbsolutePath(), props.getSourceName(MyPropsSimple.HOME));
+            assertEquals("Incorrect source of value", baseFile.getAbsolutePath(), props.getSourceName(MyPropsSimple.BIN_DIR));
+            assertEquals("Incorrect source of value", "overrides", props.getSourceName(MyPropsSimple.DESCRIPTION));
+            assertEquals("Incorrect source of value", "system properties", props.getSourceName(MyPropsSimple.DUMP_FILE));
+            assertNull("Source of value not read from any source", props.getSourceName(MyPropsSimple.TEST));
+        }finally{
+            System.clearProperty("DUMP_FILE");
+        }
+    }
+    
+    @Test
+    public void loadsClasspathSource(){
+        Properties props = new PropertiesLoader(MyPropsSimple.class, ConfigSources.classpath("propsSimple.properties")).load();
+        assertEquals("Cannot load config from class path", "/home/test", props.get(MyPropsSimple.HOME));
+        assertEquals("Incorrect source of value", "classpath:propsSimple.properties", props.getSourceName(MyPropsSimple.HOME));
+    }
+    
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfStrictSourceHasUnknownKey(){
+        Map<String, String> overrides = new HashMap<String, String>();
+        overrides.put("UNKNOWN", "Some Value");
+        new PropertiesLoader(MyPropsSimple.class, ConfigSources.file(Var.SIMPLE_PROPS), ConfigSources.map("overrides", overrides)).load();
+    }
+    
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfAnySourceCannotBeRead(){
+        new PropertiesLoader(MyPropsSimple.class, ConfigSources.file(Var.SIMPLE_PROPS), ConfigSources.classpath("nonExistent.properties")).load();
+    }
+    
+    @Test
+    public void reloadTracksSourceOfUnchangedValue() throws IOException{
+        File baseFile = folder.newFile("tracked.properties");
+        write(baseFile, "HOME = /home/same");
+        Map<String, String> overrides = new HashMap<String, String>();
+        PropertiesLoader loader = new PropertiesLoader(MyPropsSimple.class, ConfigSources.file(baseFile.getPath()), ConfigSources.map("overrides", overrides));
+        Properties props = loader.load();
+        
+        overrides.put("HOME", "/home/same");
+        loader.reload(props);
+        assertEquals("Source of same value read from other source is not updated", "overrides", props.getSourceName(MyPropsSimple.HOME));
+    }
+    
+    @Test
+    public void loadsFragmentsInDirectoryInOrderOfNames() throws IOException{
+        File directory = folder.newFolder("conf.d");
+        write(new File(directory, "10-region.properties"), "HOME = /home/region\nDESCRIPTION = Region");
+        write(new File(directory, "00-base.properties"), "HOME = /home/base\nBIN_DIR = ${HOME}/bin\nDESCRIPTION = Base");
+        write(new File(directory, "20-host.properties"), "DESCRIPTION = Host");
+        write(new File(directory, "README.txt"), "Not a fragment");
+        new File(directory, "30-nested.properties").mkdir();
+        Properties props = new PropertiesLoader(MyPropsSimple.class, ConfigSources.directory(directory.getPath(), "*.properties")).load();
+        
+        assertEquals("Value of later fragment is not used", "/home/region", props.get(MyPropsSimple.HOME));
+        assertEquals("Variable is not resolved across fragments", "/home/region/bin", props.get(MyPropsSimple.BIN_DIR));
+        assertEquals("Value of last fragment is not used", "Host", props.get(MyPropsSimple.DESCRIPTION));
+        assertEquals("Incorrect fragment of value", new File(directory, "10-region.properties").getAbsolutePath(), props.getSourceName(MyPropsSimple.HOME));
+        assertEquals("Incorrect fragment of value", new File(directory, "00-base.properties").getAbsolutePath(), props.getSourceName(MyPropsSimple.BIN_DIR));
+    }
+    
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfFragmentHasUnknownKey() throws IOException{
+        File directory = folder.newFolder("invalid.d");
+        write(new File(directory, "00-base.properties"), "HOME = /home/base");
+        write(new File(directory, "10-host.properties"), "UNKNOWN = Some Value");
+        new PropertiesLoader(MyPropsSimple.class, ConfigSources.directory(directory.getPath(), "*.properties")).load();
+    }
+    
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfDirectoryNotExists(){
+        new PropertiesLoader(MyPropsSimple.class, ConfigSources.directory(Var.RESOURCE_DIR + "nonExistent.d", "*.properties")).load();
+    }
+    
+    @Test
+    public void loadsConfigFileInSpecifiedCharset() throws IOException{
+        String[] charsets = {"ISO-8859-1", "UTF-8", "UTF-16"};
+        for(String charset : charsets){
+            File configFile = folder.newFile(charset + ".properties");
+            write(configFile, "HOME = /home/caf\u00e9\r\nDESCRIPTION = Gr\u00fc\u00dfe\r\n  aus M\u00fcnchen", charset);
+            Properties props = new PropertiesLoader(configFile.getPath(), Charset.forName(charset), MyPropsSimple.class).load();
+            assertEquals("Cannot read value in " + charset, "/home/caf\u00e9", props.get(MyPropsSimple.HOME));
+            assertEquals("Cannot read multi-lined value in " + charset, "Gr\u00fc\u00dfe\naus M\u00fcnchen", props.get(MyPropsSimple.DESCRIPTION));
+        }
+    }
+    
+    @Test
+    public void loadsLargeConfigFile() throws IOException{
+        File configFile = folder.newFile("large.properties");
+        StringBuilder content = new StringBuilder("HOME = /home/test\nDESCRIPTION = line 0");
+        int lineCount = 0;
+        while(content.length() < ConfigFileParser.MAPPING_THRESHOLD){
+            content.append("\n# Comment ").append(lineCount).append("\nline ").append(++lineCount);
+        }
+        content.append("\nBIN_DIR = ${HOME}/bin=x");
+        write(configFile, content.toString());
+        Properties props = new PropertiesLoader(configFile.getPath(), Charset.forName("UTF-8"), MyPropsSimple.class).load();
+        String[] lines = props.get(MyPropsSimple.DESCRIPTION).split("\n");
+        assertEquals("Cannot read all lines of large value", lineCount + 1, lines.length);
+        assertEquals("Cannot read last line of large value", "line " + lineCount, lines[lineCount]);
+        assertEquals("Cannot read entry after large value", "/home/test/bin=x", props.get(MyPropsSimple.BIN_DIR));
+    }
+    
+    @Test
+    public void loadsLargeConfigFileInParallel() throws IOException{
+        File configFile = folder.newFile("parallel.properties");
+        StringBuilder content = new StringBuilder("HOME = /home/test");
+        int lineCount = 0;
+        while(content.length() < ConfigFileParser.MIN_CHUNK_SIZE * 8){
+            content.append("\nDESCRIPTION = line ").append(lineCount++).append("\n  continued");
+        }
+        content.append("\nBIN_DIR = ${HOME}/bin");
+        write(configFile, content.toString());
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), Charset.forName("UTF-8"), MyPropsSimple.class);
+        loader.setParallelParsing(true);
+        Properties props = loader.load();
+        assertEquals("Last value of repeated key is not retained", "line " + (lineCount - 1) + "\ncontinued", props.get(MyPropsSimple.DESCRIPTION));
+        assertEquals("Cannot read entry after chunks", "/home/test/bin", props.get(MyPropsSimple.BIN_DIR));
+    }
+    
+    @Test
+    public void configurationIsRestoredFromSnapshotCache() throws IOException{
+        File cacheFile = new File(folder.getRoot(), "types.snapshot");
+        PropertiesLoader loader = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class);
+        loader.setSnapshotCache(cacheFile.getPath());
+        Properties loaded = loader.load();
+        assertTrue("Snapshot cache is not written", cacheFile.isFile());
+
+        List<ConfigSource> sources = new ArrayList<ConfigSource>();
+        sources.add(ConfigSources.file(Var.WITH_TYPES_PROPS));
+        ConfigSnapshot cached = new SnapshotCache(cacheFile, MyPropsWithType.class).read(SnapshotCache.checksum(SourceContent.readAll(sources)));
+        assertNotNull("Snapshot cache does not match unchanged configuration", cached);
+
+        loader = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class);
+        loader.setSnapshotCache(cacheFile.getPath());
+        Properties restored = loader.load();
+        assertEquals("Incorrect int restored", loaded.getInt(MyPropsWithType.TIMEOUT), restored.getInt(MyPropsWithType.TIMEOUT));
+        assertEquals("Incorrect long restored", loaded.getLong(MyPropsWithType.MAX_SIZE), restored.getLong(MyPropsWithType.MAX_SIZE));
+        assertEquals("Incorrect double restored", loaded.getDouble(MyPropsWithType.RATIO), restored.getDouble(MyPropsWithType.RATIO), 0);
+        assertEquals("Incorrect float restored", loaded.getFloat(MyPropsWithType.LOAD_FACTOR), restored.getFloat(MyPropsWithType.LOAD_FACTOR), 0);
+        assertEquals("Incorrect boolean restored", loaded.getBoolean(MyPropsWithType.ENABLED), restored.getBoolean(MyPropsWithType.ENABLED));
+        assertEquals("Incorrect char restored", loaded.getChar(MyPropsWithType.GRADE), restored.getChar(MyPropsWithType.GRADE));
+        assertEquals("Incorrect string restored", loaded.get(MyPropsWithType.NAME), restored.get(MyPropsWithType.NAME));
+        assertEquals("Incorrect source restored", loaded.getSourceName(MyPropsWithType.NAME), restored.getSourceName(MyPropsWithType.NAME));
+    }
+
+    @Test
+    public void sourcesAreReadOnceWithSnapshotCache() throws IOException{
+        File cacheFile = new File(folder.getRoot(), "counted.snapshot");
+        final AtomicInteger reads = new AtomicInteger();
+        ConfigSource source = new ConfigSource(){
+            @Override
+            public String getName(){
+                return "counted";
+            }
+
+            @Override
+            public boolean isStrict(){
+                return true;
+            }
+
+            @Override
+            public Map<String, String> read(){
+                reads.incrementAndGet();
+                Map<String, String> values = new HashMap<String, String>();
+                values.put("HOME", "/home/counted");
+                return values;
+            }
+        };
+        PropertiesLoader loader = new PropertiesLoader(MyPropsSimple.class, source);
+        loader.setSnapshotCache(cacheFile.getPath());
+        Properties props = loader.load();
+        assertEquals("Source is not read once when snapshot cache is written", 1, reads.get());
+        loader.load();
+        assertEquals("Source is not read once when restored from snapshot cache", 2, reads.get());
+        loader.reload(props);
+        assertEquals("Source is not read once on reload", 3, reads.get());
+    }
+
+    @Test
+    public void snapshotCacheIsNotUsedIfSourceChanged() throws IOException{
+        File configFile = folder.newFile("cached.properties");
+        File cacheFile = new File(folder.getRoot(), "cached.properties.snapshot");
+        write(configFile, "HOME = /home/before\nBIN_DIR = ${HOME}/bin");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        loader.setSnapshotCache(cacheFile.getPath());
+        loader.load();
+
+        write(configFile, "HOME = /home/after\nBIN_DIR = ${HOME}/bin");
+        loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        loader.setSnapshotCache(cacheFile.getPath());
+        Properties props = loader.load();
+        assertEquals("Stale value is restored from snapshot cache", "/home/after/bin", props.get(MyPropsSimple.BIN_DIR));
+        assertEquals("Dependencies are not restored", EnumSet.of(MyPropsSimple.HOME), props.getDependencyGraph().getDependencies(MyPropsSimple.BIN_DIR));
+    }
+
+    @Test
+    public void snapshotCacheIsNotUsedIfReferredSystemPropertyChanged() throws IOException{
+        File configFile = folder.newFile("external.properties");
+        File cacheFile = new File(folder.getRoot(), "external.properties.snapshot");
+        write(configFile, "BIN_DIR = ${SNAPSHOT_CACHE_TEST_ROOT}/bin");
+        System.setProperty("SNAPSHOT_CACHE_TEST_ROOT", "/opt/before");
+        try{
+            PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+            loader.setSnapshotCache(cacheFile.getPath());
+            loader.load();
+
+            System.setProperty("SNAPSHOT_CACHE_TEST_ROOT", "/opt/after");
+            loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+            loader.setSnapshotCache(cacheFile.getPath());
+            assertEquals("Stale system property is restored from snapshot cache", "/opt/after/bin", loader.load().get(MyPropsSimple.BIN_DIR));
+        }finally{
+            System.clearProperty("SNAPSHOT_CACHE_TEST_ROOT");
+        }
+    }
+
+    @Test
+    public void reloadResolvesValuesReferringToChangedSystemProperty() throws IOException{
+        File configFile = folder.newFile("externalReload.properties");
+        write(configFile, "BIN_DIR = ${RELOAD_TEST_ROOT}/bin\nDUMP_FILE = ${BIN_DIR}/dump.out\nDESCRIPTION = Unchanged");
+        System.setProperty("RELOAD_TEST_ROOT", "/opt/before");
+        try{
+            PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+            Properties props = loader.load();
+            props.setListenerExecutor(new Executor(){
+                @Override
+                public void execute(Runnable task){
+                    task.run();
+                }
+            });
+            final List<ConfigChangeEvent> events = new ArrayList<ConfigChangeEvent>();
+            props.addChangeListener(new ConfigChangeListener(){
+                @Override
+                public void onChange(ConfigChangeEvent event){
+                    events.add(event);
+                }
+            }, MyPropsSimple.DUMP_FILE);
+            String description = props.get(MyPropsSimple.DESCRIPTION);
+
+            System.setProperty("RELOAD_TEST_ROOT", "/opt/after");
+            loader.reload(props);
+            assertEquals("Value referring to changed system property is not resolved again", "/opt/after/bin", props.get(MyPropsSimple.BIN_DIR));
+            assertEquals("Dependent value is not resolved again", "/opt/after/bin/dump.out", props.get(MyPropsSimple.DUMP_FILE));
+            assertSame("Unrelated value is resolved again", description, props.get(MyPropsSimple.DESCRIPTION));
+            assertEquals("Listener is not notified of changed system property", 1, events.size());
+        }finally{
+            System.clearProperty("RELOAD_TEST_ROOT");
+        }
+    }
+
+    @Test
+    public void lazyReloadResolvesExpandedValuesReferringToChangedSystemProperty() throws IOException{
+        File configFile = folder.newFile("externalLazyReload.properties");
+        write(configFile, "BIN_DIR = ${RELOAD_TEST_ROOT}/bin");
+        System.setProperty("RELOAD_TEST_ROOT", "/opt/before");
+        try{
+            PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+            loader.setLazySubstitution(true);
+            Properties props = loader.load();
+            assertEquals("Incorrect value before reload", "/opt/before/bin", props.get(MyPropsSimple.BIN_DIR));
+
+            System.setProperty("RELOAD_TEST_ROOT", "/opt/after");
+            loader.reload(props);
+            assertEquals("Expanded value referring to changed system property is not resolved again", "/opt/after/bin",
+                    props.get(MyPropsSimple.BIN_DIR));
+        }finally{
+            System.clearProperty("RELOAD_TEST_ROOT");
+        }
+    }
+
+    @Test
+    public void corruptSnapshotCacheIsReplaced() throws IOException{
+        File configFile = folder.newFile("corrupt.properties");
+        File cacheFile = new File(folder.getRoot(), "corrupt.properties.snapshot");
+        write(configFile, "HOME = /home/test");
+        write(cacheFile, "Not a snapshot");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        loader.setSnapshotCache(cacheFile.getPath());
+        assertEquals("Configuration is not loaded from source", "/home/test", loader.load().get(MyPropsSimple.HOME));
+
+        List<ConfigSource> sources = new ArrayList<ConfigSource>();
+        sources.add(ConfigSources.file(configFile.getPath()));
+        assertNotNull("Corrupt snapshot cache is not replaced", new SnapshotCache(cacheFile, MyPropsSimple.class).read(SnapshotCache.checksum(SourceContent.readAll(sources))));
+    }
+
+    @Test
+    public void lazySubstitutionExpandsValueWhenFirstRead() throws IOException{
+        File configFile = folder.newFile("lazy.properties");
+        write(configFile, "HOME = /home/lazy\nBIN_DIR = ${HOME}/bin\nDUMP_FILE = ${BIN_DIR}/dump.out");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        loader.setLazySubstitution(true);
+        Properties props = loader.load();
+        ConfigSnapshot snapshot = props.getSnapshot();
+        assertTrue("Configuration is not loaded in lazy mode", snapshot.isLazy());
+        assertNull("Value is expanded before being read", snapshot.getExpandedValue(MyPropsSimple.DUMP_FILE.ordinal()));
+        assertNull("Referred value is expanded before being read", snapshot.getExpandedValue(MyPropsSimple.BIN_DIR.ordinal()));
+
+        assertEquals("Incorrect value expanded", "/home/lazy/bin/dump.out", props.get(MyPropsSimple.DUMP_FILE));
+        assertEquals("Referred value is not expanded", "/home/lazy/bin", snapshot.getExpandedValue(MyPropsSimple.BIN_DIR.ordinal()));
+        assertSame("Value is expanded again", props.get(MyPropsSimple.DUMP_FILE), props.get(MyPropsSimple.DUMP_FILE));
+    }
+
+    @Test
+    public void lazySubstitutionLoadsSameValuesAsEagerSubstitution(){
+        PropertiesLoader loader = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class);
+        loader.setLazySubstitution(true);
+        Properties lazy = loader.load();
+        Properties eager = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class).load();
+        assertEquals("Incorrect int loaded", eager.getInt(MyPropsWithType.TIMEOUT), lazy.getInt(MyPropsWithType.TIMEOUT));
+        assertEquals("Incorrect long loaded", eager.getLong(MyPropsWithType.MAX_SIZE), lazy.getLong(MyPropsWithType.MAX_SIZE));
+        assertEquals("Incorrect double loaded", eager.getDouble(MyPropsWithType.RATIO), lazy.getDouble(MyPropsWithType.RATIO), 0);
+        assertEquals("Incorrect boolean loaded", eager.getBoolean(MyPropsWithType.ENABLED), lazy.getBoolean(MyPropsWithType.ENABLED));
+        assertEquals("Incorrect char loaded", eager.getChar(MyPropsWithType.GRADE), lazy.getChar(MyPropsWithType.GRADE));
+        assertEquals("Incorrect string loaded", eager.get(MyPropsWithType.NAME), lazy.get(MyPropsWithType.NAME));
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfCyclicDependencyInLazyMode(){
+        PropertiesLoader loader = new PropertiesLoader(Var.WITH_CYCLIC_DEPENDENCY_PROPS, MyPropsSingleLetterKey.class);
+        loader.setLazySubstitution(true);
+        loader.load();
+    }
+
+    @Test
+    public void lazyReloadRetainsExpandedUnchangedValues() throws IOException{
+        File configFile = folder.newFile("lazyReload.properties");
+        write(configFile, "HOME = /home/before\nBIN_DIR = ${HOME}/bin\nDESCRIPTION = Unchanged");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        loader.setLazySubstitution(true);
+        Properties props = loader.load();
+        assertEquals("Incorrect value before reload", "/home/before/bin", props.get(MyPropsSimple.BIN_DIR));
+        String description = props.get(MyPropsSimple.DESCRIPTION);
+
+        write(configFile, "HOME = /home/after\nBIN_DIR = ${HOME}/bin\nDESCRIPTION = Unchanged");
+        loader.reload(props);
+        ConfigSnapshot snapshot = props.getSnapshot();
+        assertTrue("Configuration is not reloaded in lazy mode", snapshot.isLazy());
+        assertSame("Expanded unchanged value is not retained", description, snapshot.getExpandedValue(MyPropsSimple.DESCRIPTION.ordinal()));
+        assertEquals("Changed value is not expanded again", "/home/after/bin", props.get(MyPropsSimple.BIN_DIR));
+    }
+
+    @Test
+    public void lazyReloadExpandsOnlyChangedValuesListenedTo() throws IOException{
+        File configFile = folder.newFile("lazyListened.properties");
+        write(configFile, "HOME = /home/before\nBIN_DIR = ${HOME}/bin\nDUMP_FILE = ${BIN_DIR}/dump.out\nDESCRIPTION = Before");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        loader.setLazySubstitution(true);
+        Properties props = loader.load();
+        props.setListenerExecutor(new Executor(){
+            @Override
+            public void execute(Runnable task){
+                task.run();
+            }
+        });
+        final List<ConfigChangeEvent> events = new ArrayList<ConfigChangeEvent>();
+        props.addChangeListener(new ConfigChangeListener(){
+            @Override
+            public void onChange(ConfigChangeEvent event){
+                events.add(event);
+            }
+        }, MyPropsSimple.BIN_DIR);
+
+        write(configFile, "HOME = /home/after\nBIN_DIR = ${HOME}/bin\nDUMP_FILE = ${BIN_DIR}/dump.out\nDESCRIPTION = After");
+        loader.reload(props);
+        assertEquals("Incorrect number of events", 1, events.size());
+        assertEquals("Incorrect new value in event", "/home/after/bin", events.get(0).getNewValue(MyPropsSimple.BIN_DIR));
+        ConfigSnapshot snapshot = props.getSnapshot();
+        assertNull("Changed value not listened to is expanded", snapshot.getExpandedValue(MyPropsSimple.DESCRIPTION.ordinal()));
+        assertNull("Dependent value not listened to is expanded", snapshot.getExpandedValue(MyPropsSimple.DUMP_FILE.ordinal()));
+    }
+
+    @Test
+    public void lazySnapshotIsCachedWithoutExpandingValues() throws IOException{
+        File configFile = folder.newFile("lazyCached.properties");
+        write(configFile, "HOME = /home/cached\nBIN_DIR = ${HOME}/bin\nDUMP_FILE = ${BIN_DIR}/dump.out");
+        File cacheFile = new File(folder.getRoot(), "lazy.snapshot");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        loader.setLazySubstitution(true);
+        loader.setSnapshotCache(cacheFile.getPath());
+        Properties loaded = loader.load();
+        assertNull("Value is expanded for writing snapshot cache", loaded.getSnapshot().getExpandedValue(MyPropsSimple.DUMP_FILE.ordinal()));
+
+        List<ConfigSource> sources = new ArrayList<ConfigSource>();
+        sources.add(ConfigSources.file(configFile.getPath()));
+        ConfigSnapshot cached = new SnapshotCache(cacheFile, MyPropsSimple.class).read(SnapshotCache.checksum(SourceContent.readAll(sources)));
+        assertTrue("Snapshot cache is not restored in lazy mode", cached.isLazy());
+        assertNull("Value not expanded is cached expanded", cached.getExpandedValue(MyPropsSimple.DUMP_FILE.ordinal()));
+        assertEquals("Incorrect value expanded from snapshot cache", "/home/cached/bin/dump.out", cached.getValue(MyPropsSimple.DUMP_FILE.ordinal()));
+    }
+
+    @Test
+    public void loadReturnsNewInstanceNotAffectedByLaterLoads() throws IOException{
+        File configFile = folder.newFile("independent.properties");
+        write(configFile, "HOME = /home/first");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        Properties first = loader.load();
+
+        write(configFile, "HOME = /home/second");
+        Properties second = loader.load();
+        assertNotSame("Same instance is loaded again", first, second);
+        assertEquals("Earlier instance is changed by later load", "/home/first", first.get(MyPropsSimple.HOME));
+        assertEquals("Incorrect value loaded later", "/home/second", second.get(MyPropsSimple.HOME));
+    }
+
+    @Test
+    public void loadsConcurrentlyThroughSameLoader() throws Exception{
+        final PropertiesLoader loader = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class);
+        final Properties expected = loader.load();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try{
+            List<Future<Properties>> loads = new ArrayList<Future<Properties>>();
+            for(int i = 0; i < 64; i++){
+                loads.add(executor.submit(new Callable<Properties>(){
+                    @Override
+                    public Properties call(){
+                        return loader.load();
+                    }
+                }));
+            }
+            for(Future<Properties> load : loads){
+                Properties props = load.get();
+                assertEquals("Incorrect int loaded concurrently", expected.getInt(MyPropsWithType.TIMEOUT), props.getInt(MyPropsWithType.TIMEOUT));
+                assertEquals("Incorrect string loaded concurrently", expected.get(MyPropsWithType.NAME), props.get(MyPropsWithType.NAME));
+            }
+        }finally{
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void versionChangesOnlyIfReloadedWithChanges() throws IOException{
+        File configFile = folder.newFile("version.properties");
+        write(configFile, "HOME = /home/before\nBIN_DIR = ${HOME}/bin");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        Properties props = loader.load();
+        ConfigValues<MyPropsSimple> values = props.getAll(EnumSet.of(MyPropsSimple.HOME, MyPropsSimple.BIN_DIR));
+
+        loader.reload(props);
+        assertEquals("Version changed without any change", values.getVersion(), props.getVersion());
+
+        write(configFile, "HOME = /home/after\nBIN_DIR = ${HOME}/bin");
+        loader.reload(props);
+        assertNotEquals("Version not changed on reloading changes", values.getVersion(), props.getVersion());
+        assertEquals("Values read earlier are changed", "/home/before/bin", values.get(MyPropsSimple.BIN_DIR));
+        assertEquals("Incorrect value read after reload", "/home/after/bin", props.getAll(EnumSet.of(MyPropsSimple.BIN_DIR)).get(MyPropsSimple.BIN_DIR));
+    }
+
+    private static void write(File file, String content) throws IOException{
+        write(file, content, "UTF-8");
+    }
+    
+    private static void write(File file, String content, String charset) throws IOException{
+        FileOutputStream out = new FileOutputStream(file);
+        try{
+            out.write(content.getBytes(charset));
+        }finally{
+            out.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.easy.properties;
+
+import com.easy.properties.enums.MyPropsSimple;
+import com.easy.properties.enums.MyPropsWithDefaultValue;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PropertiesMetricsTest {
+
+    @Test
+    public void timesEveryPhaseOfLoading() {
+        PropertiesMetrics metrics = new PropertiesMetrics(MyPropsSimple.class);
+        PropertiesLoader loader = new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", Collections.singletonMap("HOME", "/home/test")));
+        loader.setMetrics(metrics);
+        loader.load();
+
+        assertEquals("Incorrect load count", 1, metrics.getLoadCount());
+        long loadNanos = 0;
+        for (ConfigMetrics.LoadPhase phase : ConfigMetrics.LoadPhase.values()) {
+            assertTrue("Phase " + phase + " is not timed", metrics.getLastLoadNanos(phase) >= 0);
+            loadNanos += metrics.getLastLoadNanos(phase);
+        }
+        assertTrue("Load is not timed", loadNanos > 0);
+        assertEquals("Incorrect phases timed", Arrays.asList("KEY_INITIALIZATION", "SOURCE_READ", "VALIDATION", "SUBSTITUTION"),
+                Arrays.asList(metrics.getTotalLoadNanos().keySet().toArray()));
+    }
+
+    @Test
+    public void countsReadsOfEveryKey() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", "/home/test");
+        values.put("BIN_DIR", "${HOME}/bin, /usr/bin");
+        PropertiesMetrics metrics = new PropertiesMetrics(MyPropsSimple.class);
+        PropertiesLoader loader = new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", values));
+        loader.setMetrics(metrics);
+        Properties props = loader.load();
+        props.get(MyPropsSimple.HOME);
+        props.get(MyPropsSimple.HOME);
+        props.getList(MyPropsSimple.BIN_DIR, String.class);
+
+        assertEquals("Incorrect read count of key", 2, metrics.getReadCount(MyPropsSimple.HOME));
+        assertEquals("Incorrect read count of list", 1, metrics.getReadCount(MyPropsSimple.BIN_DIR));
+        assertEquals("Incorrect total read count", 3, metrics.getReadCount());
+        assertEquals("Incorrect unread keys", Arrays.asList("DUMP_FILE", "DESCRIPTION", "TEST"), Arrays.asList(metrics.getUnreadKeys()));
+
+        loader.setMetrics(null);
+        loader.load().get(MyPropsSimple.HOME);
+        assertEquals("Read is counted after disabling metrics", 2, metrics.getReadCount(MyPropsSimple.HOME));
+    }
+
+    @Test
+    public void countsFallbacks() {
+        System.setProperty("DUMP_FILE", "/tmp/dump.out");
+        try {
+            PropertiesMetrics metrics = new PropertiesMetrics(MyPropsSimple.class);
+            PropertiesLoader loader = new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", Collections.singletonMap("HOME", "/home/test")));
+            loader.setMetrics(metrics);
+            loader.load();
+            assertEquals("Incorrect system property fallback count", 1, metrics.getFallbackCount(ConfigMetrics.Fallback.SYSTEM_PROPERTY));
+            assertEquals("Incorrect default value count", 0, metrics.getFallbackCount(ConfigMetrics.Fallback.DEFAULT_VALUE));
+        } finally {
+            System.clearProperty("DUMP_FILE");
+        }
+
+        PropertiesMetrics metrics = new PropertiesMetrics(MyPropsWithDefaultValue.class);
+        PropertiesLoader loader = new PropertiesLoader(MyPropsWithDefaultValue.class, ConfigSources.map("values", Collections.singletonMap("HOME", "/home/test")));
+        loader.setMetrics(metrics);
+        loader.load();
+        assertEquals("Incorrect default value count", 2, metrics.getFallbackCount(ConfigMetrics.Fallback.DEFAULT_VALUE));
+    }
+
+    @Test
+    public void countsVariablesSubstitutedFromSystemProperties() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", "${METRICS_TEST_ROOT}/home");
+        values.put("BIN_DIR", "${HOME}/bin");
+        System.setProperty("METRICS_TEST_ROOT", "/opt");
+        try {
+            PropertiesMetrics metrics = new PropertiesMetrics(MyPropsSimple.class);
+            PropertiesLoader loader = new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", values));
+            loader.setMetrics(metrics);
+            assertEquals("Incorrect value substituted", "/opt/home/bin", loader.load().get(MyPropsSimple.BIN_DIR));
+            assertEquals("Incorrect system property fallback count", 1, metrics.getFallbackCount(ConfigMetrics.Fallback.SYSTEM_PROPERTY));
+        } finally {
+            System.clearProperty("METRICS_TEST_ROOT");
+        }
+    }
+
+    @Test
+    public void exposesMetricsThroughJmx() throws Exception {
+        PropertiesMetrics metrics = new PropertiesMetrics(MyPropsSimple.class);
+        PropertiesLoader loader = new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", Collections.singletonMap("HOME", "/home/test")));
+        loader.setMetrics(metrics);
+        loader.load().get(MyPropsSimple.HOME);
+
+        ObjectName name = metrics.register();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals("Incorrect load count exposed", 1L, server.getAttribute(name, "LoadCount"));
+            Map<String, Long> readCounts = (Map<String, Long>) server.getAttribute(name, "ReadCounts");
+            assertEquals("Incorrect read count exposed", Long.valueOf(1), readCounts.get("HOME"));
+
+            server.invoke(name, "reset", null, null);
+            assertEquals("Counters are not reset", 0, metrics.getReadCount());
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse("MBean is not unregistered", ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,108 @@
+package com.easy.properties;
+
+import com.easy.properties.enums.MyPropsSimple;
+import com.easy.properties.exception.InvalidConfigException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PropertiesOverrideTest {
+    private Map<String, String> values;
+    private PropertiesLoader loader;
+    private Properties props;
+
+    @Before
+    public void setUp() {
+        values = new HashMap<String, String>();
+        values.put("HOME", "/home/test");
+        values.put("BIN_DIR", "${HOME}/bin");
+        values.put("DESCRIPTION", "Loaded from map");
+        loader = new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", values));
+        props = loader.load();
+    }
+
+    @Test
+    public void overrideResolvesOnlyReferringKeys() {
+        String description = props.get(MyPropsSimple.DESCRIPTION);
+        props.override(MyPropsSimple.HOME, "/opt/test");
+        assertEquals("Value is not overridden", "/opt/test", props.get(MyPropsSimple.HOME));
+        assertEquals("Referring key is not resolved again", "/opt/test/bin", props.get(MyPropsSimple.BIN_DIR));
+        assertEquals("Incorrect source of overridden value", "override", props.getSourceName(MyPropsSimple.HOME));
+        assertSame("Unrelated key is resolved again", description, props.get(MyPropsSimple.DESCRIPTION));
+    }
+
+    @Test
+    public void removingOverrideRevertsToLoadedValue() {
+        props.override(MyPropsSimple.HOME, "/opt/test");
+        // Not to be read before reloading
+        values.put("HOME", "/home/changed");
+        props.removeOverride(MyPropsSimple.HOME);
+        assertEquals("Value is not reverted", "/home/test", props.get(MyPropsSimple.HOME));
+        assertEquals("Referring key is not reverted", "/home/test/bin", props.get(MyPropsSimple.BIN_DIR));
+        assertEquals("Incorrect source of reverted value", "values", props.getSourceName(MyPropsSimple.HOME));
+    }
+
+    @Test
+    public void overrideNotifiesListenersOfChangedKeys() {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        props.setListenerExecutor(new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                tasks.add(task);
+            }
+        });
+        final List<ConfigChangeEvent> events = new ArrayList<ConfigChangeEvent>();
+        props.addChangeListener(new ConfigChangeListener() {
+            @Override
+            public void onChange(ConfigChangeEvent event) {
+                events.add(event);
+            }
+        });
+        props.override(MyPropsSimple.HOME, "/opt/test");
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        assertEquals("Incorrect number of events", 1, events.size());
+        assertEquals("Incorrect keys changed", new HashSet<Enum>(Arrays.<Enum>asList(MyPropsSimple.HOME, MyPropsSimple.BIN_DIR)),
+                events.get(0).getChangedKeys());
+        assertEquals("Incorrect new value in event", "/opt/test/bin", events.get(0).getNewValue(MyPropsSimple.BIN_DIR));
+    }
+
+    @Test
+    public void overrideIsRetainedOnReload() {
+        props.override(MyPropsSimple.HOME, "/opt/test");
+        long version = props.getVersion();
+        loader.reload(props);
+        assertEquals("Version changed on reload without any change", version, props.getVersion());
+
+        values.put("HOME", "/home/changed");
+        values.put("DESCRIPTION", "Changed in map");
+        loader.reload(props);
+        assertEquals("Override is lost on reload", "/opt/test", props.get(MyPropsSimple.HOME));
+        assertEquals("Referring key is not resolved with override", "/opt/test/bin", props.get(MyPropsSimple.BIN_DIR));
+        assertEquals("Changed value is not reloaded", "Changed in map", props.get(MyPropsSimple.DESCRIPTION));
+
+        props.removeOverride(MyPropsSimple.HOME);
+        assertEquals("Value is not reverted to reloaded one", "/home/changed/bin", props.get(MyPropsSimple.BIN_DIR));
+    }
+
+    @Test
+    public void invalidOverrideChangesNothing() {
+        try {
+            props.override(MyPropsSimple.HOME, "${BIN_DIR}");
+            fail("Cyclic dependency through override is not detected");
+        } catch (InvalidConfigException e) {
+            assertEquals("Value is changed by invalid override", "/home/test", props.get(MyPropsSimple.HOME));
+            assertEquals("Source is changed by invalid override", "values", props.getSourceName(MyPropsSimple.HOME));
+        }
+        loader.reload(props);
+        assertEquals("Invalid override is applied on reload", "/home/test/bin", props.get(MyPropsSimple.BIN_DIR));
+    }
+}
@@ -8,9 +8,14 @@ import com.easy.properties.enums.MyPropsWithDefaultValue;
 import com.easy.properties.enums.MyPropsWithKeyName;
 import com.easy.properties.enums.MyPropsWithMandatory;
 import com.easy.properties.enums.MyPropsWithNonStringVals;
+import com.easy.properties.enums.MyPropsWithType;
 import com.easy.properties.exception.InvalidConfigException;
+import com.easy.properties.exception.InvalidEnumException;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -51,6 +56,13 @@ public class PropertiesTest {
         assertEquals("Cannot read value from simple config", TEST_HOME_VAL, props.get(MyPropsSimple.HOME));
     }
     
+    @Test
+    public void readsConfigValueContainingSeparator(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_SEPARATOR_IN_VALUE_PROPS, MyPropsSimple.class);
+        Properties props = propsLoader.load();
+        assertEquals("Cannot read value containing separator", "Connection string is host=localhost;port=5432", props.get(MyPropsSimple.DESCRIPTION));
+    }
+    
     @Test
     public void readsConfigValueSubstituted(){
         PropertiesLoader propsLoader = new PropertiesLoader(Var.SUBSTITUTED_VAR_PROPS, MyPropsSimple.class);
@@ -65,6 +77,16 @@ public class PropertiesTest {
         assertEquals("Cannot get multi-substituted value from configuration", TEST_HOME_VAL + "/bin/dump.log", props.get(MyPropsSimple.DUMP_FILE));
     }
     
+    @Test
+    public void readsConfigValueWithSharedVariables(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_SHARED_VARIABLE_PROPS, MyPropsSimple.class);
+        Properties props = propsLoader.load();
+        assertEquals("Cannot get value having same variable more than once", TEST_HOME_VAL + "/bin:" + TEST_HOME_VAL + ":" + TEST_HOME_VAL + "/dump.log", 
+                props.get(MyPropsSimple.DUMP_FILE));
+        assertEquals("Cannot get value having dollar sign which is not a variable", "Costs $5 for " + TEST_HOME_VAL + "/bin and " + TEST_HOME_VAL + "/bin", 
+                props.get(MyPropsSimple.DESCRIPTION));
+    }
+    
     @Test
     public void readsMultilinedConfigValue(){
         PropertiesLoader propsLoader = new PropertiesLoader(Var.MULTILINED_VAR_PROPS, MyPropsSimple.class);
@@ -83,6 +105,13 @@ public class PropertiesTest {
         assertEquals("Cannot get without-curly-brace variable value from configguration", TEST_HOME_VAL + "/bin", props.get(MyPropsSimple.BIN_DIR));
     }
     
+    @Test(expected = InvalidEnumException.class)
+    public void invalidEnumIsThrownIfKeyFromDifferentEnum(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.SIMPLE_PROPS, MyPropsSimple.class);
+        Properties props = propsLoader.load();
+        props.get(MyPropsWithDefaultValue.HOME);
+    }
+    
     @Test(expected = InvalidConfigException.class)
     public void invalidConfigIsThrownIfUnknownKeyInProps(){
         PropertiesLoader propsLoader = new PropertiesLoader(Var.UNKNOWN_KEY_VAR_PROPS, MyPropsSimple.class);
@@ -176,6 +205,51 @@ public class PropertiesTest {
                 props.getList(MyPropsWithNonStringVals.INTS_VALID_WITH_SPECIAL_CHARACTER_DELIMITER, Integer.class, "|"));
     }
     
+    @Test
+    public void readsArraysOfPrimitivesInConfig(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class);
+        Properties props = propsLoader.load();
+        assertArrayEquals("Cannot get array of integers from config", new int[]{10, 43, 89, 7}, props.getIntArray(MyPropsWithNonStringVals.INTS_VALID));
+        assertArrayEquals("Cannot get array of longs with special character as delimiter from config", new long[]{10, 43, 89, 7}, 
+                props.getLongArray(MyPropsWithNonStringVals.INTS_VALID_WITH_SPECIAL_CHARACTER_DELIMITER, "|"));
+        assertArrayEquals("Cannot get array of doubles from config", new double[]{3.89, 1.45, 9.0, 10}, 
+                props.getDoubleArray(MyPropsWithNonStringVals.FLOATS_VALID), 0);
+    }
+    
+    @Test
+    public void arrayReadIsNotAffectedByChangesToArrayReadEarlier(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class);
+        Properties props = propsLoader.load();
+        props.getIntArray(MyPropsWithNonStringVals.INTS_VALID)[0] = -1;
+        assertEquals("Array read earlier is shared", 10, props.getIntArray(MyPropsWithNonStringVals.INTS_VALID)[0]);
+    }
+    
+    @Test
+    public void listIsReadOnceForSameTypeAndDelimiter(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class);
+        Properties props = propsLoader.load();
+        List<Integer> list = props.getList(MyPropsWithNonStringVals.INTS_VALID, Integer.class);
+        List<Long> longList = props.getList(MyPropsWithNonStringVals.INTS_VALID, Long.class);
+        assertSame("List is not reused", list, props.getList(MyPropsWithNonStringVals.INTS_VALID, Integer.class));
+        assertSame("List of other type is not reused", longList, props.getList(MyPropsWithNonStringVals.INTS_VALID, Long.class));
+        assertEquals("Incorrect list for other delimiter", Arrays.asList("10,43, 89,,7,"), 
+                props.getList(MyPropsWithNonStringVals.INTS_VALID, String.class, ";"));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void listCannotBeModified(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class);
+        Properties props = propsLoader.load();
+        props.getList(MyPropsWithNonStringVals.STRINGS, String.class).add("dog");
+    }
+    
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfArrayHasIllegalValue(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class);
+        Properties props = propsLoader.load();
+        props.getIntArray(MyPropsWithNonStringVals.INTS_INVALID);
+    }
+    
     @Test(expected = InvalidConfigException.class)
     public void invalidConfigIsThrownIfConfigListHasIllegalValue(){
         PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_NON_STRING_VALS_PROPS, MyPropsWithNonStringVals.class);
@@ -200,4 +274,59 @@ public class PropertiesTest {
         assertEquals("Cannot get double value from config", 8182.99123, props.getDouble(MyPropsWithNonStringVals.DOUBLE_VAL), 0.001);
         assertEquals("Cannot get long value from config", 991923919918L, props.getLong(MyPropsWithNonStringVals.LONG_VAL));
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void readsValuesOfDeclaredType(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class);
+        Properties props = propsLoader.load();
+        assertEquals("Cannot get declared int value from config", 30, props.getInt(MyPropsWithType.TIMEOUT));
+        assertEquals("Cannot get declared int value as long from config", 30L, props.getLong(MyPropsWithType.TIMEOUT));
+        assertEquals("Cannot get declared long value from config", 991923919918L, props.getLong(MyPropsWithType.MAX_SIZE));
+        assertEquals("Cannot get declared double value from config", 0.75, props.getDouble(MyPropsWithType.RATIO), 0.0);
+        assertEquals("Cannot get declared float value from config", 1.5f, props.getFloat(MyPropsWithType.LOAD_FACTOR), 0.0f);
+        assertEquals("Cannot get declared boolean value from config", true, props.getBoolean(MyPropsWithType.ENABLED));
+        assertEquals("Cannot get declared char value from config", 'A', props.getChar(MyPropsWithType.GRADE));
+        assertEquals("Cannot get string value of typed key from config", "30", props.get(MyPropsWithType.TIMEOUT));
+    }
+    
+    @Test
+    public void readsValuesOfSeveralKeysAtOnce(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class);
+        Properties props = propsLoader.load();
+        ConfigValues<MyPropsWithType> values = props.getAll(EnumSet.of(MyPropsWithType.TIMEOUT, MyPropsWithType.ENABLED, MyPropsWithType.NAME));
+        assertEquals("Cannot get all the keys at once", EnumSet.of(MyPropsWithType.TIMEOUT, MyPropsWithType.ENABLED, MyPropsWithType.NAME),
+                values.getValues().keySet());
+        assertEquals("Cannot get declared int value among keys", 30, values.get(MyPropsWithType.TIMEOUT));
+        assertEquals("Cannot get declared boolean value among keys", Boolean.TRUE, values.get(MyPropsWithType.ENABLED));
+        assertEquals("Cannot get string value among keys", props.get(MyPropsWithType.NAME), values.get(MyPropsWithType.NAME));
+        assertEquals("Incorrect version of values", props.getVersion(), values.getVersion());
+    }
+    
+    @Test(expected = InvalidEnumException.class)
+    public void invalidEnumIsThrownIfKeysOfOtherEnumAreReadAtOnce(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class);
+        propsLoader.load().getAll(EnumSet.of(MyPropsSimple.HOME));
+    }
+    
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfTypedValueIsIncorrect(){
+        PropertiesLoader propsLoader = new PropertiesLoader(Var.WITH_INVALID_TYPE_PROPS, MyPropsWithType.class);
+        propsLoader.load();
+    }
+    
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfTypedBooleanIsNeitherTrueNorFalse(){
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("ENABLED", "yes");
+        PropertiesLoader propsLoader = new PropertiesLoader(MyPropsWithType.class, ConfigSources.map("values", values));
+        propsLoader.load();
+    }
+    
+    @Test
+    public void undeclaredBooleanIsFalseIfNeitherTrueNorFalse(){
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("DESCRIPTION", "yes");
+        Properties props = new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", values)).load();
+        assertFalse("Boolean value of undeclared key is not parsed leniently", props.getBoolean(MyPropsSimple.DESCRIPTION));
+    }
+}
@@ -0,0 +1,145 @@
+package com.easy.properties;
+
+import com.easy.properties.enums.MyPropsSimple;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class PropertiesWatcherTest {
+    private static final long TIMEOUT_MILLIS = 20000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reloadsChangedConfigFile() throws Exception {
+        File configFile = folder.newFile("watched.properties");
+        write(configFile, "HOME = /home/before\nBIN_DIR = ${HOME}/bin");
+        PropertiesWatcher watcher = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class).watch();
+        try {
+            Properties props = watcher.getProperties();
+            assertEquals("Cannot read value before change", "/home/before/bin", props.get(MyPropsSimple.BIN_DIR));
+
+            write(configFile, "HOME = /home/after\nBIN_DIR = ${HOME}/bin");
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (!"/home/after/bin".equals(props.get(MyPropsSimple.BIN_DIR)) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("Changed config file is not reloaded", "/home/after/bin", props.get(MyPropsSimple.BIN_DIR));
+        } finally {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void retainsLastValuesIfChangedConfigFileIsInvalid() throws Exception {
+        File configFile = folder.newFile("invalid.properties");
+        write(configFile, "HOME = /home/before");
+        PropertiesWatcher watcher = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class).watch();
+        try {
+            write(configFile, "HOME = /home/after\nUNKNOWN = Some Value");
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (watcher.getLastReloadError() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertNotNull("Error in changed config file is not reported", watcher.getLastReloadError());
+            assertEquals("Values loaded last are not retained", "/home/before", watcher.getProperties().get(MyPropsSimple.HOME));
+        } finally {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void reloadsIfAnyOfConfigFilesChanges() throws Exception {
+        File baseFile = folder.newFile("base.properties");
+        write(baseFile, "HOME = /home/base\nBIN_DIR = ${HOME}/bin");
+        File overridingFile = folder.newFolder("env").toPath().resolve("env.properties").toFile();
+        write(overridingFile, "HOME = /home/before");
+        PropertiesWatcher watcher = new PropertiesLoader(MyPropsSimple.class, ConfigSources.file(baseFile.getPath()),
+                ConfigSources.file(overridingFile.getPath())).watch();
+        try {
+            Properties props = watcher.getProperties();
+            assertEquals("Cannot read value before change", "/home/before/bin", props.get(MyPropsSimple.BIN_DIR));
+
+            write(overridingFile, "HOME = /home/after");
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (!"/home/after/bin".equals(props.get(MyPropsSimple.BIN_DIR)) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("Change to overriding config file is not reloaded", "/home/after/bin", props.get(MyPropsSimple.BIN_DIR));
+        } finally {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void reloadsChangedConfigFileWhileOtherFileKeepsChanging() throws Exception {
+        final File configFile = folder.newFile("busy.properties");
+        write(configFile, "HOME = /home/before\nBIN_DIR = ${HOME}/bin");
+        final File otherFile = folder.newFile("busy.log");
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; writing.get(); i++) {
+                        write(otherFile, "Line " + i);
+                        Thread.sleep(PropertiesWatcher.QUIET_PERIOD_MILLIS / 5);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        writer.start();
+        PropertiesWatcher watcher = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class).watch();
+        try {
+            Properties props = watcher.getProperties();
+            write(configFile, "HOME = /home/after\nBIN_DIR = ${HOME}/bin");
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (!"/home/after/bin".equals(props.get(MyPropsSimple.BIN_DIR)) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("Changed config file is not reloaded while other file keeps changing", "/home/after/bin",
+                    props.get(MyPropsSimple.BIN_DIR));
+        } finally {
+            writing.set(false);
+            writer.join();
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void reloadsIfFragmentIsAddedToDirectory() throws Exception {
+        File directory = folder.newFolder("conf.d");
+        write(new File(directory, "00-base.properties"), "HOME = /home/base\nBIN_DIR = ${HOME}/bin");
+        PropertiesWatcher watcher = new PropertiesLoader(MyPropsSimple.class, ConfigSources.directory(directory.getPath(), "*.properties")).watch();
+        try {
+            Properties props = watcher.getProperties();
+            assertEquals("Cannot read value before change", "/home/base/bin", props.get(MyPropsSimple.BIN_DIR));
+
+            write(new File(directory, "10-host.properties"), "HOME = /home/host");
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (!"/home/host/bin".equals(props.get(MyPropsSimple.BIN_DIR)) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("Added fragment is not reloaded", "/home/host/bin", props.get(MyPropsSimple.BIN_DIR));
+        } finally {
+            watcher.close();
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
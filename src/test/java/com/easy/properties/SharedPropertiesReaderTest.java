@@ -0,0 +1,148 @@
+package com.easy.properties;
+
+import com.easy.properties.data.Var;
+import com.easy.properties.enums.MyPropsSimple;
+import com.easy.properties.enums.MyPropsWithType;
+import com.easy.properties.exception.InvalidConfigException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class SharedPropertiesReaderTest {
+    private static final long TIMEOUT_MILLIS = 20000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsPublishedConfiguration() {
+        File sharedFile = new File(folder.getRoot(), "types.shared");
+        PropertiesLoader loader = new PropertiesLoader(Var.WITH_TYPES_PROPS, MyPropsWithType.class);
+        loader.setSharedSnapshot(sharedFile.getPath());
+        Properties published = loader.load();
+
+        SharedPropertiesReader reader = PropertiesLoader.readShared(sharedFile.getPath(), MyPropsWithType.class);
+        try {
+            Properties props = reader.getProperties();
+            assertEquals("Incorrect int read", published.getInt(MyPropsWithType.TIMEOUT), props.getInt(MyPropsWithType.TIMEOUT));
+            assertEquals("Incorrect long read", published.getLong(MyPropsWithType.MAX_SIZE), props.getLong(MyPropsWithType.MAX_SIZE));
+            assertEquals("Incorrect float read", published.getFloat(MyPropsWithType.LOAD_FACTOR), props.getFloat(MyPropsWithType.LOAD_FACTOR), 0);
+            assertEquals("Incorrect boolean read", published.getBoolean(MyPropsWithType.ENABLED), props.getBoolean(MyPropsWithType.ENABLED));
+            assertEquals("Incorrect string read", published.get(MyPropsWithType.NAME), props.get(MyPropsWithType.NAME));
+            assertEquals("Incorrect source read", published.getSourceName(MyPropsWithType.NAME), props.getSourceName(MyPropsWithType.NAME));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void switchesOverToConfigurationPublishedAgain() throws Exception {
+        File configFile = folder.newFile("published.properties");
+        File sharedFile = new File(folder.getRoot(), "published.shared");
+        write(configFile, "HOME = /home/before\nBIN_DIR = ${HOME}/bin");
+        PropertiesLoader loader = new PropertiesLoader(configFile.getPath(), MyPropsSimple.class);
+        loader.setSharedSnapshot(sharedFile.getPath());
+        Properties published = loader.load();
+
+        SharedPropertiesReader reader = PropertiesLoader.readShared(sharedFile.getPath(), MyPropsSimple.class);
+        try {
+            Properties props = reader.getProperties();
+            assertEquals("Cannot read value before change", "/home/before/bin", props.get(MyPropsSimple.BIN_DIR));
+
+            // Large enough not to fit in the slots, which must grow
+            StringBuilder description = new StringBuilder();
+            while (description.length() < 200000) {
+                description.append("Description growing beyond the capacity of the slots ");
+            }
+            write(configFile, "HOME = /home/after\nBIN_DIR = ${HOME}/bin\nDESCRIPTION = " + description);
+            loader.reload(published);
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (!"/home/after/bin".equals(props.get(MyPropsSimple.BIN_DIR)) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("Configuration published again is not read", "/home/after/bin", props.get(MyPropsSimple.BIN_DIR));
+            assertEquals("Large value is not read", description.toString().trim(), props.get(MyPropsSimple.DESCRIPTION));
+            assertNull("Error reported for configuration published again", reader.getLastReadError());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void readsLatestOfSnapshotsPublishedInAlternateSlots() throws IOException {
+        File sharedFile = new File(folder.getRoot(), "alternate.shared");
+        SnapshotCodec codec = new SnapshotCodec(MyPropsSimple.class);
+        SharedSnapshotFile publisher = new SharedSnapshotFile(sharedFile, codec);
+        SharedSnapshotFile reader = new SharedSnapshotFile(sharedFile, codec);
+        try {
+            for (int i = 1; i <= 5; i++) {
+                ConfigSource source = ConfigSources.map("values " + i, Collections.singletonMap("HOME", "/home/" + i));
+                Properties props = new PropertiesLoader(MyPropsSimple.class, source).load();
+                publisher.publish(props.getSnapshot());
+                assertEquals("Incorrect sequence published", i, reader.getPublishedSequence());
+                SharedSnapshotFile.Published published = reader.read();
+                assertEquals("Incorrect sequence read", i, published.getSequence());
+                assertEquals("Latest snapshot is not read", "/home/" + i, published.getSnapshot().getValue(MyPropsSimple.HOME.ordinal()));
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void snapshotBeingReadIsKeptIntactWhileSlotsGrow() throws IOException {
+        File sharedFile = new File(folder.getRoot(), "growing.shared");
+        SnapshotCodec codec = new SnapshotCodec(MyPropsSimple.class);
+        SharedSnapshotFile publisher = new SharedSnapshotFile(sharedFile, codec);
+        SharedSnapshotFile reader = new SharedSnapshotFile(sharedFile, codec);
+        try {
+            int size = 100000;
+            for (int i = 1; i <= 4; i++) {
+                publisher.publish(load("/home/" + i, 0).getSnapshot());
+                // The reader has read the header, but not yet the slot, when a snapshot which does not fit in the slots is published
+                long sequence = reader.getPublishedSequence();
+                int capacity = reader.getPublishedCapacity();
+                size *= 3;
+                publisher.publish(load("/home/large", size).getSnapshot());
+                ConfigSnapshot snapshot = reader.read(sequence, capacity);
+                assertNotNull("Snapshot being read is overwritten by the grown slot", snapshot);
+                assertEquals("Incorrect snapshot read", "/home/" + i, snapshot.getValue(MyPropsSimple.HOME.ordinal()));
+                assertEquals("Grown snapshot is not read", "/home/large", reader.read().getSnapshot().getValue(MyPropsSimple.HOME.ordinal()));
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Properties load(String home, int descriptionLength) {
+        StringBuilder description = new StringBuilder("Description");
+        while (description.length() < descriptionLength) {
+            description.append(" growing beyond the capacity of the slots");
+        }
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", home);
+        values.put("DESCRIPTION", description.toString());
+        return new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", values)).load();
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfNothingIsPublished() {
+        PropertiesLoader.readShared(new File(folder.getRoot(), "missing.shared").getPath(), MyPropsSimple.class);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.easy.properties;
+
+import com.easy.properties.enums.MyPropsSimple;
+import com.easy.properties.enums.MyPropsWithType;
+import com.easy.properties.exception.InvalidConfigException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ValueConverterTest {
+
+    @Test
+    public void convertsToTypesProvidedByDefault() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", "30s");
+        values.put("BIN_DIR", "https://example.com/bin");
+        values.put("DUMP_FILE", "[::1]:8080");
+        values.put("DESCRIPTION", "SECONDS");
+        Properties props = load(values);
+        assertEquals("Cannot convert duration", Duration.ofSeconds(30), props.get(MyPropsSimple.HOME, Duration.class));
+        assertEquals("Cannot convert URI", URI.create("https://example.com/bin"), props.get(MyPropsSimple.BIN_DIR, URI.class));
+        assertEquals("Cannot convert socket address", InetSocketAddress.createUnresolved("::1", 8080),
+                props.get(MyPropsSimple.DUMP_FILE, InetSocketAddress.class));
+        assertEquals("Cannot convert enum", TimeUnit.SECONDS, props.get(MyPropsSimple.DESCRIPTION, TimeUnit.class));
+        assertNull("Value is converted for key without value", props.get(MyPropsSimple.TEST, Duration.class));
+    }
+
+    @Test
+    public void convertsDurationInAllUnits() {
+        assertEquals("Cannot convert nanoseconds", Duration.ofNanos(5), ValueConverters.parseDuration("5ns"));
+        assertEquals("Cannot convert milliseconds", Duration.ofMillis(500), ValueConverters.parseDuration("500ms"));
+        assertEquals("Cannot convert minutes", Duration.ofMinutes(5), ValueConverters.parseDuration("5m"));
+        assertEquals("Cannot convert hours", Duration.ofHours(2), ValueConverters.parseDuration("2 h"));
+        assertEquals("Cannot convert days", Duration.ofDays(1), ValueConverters.parseDuration("1d"));
+        assertEquals("Cannot convert ISO-8601 duration", Duration.ofSeconds(90), ValueConverters.parseDuration("PT1M30S"));
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void invalidConfigIsThrownIfValueCannotBeConverted() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", "30 weeks");
+        load(values).get(MyPropsSimple.HOME, Duration.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalArgumentIsThrownIfNoConverterForType() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", "/home/test");
+        load(values).get(MyPropsSimple.HOME, StringBuilder.class);
+    }
+
+    @Test
+    public void convertsOncePerLoadThroughRegisteredConverter() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", "512MB");
+        values.put("BIN_DIR", "1KB, 2KB");
+        PropertiesLoader loader = new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", values));
+        Properties props = loader.load();
+        final AtomicInteger conversions = new AtomicInteger();
+        props.registerConverter(DataSize.class, new ValueConverter<DataSize>() {
+            @Override
+            public DataSize convert(String value) {
+                conversions.incrementAndGet();
+                return DataSize.parse(value);
+            }
+        });
+
+        DataSize size = props.get(MyPropsSimple.HOME, DataSize.class);
+        assertEquals("Incorrect value converted", 512L * 1024 * 1024, size.bytes);
+        assertSame("Value is converted again", size, props.get(MyPropsSimple.HOME, DataSize.class));
+        List<DataSize> sizes = props.getList(MyPropsSimple.BIN_DIR, DataSize.class);
+        assertEquals("Incorrect list converted", Arrays.asList(1024L, 2048L), Arrays.asList(sizes.get(0).bytes, sizes.get(1).bytes));
+        assertSame("List is converted again", sizes, props.getList(MyPropsSimple.BIN_DIR, DataSize.class));
+        assertEquals("Incorrect number of conversions", 3, conversions.get());
+
+        values.put("HOME", "1GB");
+        loader.reload(props);
+        assertEquals("Converted value is retained after reload", 1024L * 1024 * 1024, props.get(MyPropsSimple.HOME, DataSize.class).bytes);
+    }
+
+    @Test
+    public void primitiveGettersUseConverterRegisteredForWrapper() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", "0x1F");
+        Properties props = load(values);
+        props.registerConverter(Integer.class, new ValueConverter<Integer>() {
+            @Override
+            public Integer convert(String value) {
+                return Integer.decode(value);
+            }
+        });
+        assertEquals("Registered converter is not used for primitive", 31, props.getInt(MyPropsSimple.HOME));
+        assertEquals("Registered converter is not used for wrapper", Integer.valueOf(31), props.get(MyPropsSimple.HOME, Integer.class));
+    }
+
+    @Test
+    public void declaredTypeIsReadAsParsedWhileLoading() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("TIMEOUT", "30");
+        values.put("NAME", "15");
+        Properties props = new PropertiesLoader(MyPropsWithType.class, ConfigSources.map("values", values)).load();
+        final AtomicInteger conversions = new AtomicInteger();
+        props.registerConverter(Integer.class, new ValueConverter<Integer>() {
+            @Override
+            public Integer convert(String value) {
+                conversions.incrementAndGet();
+                return Integer.parseInt(value) * 2;
+            }
+        });
+        assertEquals("Converter is used for declared type", 30, props.getInt(MyPropsWithType.TIMEOUT));
+        assertEquals("Converter is used for declared type read as wrapper", Integer.valueOf(30), props.get(MyPropsWithType.TIMEOUT, Integer.class));
+        assertEquals("Converter is used for wider type than declared", 30L, props.getLong(MyPropsWithType.TIMEOUT));
+        assertEquals("Converter is not used for key declared as other type", 30, props.getInt(MyPropsWithType.NAME));
+        assertEquals("Incorrect number of conversions", 1, conversions.get());
+    }
+
+    @Test
+    public void onlyOldestConversionIsDroppedWhenTooManyTypes() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("HOME", "1");
+        Properties props = load(values);
+        final AtomicInteger conversions = new AtomicInteger();
+        props.registerConverter(URI.class, new ValueConverter<URI>() {
+            @Override
+            public URI convert(String value) {
+                conversions.incrementAndGet();
+                return URI.create(value);
+            }
+        });
+        props.get(MyPropsSimple.HOME, String.class);
+        URI uri = props.get(MyPropsSimple.HOME, URI.class);
+        for (Class<?> type : Arrays.<Class<?>>asList(Integer.class, Long.class, Short.class, Byte.class, Float.class, Double.class,
+                Character.class)) {
+            props.get(MyPropsSimple.HOME, type);
+        }
+        assertSame("Conversion other than the oldest one is dropped", uri, props.get(MyPropsSimple.HOME, URI.class));
+        assertEquals("Incorrect number of conversions", 1, conversions.get());
+    }
+
+    private static Properties load(Map<String, String> values) {
+        return new PropertiesLoader(MyPropsSimple.class, ConfigSources.map("values", values)).load();
+    }
+
+    private static final class DataSize {
+        private final long bytes;
+
+        private DataSize(long bytes) {
+            this.bytes = bytes;
+        }
+
+        static DataSize parse(String value) {
+            long multiplier = value.endsWith("GB") ? 1024L * 1024 * 1024 : value.endsWith("MB") ? 1024L * 1024 : 1024L;
+            return new DataSize(Long.parseLong(value.substring(0, value.length() - 2).trim()) * multiplier);
+        }
+    }
+}
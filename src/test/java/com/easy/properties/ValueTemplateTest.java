@@ -0,0 +1,34 @@
+package com.easy.properties;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ValueTemplateTest {
+
+    @Test
+    public void findsVariablesWithAndWithoutCurlyBrace() {
+        ValueTemplate template = ValueTemplate.compile("${HOME}/bin:$my.conf/x");
+        assertEquals("Cannot find all the variables", 2, template.getVariableCount());
+        assertEquals("Cannot find variable with curly brace", "HOME", template.getVariable(0));
+        assertEquals("Cannot find variable without curly brace", "my.conf", template.getVariable(1));
+    }
+
+    @Test
+    public void ignoresWhitespaceInsideCurlyBrace() {
+        ValueTemplate template = ValueTemplate.compile("${ HOME }/bin");
+        assertEquals("Cannot find variable with whitespace inside curly brace", "HOME", template.getVariable(0));
+    }
+
+    @Test
+    public void treatsDollarWithoutVariableAsText() {
+        ValueTemplate template = ValueTemplate.compile("Costs $5 or ${ or $");
+        assertEquals("Dollar sign without variable is not treated as text", 0, template.getVariableCount());
+        assertEquals("Text is not kept as it is", "Costs $5 or ${ or $", template.expand(new String[0]));
+    }
+
+    @Test
+    public void expandsVariablesInOrder() {
+        ValueTemplate template = ValueTemplate.compile("$A-${B}-$A");
+        assertEquals("Variables are not expanded correctly", "1-$2-1", template.expand(new String[]{"1", "$2", "1"}));
+    }
+}
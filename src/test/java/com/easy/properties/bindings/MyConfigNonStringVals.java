@@ -0,0 +1,26 @@
+package com.easy.properties.bindings;
+
+import com.easy.properties.BindKey;
+import java.util.List;
+
+public interface MyConfigNonStringVals {
+    List<Integer> intsValid();
+
+    @BindKey("INTS_VALID")
+    int[] intsValidArray();
+
+    List<String> strings();
+
+    @BindKey("FLOATS_VALID")
+    double[] floats();
+
+    byte byteVal();
+
+    boolean isBooleanVal();
+
+    double doubleVal();
+
+    Long longVal();
+
+    Character charVal();
+}
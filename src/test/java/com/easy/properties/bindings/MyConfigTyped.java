@@ -0,0 +1,30 @@
+package com.easy.properties.bindings;
+
+import com.easy.properties.BindKey;
+import com.easy.properties.ConfigBinding;
+
+@ConfigBinding
+public interface MyConfigTyped {
+    int timeout();
+
+    long getMaxSize();
+
+    double ratio();
+
+    // Value declared as float can be read as double as well
+    @BindKey("LOAD_FACTOR")
+    double loadFactorAsDouble();
+
+    Float loadFactor();
+
+    boolean isEnabled();
+
+    char grade();
+
+    @BindKey("NAME")
+    String serviceName();
+
+    default String describe() {
+        return serviceName() + " (" + timeout() + ")";
+    }
+}
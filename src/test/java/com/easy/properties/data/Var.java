@@ -18,6 +18,10 @@ public class Var {
     public static final String WITH_CYCLIC_DEPENDENCY_PROPS = RESOURCE_DIR + "propsWithCyclicDependency.properties";
     public static final String WITH_SYSTEM_PROPERTY_AS_VARIABLE_PROPS = RESOURCE_DIR + "propsWithSysPropsAsVariable.properties";
     public static final String WITH_ENV_AS_VARIABLE_PROPS = RESOURCE_DIR + "propsWithEnvAsVariable.properties";
+    public static final String WITH_SHARED_VARIABLE_PROPS = RESOURCE_DIR + "propsWithSharedVariable.properties";
+    public static final String WITH_TYPES_PROPS = RESOURCE_DIR + "propsWithTypes.properties";
+    public static final String WITH_INVALID_TYPE_PROPS = RESOURCE_DIR + "propsWithInvalidType.properties";
+    public static final String WITH_SEPARATOR_IN_VALUE_PROPS = RESOURCE_DIR + "propsWithSeparatorInValue.properties";
 
     private Var() {
     }
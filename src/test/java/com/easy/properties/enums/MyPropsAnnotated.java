@@ -0,0 +1,41 @@
+package com.easy.properties.enums;
+
+import com.easy.properties.ConfigKeys;
+
+@ConfigKeys
+public enum MyPropsAnnotated {
+    NO_VAL_YET("my.not.yet", false, "SomethingInMy:${my.home}", String.class),
+    HOME("my.home", true, "/home", String.class),
+    CONF("my.conf", true, "/home/conf", String.class),
+    LOGS("my.logs", false, "/tmp", String.class),
+    UTIL_HOME("my.util", false, "${my.home}/utils", String.class),
+    PRIVILEGE_LEVE("my.privilege", false, "10", int.class);
+    
+    private final String keyName;
+    private final boolean mandatory;
+    private final String defaultValue;
+    private final Class<?> type;
+    
+    private MyPropsAnnotated(String keyName, boolean mandatory, String defaultValue, Class<?> type){
+        this.keyName = keyName;
+        this.mandatory = mandatory;
+        this.defaultValue = defaultValue;
+        this.type = type;
+    }
+
+    public String getKeyName() {
+        return keyName;
+    }
+
+    public boolean isMandatory() {
+        return mandatory;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+}
@@ -0,0 +1,21 @@
+package com.easy.properties.enums;
+
+public enum MyPropsWithType {
+    TIMEOUT(int.class),
+    MAX_SIZE(long.class),
+    RATIO(double.class),
+    LOAD_FACTOR(Float.class),
+    ENABLED(boolean.class),
+    GRADE(char.class),
+    NAME(String.class);
+    
+    private final Class<?> type;
+
+    private MyPropsWithType(Class<?> type) {
+        this.type = type;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+}
@@ -0,0 +1,91 @@
+package com.easy.properties.processor;
+
+import com.easy.properties.ConfigBinding;
+import java.io.File;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConfigBindingProcessorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reportsUnsupportedReturnTypeAsError() {
+        String source = "package test;\n"
+                + "@com.easy.properties.ConfigBinding\n"
+                + "public interface WrongType {\n"
+                + "    String name();\n"
+                + "    java.util.Set<Integer> ids();\n"
+                + "}\n";
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("test.WrongType", source);
+        assertEquals("Unsupported return type is not reported", 1, countErrors(diagnostics));
+        assertTrue("Incorrect error reported", diagnostics.getDiagnostics().get(0).getMessage(null).contains("ids"));
+    }
+
+    @Test
+    public void reportsMethodWithParametersAsError() {
+        String source = "package test;\n"
+                + "@com.easy.properties.ConfigBinding\n"
+                + "public interface WithParameters {\n"
+                + "    String name(int index);\n"
+                + "}\n";
+        assertEquals("Method with parameters is not reported", 1, countErrors(compile("test.WithParameters", source)));
+    }
+
+    @Test
+    public void generatesImplementationForSupportedTypes() {
+        String source = "package test;\n"
+                + "@com.easy.properties.ConfigBinding\n"
+                + "public interface Supported {\n"
+                + "    String name();\n"
+                + "    int timeout();\n"
+                + "    Boolean enabled();\n"
+                + "    java.util.List<Long> ids();\n"
+                + "    double[] ratios();\n"
+                + "    default int twice() { return timeout() * 2; }\n"
+                + "}\n";
+        // Compiled along with the generated implementation
+        assertEquals("Supported types are reported", 0, countErrors(compile("test.Supported", source)));
+        assertTrue("Implementation is not generated", new File(folder.getRoot(), "test/Supported_ConfigBinding.class").isFile());
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(String className, final String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeNotNull(compiler);
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        String classPath = new File(ConfigBinding.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, Arrays.asList("-classpath", classPath, "-d", folder.getRoot().getPath(), "-s", folder.getRoot().getPath()), null,
+                Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new ConfigBindingProcessor()));
+        task.call();
+        return diagnostics;
+    }
+
+    private static int countErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        int count = 0;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
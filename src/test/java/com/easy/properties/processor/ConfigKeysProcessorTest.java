@@ -0,0 +1,121 @@
+package com.easy.properties.processor;
+
+import com.easy.properties.ConfigKey;
+import com.easy.properties.ConfigKeyTable;
+import com.easy.properties.ConfigKeys;
+import com.easy.properties.Properties;
+import com.easy.properties.PropertiesLoader;
+import com.easy.properties.data.Var;
+import com.easy.properties.enums.MyPropsAnnotated;
+import java.io.File;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+import org.junit.Test;
+
+public class ConfigKeysProcessorTest {
+
+    @ConfigKeys
+    enum Nested {
+        FIRST,
+        SECOND
+    }
+
+    @Test
+    public void generatesSameKeysAsReflection() throws Exception {
+        ConfigKey[] configKeys = getGeneratedConfigKeys("com.easy.properties.enums.MyPropsAnnotated_ConfigKeyTable");
+        MyPropsAnnotated[] constants = MyPropsAnnotated.values();
+        assertEquals("Incorrect number of keys generated", constants.length, configKeys.length);
+        for (int i = 0; i < constants.length; i++) {
+            ConfigKey expected = new ConfigKey(constants[i]);
+            assertEquals("Incorrect key name generated", expected.getKeyName(), configKeys[i].getKeyName());
+            assertEquals("Incorrect mandatory flag generated", expected.isMandatory(), configKeys[i].isMandatory());
+            assertEquals("Incorrect default value generated", expected.getDefaultValue(), configKeys[i].getDefaultValue());
+            assertEquals("Incorrect type generated", expected.getType(), configKeys[i].getType());
+        }
+    }
+
+    @Test
+    public void generatesKeysForNestedEnumWithoutOptionalFields() throws Exception {
+        ConfigKey[] configKeys = getGeneratedConfigKeys("com.easy.properties.processor.ConfigKeysProcessorTest_Nested_ConfigKeyTable");
+        assertEquals("Constant name is not used as key name", "SECOND", configKeys[1].getKeyName());
+        assertFalse("Key is mandatory by default", configKeys[1].isMandatory());
+        assertEquals("Default value is not empty", "", configKeys[1].getDefaultValue());
+        assertEquals("Type is not String by default", String.class, configKeys[1].getType());
+    }
+
+    @Test
+    public void loadsConfigWithGeneratedKeys() {
+        Properties props = new PropertiesLoader(Var.WITH_DIFFERENT_KEYNAME_VAR_PROPS, MyPropsAnnotated.class).load();
+        assertEquals("Cannot do variable substituition in default value", "/home/test/utils", props.get(MyPropsAnnotated.UTIL_HOME));
+        assertEquals("Cannot get value of declared type", 10, props.getInt(MyPropsAnnotated.PRIVILEGE_LEVE));
+    }
+
+    @Test
+    public void reportsFieldWithoutGetterAsError() {
+        String source = "package test;\n"
+                + "@com.easy.properties.ConfigKeys\n"
+                + "public enum Misspelled {\n"
+                + "    HOME(\"my.home\");\n"
+                + "    private final String keyName;\n"
+                + "    private Misspelled(String keyName) { this.keyName = keyName; }\n"
+                + "    public String getKeyname() { return keyName; }\n"
+                + "}\n";
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("test.Misspelled", source);
+        assertEquals("Missing getter is not reported", 1, countErrors(diagnostics));
+        assertTrue("Incorrect error reported", diagnostics.getDiagnostics().get(0).getMessage(null).contains("getKeyName()"));
+    }
+
+    @Test
+    public void reportsFieldOfUnsupportedTypeAsError() {
+        String source = "package test;\n"
+                + "@com.easy.properties.ConfigKeys\n"
+                + "public enum WrongType {\n"
+                + "    HOME(1);\n"
+                + "    private final int defaultValue;\n"
+                + "    private WrongType(int defaultValue) { this.defaultValue = defaultValue; }\n"
+                + "    public int getDefaultValue() { return defaultValue; }\n"
+                + "}\n";
+        assertEquals("Field of unsupported type is not reported", 1, countErrors(compile("test.WrongType", source)));
+    }
+
+    private static ConfigKey[] getGeneratedConfigKeys(String tableName) throws Exception {
+        return ((ConfigKeyTable) Class.forName(tableName).getConstructor().newInstance()).getConfigKeys();
+    }
+
+    private static DiagnosticCollector<JavaFileObject> compile(String className, final String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeNotNull(compiler);
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        String classPath = new File(ConfigKeys.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, Arrays.asList("-proc:only", "-classpath", classPath), null,
+                Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new ConfigKeysProcessor()));
+        task.call();
+        return diagnostics;
+    }
+
+    private static int countErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        int count = 0;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                count++;
+            }
+        }
+        return count;
+    }
+}